@@ -3,6 +3,8 @@ plugins {
     jacoco
     id("com.github.johnrengelman.shadow") version "8.1.1"
     id("com.diffplug.spotless") version "6.23.3"
+    id("me.champeau.jmh") version "0.7.2"
+    id("org.graalvm.buildtools.native") version "0.10.2"
 }
 
 java { toolchain { languageVersion.set(JavaLanguageVersion.of(21)) } }
@@ -12,13 +14,42 @@ version = "0.1.0"
 
 repositories { mavenCentral() }
 
+sourceSets.create("loadTest") {
+    compileClasspath += sourceSets.main.get().output
+    runtimeClasspath += sourceSets.main.get().output
+}
+
+configurations["loadTestImplementation"].extendsFrom(configurations.implementation.get())
+configurations["loadTestRuntimeOnly"].extendsFrom(configurations.runtimeOnly.get())
+
+// The deployable jar carries the URLConnection sync client (and Netty for ITEM_REPOSITORY=async).
+// Apache and CRT are compiled against but only packaged when named, e.g. -PhttpClients=apache,crt,
+// which HTTP_CLIENT=apache or crt then needs; the jmh benchmarks always have both.
+val optionalHttpClients = mapOf(
+    "apache" to "software.amazon.awssdk:apache-client:2.25.61",
+    "crt" to "software.amazon.awssdk:aws-crt-client:2.25.61",
+)
+val packagedHttpClients = (findProperty("httpClients") as String?)
+    ?.split(",")?.map { it.trim() }?.filter { it.isNotEmpty() }
+    .orEmpty()
+packagedHttpClients.forEach {
+    require(it in optionalHttpClients) { "Unknown httpClients entry $it; use apache or crt" }
+}
+
 dependencies {
     compileOnly("org.projectlombok:lombok:1.18.30")
     annotationProcessor("org.projectlombok:lombok:1.18.30")
-    implementation("com.amazonaws:aws-java-sdk-dynamodb:1.12.744")
     implementation("software.amazon.awssdk:dynamodb-enhanced:2.25.61")
     implementation("software.amazon.awssdk:auth:2.25.61")
     implementation("software.amazon.awssdk:regions:2.25.61")
+    implementation("software.amazon.awssdk:url-connection-client:2.25.61")
+    implementation("software.amazon.awssdk:netty-nio-client:2.25.61")
+    implementation("org.crac:crac:1.4.0")
+    optionalHttpClients.values.forEach {
+        compileOnly(it)
+        "jmhImplementation"(it)
+    }
+    packagedHttpClients.forEach { implementation(optionalHttpClients.getValue(it)) }
 
     implementation("com.google.dagger:dagger:2.51.1")
     annotationProcessor("com.google.dagger:dagger-compiler:2.51.1")
@@ -37,6 +68,8 @@ dependencies {
     testImplementation("org.mockito:mockito-junit-jupiter:5.5.0")
     testImplementation("org.mockito:mockito-core:5.5.0")
     testImplementation("org.mockito:mockito-junit-jupiter:5.5.0")
+
+    "loadTestImplementation"("org.hdrhistogram:HdrHistogram:2.2.2")
 }
 
 
@@ -47,10 +80,142 @@ spotless {
     }
 }
 
+// ./gradlew jmh writes build/reports/jmh/results.json for release-over-release comparison;
+// -PjmhIncludes=<regex> narrows the run, e.g. -PjmhIncludes=RouterHandlerBenchmark.
+jmh {
+    jmhVersion.set("1.37")
+    profilers.addAll("gc", "stack")
+    resultFormat.set("JSON")
+    resultsFile.set(layout.buildDirectory.file("reports/jmh/results.json"))
+    humanOutputFile.set(layout.buildDirectory.file("reports/jmh/human.txt"))
+    (findProperty("jmhIncludes") as String?)?.let { includes.add(it) }
+}
+
+// Native build for the provided.al2023 runtime. With a GraalVM 21 JDK as JAVA_HOME,
+// ./gradlew nativeZip produces build/distributions/bootstrap.zip, whose bootstrap executable runs
+// app.runtime.LambdaRuntime.
+graalvmNative {
+    testSupport.set(false)
+    metadataRepository { enabled.set(true) }
+    binaries {
+        named("main") {
+            imageName.set("bootstrap")
+            mainClass.set("app.runtime.LambdaRuntime")
+            buildArgs.addAll("--no-fallback", "-march=compatibility", "-H:+ReportExceptionStackTraces")
+        }
+    }
+}
+
+val nativeZip by tasks.registering(Zip::class) {
+    group = "build"
+    description = "Packages the native bootstrap executable as a custom runtime Lambda asset."
+    from(tasks.named("nativeCompile")) {
+        include("bootstrap")
+        filePermissions { unix("rwxr-xr-x") }
+    }
+    archiveFileName.set("bootstrap.zip")
+    destinationDirectory.set(layout.buildDirectory.dir("distributions"))
+}
+
 tasks.withType<Jar> {
     manifest { attributes["Main-Class"] = "app.handlers.RouterHandler" }
 }
 
+tasks.shadowJar {
+    mergeServiceFiles()
+    minimize {
+        // Kept whole because they load their own classes by name, which the reachability analysis
+        // cannot see: SDK core (interceptors, SPI lookups), the DynamoDB service (its interceptor
+        // list and endpoint rules), the packaged HTTP clients with their transports, databind's
+        // optional handlers and CRaC's JDK bridge. The rest of the SDK is trimmed like any library.
+        exclude(dependency("software.amazon.awssdk:sdk-core:.*"))
+        exclude(dependency("software.amazon.awssdk:dynamodb:.*"))
+        exclude(dependency("software.amazon.awssdk:url-connection-client:.*"))
+        exclude(dependency("software.amazon.awssdk:netty-nio-client:.*"))
+        exclude(dependency("io.netty:.*:.*"))
+        if ("apache" in packagedHttpClients) {
+            exclude(dependency("software.amazon.awssdk:apache-client:.*"))
+            exclude(dependency("org.apache.httpcomponents:.*:.*"))
+            exclude(dependency("commons-logging:.*:.*"))
+        }
+        if ("crt" in packagedHttpClients) {
+            exclude(dependency("software.amazon.awssdk:aws-crt-client:.*"))
+            exclude(dependency("software.amazon.awssdk.crt:.*:.*"))
+        }
+        exclude(dependency("com.fasterxml.jackson.core:jackson-databind:.*"))
+        exclude(dependency("org.crac:.*:.*"))
+    }
+}
+
+// Reports the deployable jar's size and how many classes one cold invoke loads from it. Pass
+// -PmaxJarKiB and/or -PmaxColdClasses to fail the build when either grows past a budget. It builds
+// the shadow jar and starts a separate JVM, so it runs on its own rather than as part of check.
+val coldStartReport by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Reports shadow jar size and classes loaded by a cold invoke."
+    val jar = tasks.shadowJar.flatMap { it.archiveFile }
+    val classLog = layout.buildDirectory.file("reports/cold-start/class-load.log")
+    val report = layout.buildDirectory.file("reports/cold-start/report.txt")
+    dependsOn(tasks.shadowJar, tasks.named("jmhClasses"))
+    classpath = files(jar) + sourceSets["jmh"].output
+    mainClass.set("app.handlers.ColdInvoke")
+    jvmArgs("-Xlog:class+load=info:file=${classLog.get().asFile}")
+    outputs.file(report)
+    doFirst { classLog.get().asFile.parentFile.mkdirs() }
+    doLast {
+        val jarFile = jar.get().asFile
+        val jarKiB = jarFile.length() / 1024
+        val lines = classLog.get().asFile.readLines().filter { " source: " in it }
+        val fromJar = lines.count { jarFile.name in it }
+        val summary =
+            "shadow jar: ${jarFile.name} $jarKiB KiB\n" +
+                "classes loaded on cold invoke: ${lines.size} ($fromJar from the jar)\n"
+        report.get().asFile.writeText(summary)
+        logger.lifecycle(summary.trim())
+        (findProperty("maxJarKiB") as String?)?.toLong()?.let {
+            check(jarKiB <= it) { "Shadow jar is $jarKiB KiB, over the $it KiB budget" }
+        }
+        (findProperty("maxColdClasses") as String?)?.toInt()?.let {
+            check(lines.size <= it) { "Cold invoke loaded ${lines.size} classes, over $it" }
+        }
+    }
+}
+
+// Drives the API against an in-memory DynamoDB from src/loadTest. Settings come from
+// -PloadThreads, -PloadUsers, -PloadItemsPerUser, -PloadWarmupSeconds, -PloadSeconds, -PloadMix,
+// -PloadSeed, -PloadCacheEntries and -PloadTransport (direct or http); the report lands in
+// build/reports/load-test.
+val loadTest by tasks.registering(JavaExec::class) {
+    group = "verification"
+    description = "Runs the in-process load test and reports throughput and latency percentiles."
+    classpath = sourceSets["loadTest"].runtimeClasspath
+    mainClass.set("app.load.LoadTest")
+    // A fixed heap keeps heap sizing out of the comparison between runs.
+    jvmArgs("-Xms1g", "-Xmx1g", "-XX:+AlwaysPreTouch")
+    listOf(
+        "threads", "users", "itemsPerUser", "warmupSeconds", "seconds", "mix", "seed", "cacheEntries",
+        "transport",
+    ).forEach { name ->
+        findProperty("load" + name.replaceFirstChar { it.uppercase() })?.let {
+            systemProperty("load.$name", it)
+        }
+    }
+    systemProperty(
+        "load.reportDir",
+        layout.buildDirectory.dir("reports/load-test").get().asFile.absolutePath,
+    )
+    outputs.upToDateWhen { false }
+}
+
+// Serves the API over HTTP outside Lambda with app.runtime.LocalServer. It reads the same
+// environment as the function, plus PORT, SUBJECT_HEADER and DYNAMODB_ENDPOINT.
+val runLocal by tasks.registering(JavaExec::class) {
+    group = "application"
+    description = "Runs the API as a standalone HTTP server."
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("app.runtime.LocalServer")
+}
+
 tasks.test {
     useJUnitPlatform()
     testLogging {
@@ -0,0 +1,53 @@
+package app.di;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+
+/**
+ * Cold construction cost of each {@code HTTP_CLIENT} choice in a fresh JVM, class loading
+ * included. {@code firstCall} adds one DescribeTable round trip, so run it with AWS credentials and
+ * {@code USER_ITEMS_TABLE_NAME} set.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class HttpClientStartupBenchmark {
+  @Param({"url-connection", "apache", "crt"})
+  public String implementation;
+
+  @Benchmark
+  public DynamoDbClient build() {
+    return newClient();
+  }
+
+  @Benchmark
+  public DescribeTableResponse firstCall() {
+    try (DynamoDbClient ddb = newClient()) {
+      return ddb.describeTable(r -> r.tableName(System.getenv("USER_ITEMS_TABLE_NAME")));
+    }
+  }
+
+  private DynamoDbClient newClient() {
+    final HttpClientConfig config = new HttpClientConfig(implementation, 2_000, 5_000, 50);
+    return DynamoDbClient.builder()
+        .region(Region.of(System.getenv().getOrDefault("AWS_REGION", "us-east-1")))
+        .httpClient(AwsModule.httpClient(config))
+        .credentialsProvider(AwsModule.credentialsProvider())
+        .build();
+  }
+}
@@ -0,0 +1,31 @@
+package app.handlers;
+
+import app.di.DaggerServiceComponent;
+import app.di.ServiceComponent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import java.util.Map;
+
+/**
+ * Builds the handler and serves a single request in a fresh JVM, then exits. The {@code
+ * coldStartReport} task runs it against the shadow jar with class-load logging on, so the log holds
+ * exactly what a cold invoke loads. Priming is skipped to keep DynamoDB out of the picture.
+ */
+public final class ColdInvoke {
+  private ColdInvoke() {}
+
+  public static void main(final String[] args) {
+    final ServiceComponent component = DaggerServiceComponent.create();
+    final RouterHandler handler =
+        new RouterHandler(
+            component.itemService(), component.apiResponseFactory(), component.objectMapper());
+    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
+    req.setHttpMethod("GET");
+    req.setPath("/v1/me");
+    req.setHeaders(Map.of("origin", "http://localhost:5173"));
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(req, null);
+    if (response.getStatusCode() != 200) {
+      throw new IllegalStateException("Cold invoke answered " + response.getStatusCode());
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package app.handlers;
+
+import app.di.DaggerServiceComponent;
+import app.di.ServiceComponent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Time-to-first-response in a fresh JVM. Every fork is a new process and runs exactly one
+ * invocation, so the numbers include class loading and lazy initialisation just like a Lambda cold
+ * start. {@code firstResponse} leaves the init phase out of the measurement, as Lambda does for the
+ * request latency it reports; {@code initAndFirstResponse} includes it. Run with AWS credentials
+ * and {@code USER_ITEMS_TABLE_NAME} set so that priming includes the DynamoDB handshake.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(20)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@State(Scope.Benchmark)
+public class ColdStartBenchmark {
+  @Param({"true", "false"})
+  public boolean prime;
+
+  private RouterHandler handler;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    handler = newHandler(prime);
+  }
+
+  @Benchmark
+  public APIGatewayProxyResponseEvent firstResponse() {
+    return handler.handleRequest(meRequest(), null);
+  }
+
+  @Benchmark
+  public APIGatewayProxyResponseEvent initAndFirstResponse() {
+    return newHandler(prime).handleRequest(meRequest(), null);
+  }
+
+  private static RouterHandler newHandler(final boolean prime) {
+    final ServiceComponent component = DaggerServiceComponent.create();
+    if (prime) {
+      InitPhase.prime(component);
+    }
+    return new RouterHandler(
+        component.itemService(), component.apiResponseFactory(), component.objectMapper());
+  }
+
+  private static APIGatewayProxyRequestEvent meRequest() {
+    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
+    req.setHttpMethod("GET");
+    req.setPath("/v1/me");
+    req.setHeaders(Map.of("origin", "http://localhost:5173"));
+    return req;
+  }
+}
@@ -0,0 +1,124 @@
+package app.handlers;
+
+import app.di.CorsConfig;
+import app.repo.InMemoryItemRepository;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import app.web.Route;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One warm {@link RouterHandler#handleRequest} per route, from event to finished response, over
+ * {@link InMemoryItemRepository}. Everything but the DynamoDB round trip is measured: routing,
+ * authorizer lookup, body parsing, item mapping, serialization and headers. The user holds {@value
+ * #ITEMS} items, so {@code list} returns a full default page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RouterHandlerBenchmark {
+  private static final String USER = "0b5f1a2e-8c4d-4f7e-9a3b-2d6c1e0f9a8b";
+  private static final String ORIGIN = "http://localhost:5173";
+  private static final int ITEMS = 100;
+
+  @Param({
+    "me",
+    "list",
+    "get",
+    "create",
+    "update",
+    "delete",
+    "batch",
+    "batch-get",
+    "options",
+    "not-found"
+  })
+  public String route;
+
+  private RouterHandler handler;
+  private APIGatewayProxyRequestEvent request;
+
+  @Setup
+  public void setUp() {
+    final InMemoryItemRepository repo = new InMemoryItemRepository(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      repo.put(USER, itemId(i), "value " + i, 1_700_000_000_000L + i).join();
+    }
+    final ObjectMapper mapper =
+        new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+    handler =
+        new RouterHandler(
+            new ItemService(repo),
+            new ApiResponseFactory(mapper, new CorsConfig(List.of(ORIGIN))),
+            mapper);
+    final String item = Route.ITEM.expand(itemId(7));
+    request =
+        switch (route) {
+          case "me" -> request("GET", Route.ME.toString(), null);
+          case "list" -> request("GET", Route.ITEMS.toString(), null);
+          case "get" -> request("GET", item, null);
+          case "create" -> request("POST", Route.ITEMS.toString(), "{\"value\":\"hello\"}");
+          case "update" -> request("PUT", item, "{\"value\":\"hello\"}");
+          // Deleting an absent item succeeds like DynamoDB does, so every call does the same work.
+          case "delete" -> request("DELETE", Route.ITEM.expand("absent"), null);
+          case "batch" ->
+              request(
+                  "POST",
+                  Route.ITEMS_BATCH.toString(),
+                  "{\"operations\":[{\"op\":\"update\",\"item_id\":\""
+                      + itemId(1)
+                      + "\",\"value\":\"a\"},{\"op\":\"delete\",\"item_id\":\"absent\"}]}");
+          case "batch-get" ->
+              request(
+                  "POST",
+                  Route.ITEMS_BATCH_GET.toString(),
+                  "{\"ids\":[\"" + itemId(1) + "\",\"" + itemId(2) + "\",\"absent\"]}");
+          case "options" -> request("OPTIONS", Route.ITEMS.toString(), null);
+          case "not-found" -> request("GET", "/v1/unknown", null);
+          default -> throw new IllegalArgumentException("Unknown route " + route);
+        };
+  }
+
+  @Benchmark
+  public APIGatewayProxyResponseEvent handleRequest() {
+    return handler.handleRequest(request, null);
+  }
+
+  private static String itemId(final int i) {
+    return String.format(Locale.ROOT, "item-%04d", i);
+  }
+
+  private static APIGatewayProxyRequestEvent request(
+      final String method, final String path, final String body) {
+    final APIGatewayProxyRequestEvent.ProxyRequestContext requestContext =
+        new APIGatewayProxyRequestEvent.ProxyRequestContext();
+    requestContext.setAuthorizer(Map.of("claims", Map.of("sub", USER)));
+    return new APIGatewayProxyRequestEvent()
+        .withHttpMethod(method)
+        .withPath(path)
+        .withHeaders(Map.of("origin", ORIGIN, "content-type", "application/json"))
+        .withBody(body)
+        .withRequestContext(requestContext);
+  }
+}
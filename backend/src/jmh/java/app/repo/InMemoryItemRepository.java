@@ -0,0 +1,175 @@
+package app.repo;
+
+import static app.repo.UserItemMapping.SCHEMA;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * {@link ItemRepository} over stored attribute maps, so benchmarks exercise the same schema
+ * mapping and JSON writing the real repositories do after the network round trip, and nothing
+ * else. Each user keeps at most {@code capacity} items, the lowest-sorted one giving way to a new
+ * put, so write benchmarks run in bounded memory.
+ */
+public final class InMemoryItemRepository implements ItemRepository {
+  private final Map<String, ConcurrentNavigableMap<String, Map<String, AttributeValue>>>
+      partitions = new ConcurrentHashMap<>();
+  private final Map<String, Integer> sizes = new ConcurrentHashMap<>();
+  private final int capacity;
+
+  public InMemoryItemRepository(final int capacity) {
+    this.capacity = capacity;
+  }
+
+  @Override
+  public final CompletableFuture<UserItem> put(
+      final String userId, final String itemId, final String value, final long now) {
+    final UserItemRecord r = UserItemMapping.toRecord(userId, itemId, value, now);
+    final ConcurrentNavigableMap<String, Map<String, AttributeValue>> partition = partition(userId);
+    // Skip-list size() walks every entry, so the count is kept alongside.
+    if (partition.put(itemId, SCHEMA.itemToMap(r, true)) == null
+        && sizes.merge(userId, 1, Integer::sum) > capacity
+        && partition.pollFirstEntry() != null) {
+      sizes.merge(userId, -1, Integer::sum);
+    }
+    return CompletableFuture.completedFuture(UserItemMapping.toModel(r));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> update(
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    final Map<String, AttributeValue> stored =
+        partition(userId)
+            .computeIfPresent(
+                itemId,
+                (k, existing) -> {
+                  final UserItemRecord r = SCHEMA.mapToItem(existing);
+                  final long version = r.getVersion() == null ? 0L : r.getVersion();
+                  if (expectedVersion != null && expectedVersion != version) {
+                    throw new VersionConflictException(itemId);
+                  }
+                  r.setValue(value);
+                  r.setUpdatedAt(now);
+                  r.setVersion(version + 1);
+                  return SCHEMA.itemToMap(r, true);
+                });
+    return CompletableFuture.completedFuture(
+        Optional.ofNullable(stored).map(InMemoryItemRepository::toModel));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId) {
+    return CompletableFuture.completedFuture(
+        Optional.ofNullable(partition(userId).get(itemId)).map(InMemoryItemRepository::toModel));
+  }
+
+  /** Returns the whole item; the caller only reads {@code fields}. */
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId, final Set<ItemField> fields) {
+    return get(userId, itemId);
+  }
+
+  @Override
+  public final CompletableFuture<String> listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    final List<Map<String, AttributeValue>> items = page(userId, limit, cursor);
+    return CompletableFuture.completedFuture(
+        UserItemJson.page(items, nextCursor(items, limit), fields));
+  }
+
+  @Override
+  public final CompletableFuture<Void> delete(final String userId, final String itemId) {
+    if (partition(userId).remove(itemId) != null) {
+      sizes.merge(userId, -1, Integer::sum);
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchResult>> batchWrite(
+      final String userId, final List<BatchOperation> operations, final long now) {
+    final Set<String> failed = new HashSet<>();
+    for (final BatchOperation op : operations) {
+      switch (op.type()) {
+        case CREATE -> put(userId, op.itemId(), op.value(), now);
+        case UPDATE -> {
+          if (update(userId, op.itemId(), op.value(), null, now).join().isEmpty()) {
+            failed.add(op.itemId());
+          }
+        }
+        case DELETE -> delete(userId, op.itemId());
+      }
+    }
+    return CompletableFuture.completedFuture(UserItemMapping.batchResults(operations, failed));
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchGetResult>> getMany(
+      final String userId, final List<String> itemIds) {
+    final Map<String, UserItem> found = new HashMap<>();
+    final Map<String, Map<String, AttributeValue>> partition = partition(userId);
+    for (final String itemId : itemIds) {
+      final Map<String, AttributeValue> item = partition.get(itemId);
+      if (item != null) {
+        found.put(itemId, toModel(item));
+      }
+    }
+    return CompletableFuture.completedFuture(UserItemMapping.batchGetResults(itemIds, found));
+  }
+
+  @Override
+  public final void prime() {}
+
+  private List<Map<String, AttributeValue>> page(
+      final String userId, final int limit, final String cursor) {
+    NavigableMap<String, Map<String, AttributeValue>> items = partition(userId);
+    if (cursor != null) {
+      items = items.tailMap(UserItemMapping.decodeCursor(userId, cursor).get("itemId").s(), false);
+    }
+    final List<Map<String, AttributeValue>> out = new ArrayList<>(Math.min(limit, 64));
+    for (final Map<String, AttributeValue> item : items.values()) {
+      if (out.size() == limit) {
+        break;
+      }
+      out.add(item);
+    }
+    return out;
+  }
+
+  private static String nextCursor(final List<Map<String, AttributeValue>> items, final int limit) {
+    return items.size() == limit && !items.isEmpty()
+        ? UserItemMapping.encodeCursor(items.get(items.size() - 1))
+        : null;
+  }
+
+  private static UserItem toModel(final Map<String, AttributeValue> item) {
+    return UserItemMapping.toModel(SCHEMA.mapToItem(item));
+  }
+
+  private ConcurrentNavigableMap<String, Map<String, AttributeValue>> partition(
+      final String userId) {
+    return partitions.computeIfAbsent(userId, ignored -> new ConcurrentSkipListMap<>());
+  }
+}
@@ -0,0 +1,94 @@
+package app.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * The static schema in {@link UserItemMapping} against {@code TableSchema.fromBean}. {@link Build}
+ * times the first schema construction in a fresh JVM, which is what init pays; the mapping
+ * benchmarks convert a 10k-item list in both directions on a warmed schema.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class TableSchemaBenchmark {
+  private static final int ITEMS = 10_000;
+
+  @Param({"static", "bean"})
+  public String schema;
+
+  private TableSchema<UserItemRecord> table;
+  private List<UserItemRecord> records;
+  private List<Map<String, AttributeValue>> stored;
+
+  @Setup
+  public void setUp() {
+    table = create(schema);
+    records = new ArrayList<>(ITEMS);
+    stored = new ArrayList<>(ITEMS);
+    for (int i = 0; i < ITEMS; i++) {
+      final UserItemRecord r = UserItemMapping.toRecord("user", "item-" + i, "value " + i, i);
+      records.add(r);
+      stored.add(table.itemToMap(r, true));
+    }
+  }
+
+  @Benchmark
+  public void itemToMap(final Blackhole bh) {
+    for (final UserItemRecord r : records) {
+      bh.consume(table.itemToMap(r, true));
+    }
+  }
+
+  @Benchmark
+  public void mapToItem(final Blackhole bh) {
+    for (final Map<String, AttributeValue> m : stored) {
+      bh.consume(table.mapToItem(m));
+    }
+  }
+
+  private static TableSchema<UserItemRecord> create(final String schema) {
+    return "bean".equals(schema)
+        ? TableSchema.fromBean(UserItemRecord.class)
+        : UserItemMapping.schema();
+  }
+
+  /** One schema construction per fresh JVM, class loading included. */
+  @BenchmarkMode(Mode.SingleShotTime)
+  @OutputTimeUnit(TimeUnit.MILLISECONDS)
+  @Fork(20)
+  @Warmup(iterations = 0)
+  @Measurement(iterations = 1)
+  @State(Scope.Benchmark)
+  public static class Build {
+    @Param({"static", "bean"})
+    public String schema;
+
+    @Benchmark
+    public TableSchema<UserItemRecord> build() {
+      // Initialising UserItemMapping builds the static schema exactly once.
+      return "bean".equals(schema)
+          ? TableSchema.fromBean(UserItemRecord.class)
+          : UserItemMapping.SCHEMA;
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package app.repo;
+
+import app.model.UserItem;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Per-item mapping cost on the read path: {@code toModel} from a record, and {@code fromStored}
+ * from the attribute map DynamoDB returns, which is what every get, list and batch-get pays.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class UserItemMappingBenchmark {
+  private UserItemRecord record;
+  private Map<String, AttributeValue> stored;
+
+  @Setup
+  public void setUp() {
+    record = UserItemMapping.toRecord("user", "item-1", "value 1", 1_700_000_000_000L);
+    stored = UserItemMapping.SCHEMA.itemToMap(record, true);
+  }
+
+  @Benchmark
+  public UserItem toModel() {
+    return UserItemMapping.toModel(record);
+  }
+
+  @Benchmark
+  public UserItem fromStored() {
+    return UserItemMapping.toModel(UserItemMapping.SCHEMA.mapToItem(stored));
+  }
+}
@@ -0,0 +1,107 @@
+package app.web;
+
+import app.di.CompressionConfig;
+import app.di.CorsConfig;
+import app.model.Page;
+import app.model.UserItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Per-request response path from origin lookup to finished event. Run with {@code -prof gc} (the
+ * build enables it) and read {@code gc.alloc.rate.norm}: with a pre-serialized body, {@code ok} and
+ * {@code noContent} should allocate only the response event itself. {@code okItem} and {@code
+ * okPage} add ObjectMapper serialization of one item and of a 100-item page; {@code okPageGzip}
+ * adds gzip and base64 of that page through a pooled deflater.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class ApiResponseBenchmark {
+  private static final String BODY = "{\"item_id\":\"item1\",\"value\":\"hello\"}";
+  private static final int PAGE_SIZE = 100;
+
+  private ApiResponseFactory factory;
+  private ResponseCompressor compressor;
+  private ApiRequest allowed;
+  private ApiRequest disallowed;
+  private ApiRequest gzipAllowed;
+  private UserItem item;
+  private Page<UserItem> page;
+
+  @Setup
+  public void setUp() {
+    factory =
+        new ApiResponseFactory(
+            new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE),
+            new CorsConfig(List.of("http://localhost:5173", "https://app.example.com")));
+    allowed = request("https://app.example.com");
+    disallowed = request("https://evil.example");
+    compressor = new ResponseCompressor(new CompressionConfig(1024));
+    gzipAllowed =
+        new ApiRequest(
+            "GET",
+            "/v1/items",
+            Map.of("origin", "https://app.example.com", "accept-encoding", "gzip, deflate, br"),
+            null,
+            null,
+            "user");
+    final List<UserItem> items = new ArrayList<>(PAGE_SIZE);
+    for (int i = 0; i < PAGE_SIZE; i++) {
+      items.add(new UserItem("user", "item-" + i, "value " + i, 1_700_000_000_000L, 0L, 1L));
+    }
+    item = items.get(0);
+    page = new Page<>(items, "aXRlbS05OQ");
+  }
+
+  @Benchmark
+  public ApiResult ok() {
+    return factory.create(allowed).ok(BODY);
+  }
+
+  @Benchmark
+  public ApiResult okItem() {
+    return factory.create(allowed).ok(item);
+  }
+
+  @Benchmark
+  public ApiResult okPage() {
+    return factory.create(allowed).ok(page);
+  }
+
+  @Benchmark
+  public ApiResult okPageGzip() {
+    return compressor.encode(gzipAllowed, factory.create(gzipAllowed).ok(page));
+  }
+
+  @Benchmark
+  public ApiResult okDisallowedOrigin() {
+    return factory.create(disallowed).ok(BODY);
+  }
+
+  @Benchmark
+  public ApiResult noContent() {
+    return factory.create(allowed).noContent();
+  }
+
+  private static ApiRequest request(final String origin) {
+    return new ApiRequest("GET", "/v1/items", Map.of("origin", origin), null, null, "user");
+  }
+}
@@ -0,0 +1,59 @@
+package app.web;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Direct {@link AuthorizerClaims} lookup against the {@code valueToTree} walk it replaced. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class AuthorizerClaimsBenchmark {
+  private ObjectMapper mapper;
+  private Map<String, Object> authorizer;
+
+  @Setup
+  public void setUp() {
+    mapper = new ObjectMapper();
+    // Shaped like a Cognito user pool authorizer on a REST API.
+    authorizer =
+        Map.of(
+            "claims",
+            Map.of(
+                "sub", "0b5f1a2e-8c4d-4f7e-9a3b-2d6c1e0f9a8b",
+                "email", "user@example.com",
+                "email_verified", "true",
+                "cognito:username", "0b5f1a2e-8c4d-4f7e-9a3b-2d6c1e0f9a8b",
+                "aud", "5r8qv0example",
+                "token_use", "id",
+                "auth_time", "1718000000",
+                "iss", "https://cognito-idp.us-east-1.amazonaws.com/us-east-1_example",
+                "exp", "Mon Jun 10 12:00:00 UTC 2024",
+                "iat", "Mon Jun 10 11:00:00 UTC 2024"));
+  }
+
+  @Benchmark
+  public String valueToTree() {
+    final JsonNode node = mapper.valueToTree(authorizer);
+    return node.path("claims").path("sub").asText(null);
+  }
+
+  @Benchmark
+  public String direct() {
+    return AuthorizerClaims.subject(authorizer);
+  }
+}
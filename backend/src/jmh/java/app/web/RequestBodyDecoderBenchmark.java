@@ -0,0 +1,50 @@
+package app.web;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/** Streaming {@link RequestBodyDecoder} against the regex extraction it replaced. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RequestBodyDecoderBenchmark {
+  private static final String VALUE_REGEX = ".*\"value\":\"(.*?)\".*";
+
+  @Param({"100", "10240", "262144"})
+  public int bodySize;
+
+  private String body;
+  private RequestBodyDecoder decoder;
+
+  @Setup
+  public void setUp() {
+    final String shell = "{\"value\":\"\"}";
+    body = "{\"value\":\"" + "x".repeat(Math.max(0, bodySize - shell.length())) + "\"}";
+    decoder = new RequestBodyDecoder(new JsonFactory(), bodySize);
+  }
+
+  @Benchmark
+  public String regex() {
+    return body.replaceAll(VALUE_REGEX, "$1");
+  }
+
+  @Benchmark
+  public Optional<String> streaming() {
+    return decoder.readValue(body);
+  }
+}
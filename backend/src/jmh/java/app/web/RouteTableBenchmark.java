@@ -0,0 +1,64 @@
+package app.web;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Route lookup as the table grows. {@code extraRoutes} pads the table with unrelated endpoints;
+ * lookup times should not move with it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@State(Scope.Benchmark)
+public class RouteTableBenchmark {
+  @Param({"0", "50", "500"})
+  private int extraRoutes;
+
+  private RouteTable<String> table;
+
+  @Setup
+  public void setUp() {
+    final RouteTable.Builder<String> builder = RouteTable.builder();
+    for (final Route route : Route.values()) {
+      builder.add(HttpMethod.GET, route.toString(), route.name());
+    }
+    builder.add(HttpMethod.PUT, Route.ITEM.toString(), "put");
+    for (int i = 0; i < extraRoutes; i++) {
+      builder.add(HttpMethod.GET, "/v1/resource" + i + "/{id}", "extra" + i);
+    }
+    table = builder.build();
+  }
+
+  @Benchmark
+  public RouteTable.Match<String> literal() {
+    return table.match(HttpMethod.GET, "/v1/items");
+  }
+
+  @Benchmark
+  public RouteTable.Match<String> withParameter() {
+    return table.match(HttpMethod.PUT, "/v1/items/0b5f1a2e-8c4d-4f7e");
+  }
+
+  @Benchmark
+  public RouteTable.Match<String> methodNotAllowed() {
+    return table.match(HttpMethod.DELETE, "/v1/items:batch");
+  }
+
+  @Benchmark
+  public RouteTable.Match<String> notFound() {
+    return table.match(HttpMethod.GET, "/v1/unknown/path");
+  }
+}
@@ -0,0 +1,28 @@
+package app.load;
+
+import app.handlers.RouterHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import java.io.Closeable;
+import java.io.IOException;
+
+/** How one worker reaches the API: a direct handler call, or a request to {@code LocalServer}. */
+interface Client extends Closeable {
+  Reply send(APIGatewayProxyRequestEvent request) throws IOException;
+
+  /** The parts of a response a worker looks at. */
+  record Reply(int status, String body) {}
+
+  static Client direct(final RouterHandler handler) {
+    return new Client() {
+      @Override
+      public Reply send(final APIGatewayProxyRequestEvent request) {
+        final APIGatewayProxyResponseEvent response = handler.handleRequest(request, null);
+        return new Reply(response.getStatusCode(), response.getBody());
+      }
+
+      @Override
+      public void close() {}
+    };
+  }
+}
@@ -0,0 +1,138 @@
+package app.load;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.DynamoDbException;
+
+/**
+ * Evaluates the expression forms the repositories send. Conditions are {@code AND}-joined clauses
+ * of {@code attribute_exists(a)}, {@code attribute_not_exists(a)} and {@code a = :v}; updates are
+ * one {@code SET} of {@code a = operand} or {@code a = operand + operand} actions, where an operand
+ * is a value, an attribute or {@code if_not_exists(a, :v)}. Anything else is rejected rather than
+ * guessed at.
+ */
+final class Expressions {
+  private static final String AND = " AND ";
+  private static final String SET = "SET ";
+  private static final String EXISTS = "attribute_exists(";
+  private static final String NOT_EXISTS = "attribute_not_exists(";
+  private static final String IF_NOT_EXISTS = "if_not_exists(";
+
+  private Expressions() {}
+
+  static boolean holds(
+      final Map<String, AttributeValue> item,
+      final String condition,
+      final Map<String, String> names,
+      final Map<String, AttributeValue> values) {
+    for (final String raw : condition.split(AND)) {
+      final String clause = raw.trim();
+      final boolean met;
+      if (clause.startsWith(EXISTS)) {
+        met = item != null && item.containsKey(name(argument(clause, EXISTS), names));
+      } else if (clause.startsWith(NOT_EXISTS)) {
+        met = item == null || !item.containsKey(name(argument(clause, NOT_EXISTS), names));
+      } else {
+        final String[] sides = assignment(clause);
+        met = item != null && values.get(sides[1]).equals(item.get(name(sides[0], names)));
+      }
+      if (!met) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  static Map<String, AttributeValue> update(
+      final Map<String, AttributeValue> item,
+      final String expression,
+      final Map<String, String> names,
+      final Map<String, AttributeValue> values) {
+    if (!expression.startsWith(SET)) {
+      throw new UnsupportedOperationException("Only SET updates are supported: " + expression);
+    }
+    final Map<String, AttributeValue> updated = new HashMap<>(item);
+    for (final String action : topLevel(expression.substring(SET.length()))) {
+      final String[] sides = assignment(action);
+      final String[] terms = sides[1].split("\\+");
+      AttributeValue value = operand(item, terms[0].trim(), names, values);
+      if (terms.length == 2) {
+        final AttributeValue addend = operand(item, terms[1].trim(), names, values);
+        value =
+            AttributeValue.fromN(
+                new BigDecimal(value.n()).add(new BigDecimal(addend.n())).toPlainString());
+      } else if (terms.length > 2) {
+        throw new UnsupportedOperationException("Unsupported SET value: " + sides[1]);
+      }
+      updated.put(name(sides[0], names), value);
+    }
+    return Map.copyOf(updated);
+  }
+
+  static String name(final String token, final Map<String, String> names) {
+    return token.startsWith("#") ? names.get(token) : token;
+  }
+
+  private static AttributeValue operand(
+      final Map<String, AttributeValue> item,
+      final String operand,
+      final Map<String, String> names,
+      final Map<String, AttributeValue> values) {
+    if (operand.startsWith(":")) {
+      return values.get(operand);
+    }
+    if (operand.startsWith(IF_NOT_EXISTS)) {
+      final String[] args = argument(operand, IF_NOT_EXISTS).split(",");
+      final AttributeValue current = item.get(name(args[0].trim(), names));
+      return current != null ? current : values.get(args[1].trim());
+    }
+    final AttributeValue current = item.get(name(operand, names));
+    if (current == null) {
+      throw DynamoDbException.builder()
+          .message("The provided expression refers to an attribute that does not exist")
+          .statusCode(400)
+          .build();
+    }
+    return current;
+  }
+
+  /** Splits {@code a = b} into its two trimmed sides. */
+  private static String[] assignment(final String clause) {
+    final int eq = clause.indexOf('=');
+    if (eq < 0) {
+      throw new UnsupportedOperationException("Unsupported expression: " + clause);
+    }
+    return new String[] {clause.substring(0, eq).trim(), clause.substring(eq + 1).trim()};
+  }
+
+  private static String argument(final String call, final String prefix) {
+    if (!call.endsWith(")")) {
+      throw new UnsupportedOperationException("Unsupported expression: " + call);
+    }
+    return call.substring(prefix.length(), call.length() - 1).trim();
+  }
+
+  /** Splits a comma-separated list, ignoring commas inside function calls. */
+  private static List<String> topLevel(final String list) {
+    final List<String> parts = new ArrayList<>();
+    int depth = 0;
+    int start = 0;
+    for (int i = 0; i < list.length(); i++) {
+      final char c = list.charAt(i);
+      if (c == '(') {
+        depth++;
+      } else if (c == ')') {
+        depth--;
+      } else if (c == ',' && depth == 0) {
+        parts.add(list.substring(start, i).trim());
+        start = i + 1;
+      }
+    }
+    parts.add(list.substring(start).trim());
+    return parts;
+  }
+}
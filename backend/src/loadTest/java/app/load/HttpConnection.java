@@ -0,0 +1,93 @@
+package app.load;
+
+import app.web.AuthorizerClaims;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One keep-alive HTTP/1.1 connection that speaks just enough of the protocol for {@code
+ * LocalServer}: requests always carry a Content-Length and responses are read by theirs. The JDK
+ * HttpClient spends more per request than the server under test, so it would measure itself.
+ */
+final class HttpConnection implements Client {
+  private static final String CONTENT_LENGTH = "Content-Length:";
+  private static final int BUFFER_BYTES = 16 * 1024;
+
+  private final Socket socket;
+  private final OutputStream out;
+  private final InputStream in;
+  private final String userHeader;
+
+  HttpConnection(final InetSocketAddress address, final String userHeader) throws IOException {
+    this.socket = new Socket(address.getAddress(), address.getPort());
+    socket.setTcpNoDelay(true);
+    this.out = new BufferedOutputStream(socket.getOutputStream(), BUFFER_BYTES);
+    this.in = new BufferedInputStream(socket.getInputStream(), BUFFER_BYTES);
+    this.userHeader = userHeader;
+  }
+
+  @Override
+  public Reply send(final APIGatewayProxyRequestEvent request) throws IOException {
+    final byte[] body =
+        request.getBody() == null
+            ? new byte[0]
+            : request.getBody().getBytes(StandardCharsets.UTF_8);
+    final StringBuilder head =
+        new StringBuilder(160)
+            .append(request.getHttpMethod())
+            .append(' ')
+            .append(request.getPath())
+            .append(" HTTP/1.1\r\nHost: localhost\r\n");
+    final String user = AuthorizerClaims.subject(request.getRequestContext().getAuthorizer());
+    if (user != null) {
+      head.append(userHeader).append(": ").append(user).append("\r\n");
+    }
+    head.append(CONTENT_LENGTH).append(' ').append(body.length).append("\r\n\r\n");
+    out.write(head.toString().getBytes(StandardCharsets.US_ASCII));
+    out.write(body);
+    out.flush();
+    return read();
+  }
+
+  @Override
+  public void close() throws IOException {
+    socket.close();
+  }
+
+  private Reply read() throws IOException {
+    final String status = line();
+    final int code = Integer.parseInt(status.substring(9, 12));
+    int length = 0;
+    for (String line = line(); !line.isEmpty(); line = line()) {
+      if (line.regionMatches(true, 0, CONTENT_LENGTH, 0, CONTENT_LENGTH.length())) {
+        length = Integer.parseInt(line.substring(CONTENT_LENGTH.length()).trim());
+      }
+    }
+    final byte[] body = in.readNBytes(length);
+    if (body.length < length) {
+      throw new EOFException("Connection closed mid-body");
+    }
+    return new Reply(code, new String(body, StandardCharsets.UTF_8));
+  }
+
+  private String line() throws IOException {
+    final StringBuilder line = new StringBuilder(64);
+    for (int c = in.read(); c != '\n'; c = in.read()) {
+      if (c < 0) {
+        throw new EOFException("Connection closed mid-response");
+      }
+      if (c != '\r') {
+        line.append((char) c);
+      }
+    }
+    return line.toString();
+  }
+}
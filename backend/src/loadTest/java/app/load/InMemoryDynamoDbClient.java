@@ -0,0 +1,291 @@
+package app.load;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchGetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.BatchWriteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.DeleteItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableRequest;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.KeysAndAttributes;
+import software.amazon.awssdk.services.dynamodb.model.PutItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.PutItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.ResourceNotFoundException;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.TableDescription;
+import software.amazon.awssdk.services.dynamodb.model.TableStatus;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.WriteRequest;
+import software.amazon.awssdk.services.dynamodb.paginators.BatchGetItemIterable;
+import software.amazon.awssdk.services.dynamodb.paginators.QueryIterable;
+
+/**
+ * Map-backed {@link DynamoDbClient} for a single table with a string partition and sort key,
+ * honouring the subset of the API that the repositories and the enhanced client use: get, put,
+ * delete, query on the partition key, the {@link Expressions} update and condition forms, and
+ * batch reads and writes, which never leave anything unprocessed. Writes to one item are atomic.
+ * Sort keys are ordered as Java strings, which matches DynamoDB's byte order for ASCII keys.
+ */
+public final class InMemoryDynamoDbClient implements DynamoDbClient {
+  private static final Pattern KEY_CONDITION = Pattern.compile("\\s*(\\S+)\\s*=\\s*(:\\w+)\\s*");
+
+  private final String tableName;
+  private final String partitionKey;
+  private final String sortKey;
+  private final Map<String, ConcurrentNavigableMap<String, Map<String, AttributeValue>>>
+      partitions = new ConcurrentHashMap<>();
+
+  public InMemoryDynamoDbClient(
+      final String tableName, final String partitionKey, final String sortKey) {
+    this.tableName = tableName;
+    this.partitionKey = partitionKey;
+    this.sortKey = sortKey;
+  }
+
+  public final int size() {
+    return partitions.values().stream().mapToInt(Map::size).sum();
+  }
+
+  @Override
+  public final GetItemResponse getItem(final GetItemRequest request) {
+    checkTable(request.tableName());
+    final Map<String, AttributeValue> item =
+        partition(request.key()).get(sortValue(request.key()));
+    return item == null
+        ? GetItemResponse.builder().build()
+        : GetItemResponse.builder().item(item).build();
+  }
+
+  @Override
+  public final PutItemResponse putItem(final PutItemRequest request) {
+    checkTable(request.tableName());
+    final Map<String, AttributeValue> item = Map.copyOf(request.item());
+    final AtomicReference<Map<String, AttributeValue>> old = new AtomicReference<>();
+    partition(item)
+        .compute(
+            sortValue(item),
+            (k, existing) -> {
+              checkCondition(
+                  existing,
+                  request.conditionExpression(),
+                  request.expressionAttributeNames(),
+                  request.expressionAttributeValues(),
+                  request.returnValuesOnConditionCheckFailure());
+              old.set(existing);
+              return item;
+            });
+    return request.returnValues() == ReturnValue.ALL_OLD && old.get() != null
+        ? PutItemResponse.builder().attributes(old.get()).build()
+        : PutItemResponse.builder().build();
+  }
+
+  @Override
+  public final DeleteItemResponse deleteItem(final DeleteItemRequest request) {
+    checkTable(request.tableName());
+    final AtomicReference<Map<String, AttributeValue>> old = new AtomicReference<>();
+    partition(request.key())
+        .compute(
+            sortValue(request.key()),
+            (k, existing) -> {
+              checkCondition(
+                  existing,
+                  request.conditionExpression(),
+                  request.expressionAttributeNames(),
+                  request.expressionAttributeValues(),
+                  request.returnValuesOnConditionCheckFailure());
+              old.set(existing);
+              return null;
+            });
+    return request.returnValues() == ReturnValue.ALL_OLD && old.get() != null
+        ? DeleteItemResponse.builder().attributes(old.get()).build()
+        : DeleteItemResponse.builder().build();
+  }
+
+  @Override
+  public final UpdateItemResponse updateItem(final UpdateItemRequest request) {
+    checkTable(request.tableName());
+    final AtomicReference<Map<String, AttributeValue>> updated = new AtomicReference<>();
+    partition(request.key())
+        .compute(
+            sortValue(request.key()),
+            (k, existing) -> {
+              checkCondition(
+                  existing,
+                  request.conditionExpression(),
+                  request.expressionAttributeNames(),
+                  request.expressionAttributeValues(),
+                  request.returnValuesOnConditionCheckFailure());
+              final Map<String, AttributeValue> item =
+                  Expressions.update(
+                      existing == null ? request.key() : existing,
+                      request.updateExpression(),
+                      request.expressionAttributeNames(),
+                      request.expressionAttributeValues());
+              updated.set(item);
+              return item;
+            });
+    return request.returnValues() == ReturnValue.ALL_NEW
+        ? UpdateItemResponse.builder().attributes(updated.get()).build()
+        : UpdateItemResponse.builder().build();
+  }
+
+  @Override
+  public final QueryResponse query(final QueryRequest request) {
+    checkTable(request.tableName());
+    if (request.filterExpression() != null || request.indexName() != null) {
+      throw new UnsupportedOperationException("Only key-condition queries on the table");
+    }
+    final Matcher condition = KEY_CONDITION.matcher(request.keyConditionExpression());
+    if (!condition.matches()
+        || !partitionKey.equals(
+            Expressions.name(condition.group(1), request.expressionAttributeNames()))) {
+      throw new UnsupportedOperationException(
+          "Unsupported key condition: " + request.keyConditionExpression());
+    }
+    final String partitionValue = request.expressionAttributeValues().get(condition.group(2)).s();
+    NavigableMap<String, Map<String, AttributeValue>> items =
+        partitions.getOrDefault(partitionValue, new ConcurrentSkipListMap<>());
+    if (Boolean.FALSE.equals(request.scanIndexForward())) {
+      items = items.descendingMap();
+    }
+    final Map<String, AttributeValue> startKey = request.exclusiveStartKey();
+    if (startKey != null && !startKey.isEmpty()) {
+      items = items.tailMap(startKey.get(sortKey).s(), false);
+    }
+    final int limit = request.limit() == null ? Integer.MAX_VALUE : request.limit();
+    final List<Map<String, AttributeValue>> page = new ArrayList<>(Math.min(limit, 64));
+    for (final Map<String, AttributeValue> item : items.values()) {
+      if (page.size() == limit) {
+        break;
+      }
+      page.add(item);
+    }
+    final QueryResponse.Builder response =
+        QueryResponse.builder().items(page).count(page.size()).scannedCount(page.size());
+    // Like DynamoDB, a full page always carries a last key, even when nothing follows it.
+    if (!page.isEmpty() && page.size() == limit) {
+      response.lastEvaluatedKey(keyOf(page.get(page.size() - 1)));
+    }
+    return response.build();
+  }
+
+  @Override
+  public final QueryIterable queryPaginator(final QueryRequest request) {
+    return new QueryIterable(this, request);
+  }
+
+  @Override
+  public final BatchWriteItemResponse batchWriteItem(final BatchWriteItemRequest request) {
+    for (final Map.Entry<String, List<WriteRequest>> table : request.requestItems().entrySet()) {
+      checkTable(table.getKey());
+      for (final WriteRequest write : table.getValue()) {
+        if (write.putRequest() != null) {
+          final Map<String, AttributeValue> item = Map.copyOf(write.putRequest().item());
+          partition(item).put(sortValue(item), item);
+        } else {
+          final Map<String, AttributeValue> key = write.deleteRequest().key();
+          partition(key).remove(sortValue(key));
+        }
+      }
+    }
+    return BatchWriteItemResponse.builder().unprocessedItems(Map.of()).build();
+  }
+
+  @Override
+  public final BatchGetItemResponse batchGetItem(final BatchGetItemRequest request) {
+    final List<Map<String, AttributeValue>> found = new ArrayList<>();
+    for (final Map.Entry<String, KeysAndAttributes> table : request.requestItems().entrySet()) {
+      checkTable(table.getKey());
+      for (final Map<String, AttributeValue> key : table.getValue().keys()) {
+        final Map<String, AttributeValue> item = partition(key).get(sortValue(key));
+        if (item != null) {
+          found.add(item);
+        }
+      }
+    }
+    return BatchGetItemResponse.builder().responses(Map.of(tableName, found)).build();
+  }
+
+  @Override
+  public final BatchGetItemIterable batchGetItemPaginator(final BatchGetItemRequest request) {
+    return new BatchGetItemIterable(this, request);
+  }
+
+  @Override
+  public final DescribeTableResponse describeTable(final DescribeTableRequest request) {
+    checkTable(request.tableName());
+    return DescribeTableResponse.builder()
+        .table(
+            TableDescription.builder()
+                .tableName(tableName)
+                .tableStatus(TableStatus.ACTIVE)
+                .itemCount((long) size())
+                .build())
+        .build();
+  }
+
+  @Override
+  public final String serviceName() {
+    return SERVICE_NAME;
+  }
+
+  @Override
+  public final void close() {}
+
+  private void checkTable(final String name) {
+    if (!tableName.equals(name)) {
+      throw ResourceNotFoundException.builder().message("No table named " + name).build();
+    }
+  }
+
+  private ConcurrentNavigableMap<String, Map<String, AttributeValue>> partition(
+      final Map<String, AttributeValue> key) {
+    return partitions.computeIfAbsent(
+        key.get(partitionKey).s(), ignored -> new ConcurrentSkipListMap<>());
+  }
+
+  private String sortValue(final Map<String, AttributeValue> key) {
+    return key.get(sortKey).s();
+  }
+
+  private Map<String, AttributeValue> keyOf(final Map<String, AttributeValue> item) {
+    return Map.of(partitionKey, item.get(partitionKey), sortKey, item.get(sortKey));
+  }
+
+  private static void checkCondition(
+      final Map<String, AttributeValue> existing,
+      final String condition,
+      final Map<String, String> names,
+      final Map<String, AttributeValue> values,
+      final ReturnValuesOnConditionCheckFailure onFailure) {
+    if (condition == null || Expressions.holds(existing, condition, names, values)) {
+      return;
+    }
+    final ConditionalCheckFailedException.Builder failure =
+        ConditionalCheckFailedException.builder().message("The conditional request failed");
+    if (onFailure == ReturnValuesOnConditionCheckFailure.ALL_OLD && existing != null) {
+      failure.item(existing);
+    }
+    throw failure.build();
+  }
+}
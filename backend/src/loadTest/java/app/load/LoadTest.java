@@ -0,0 +1,350 @@
+package app.load;
+
+import app.di.CorsConfig;
+import app.handlers.RouterHandler;
+import app.repo.CacheStats;
+import app.repo.CachingItemRepository;
+import app.repo.ItemRepository;
+import app.repo.SyncItemRepository;
+import app.repo.UserItemRepository;
+import app.runtime.LocalServer;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.HdrHistogram.Histogram;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+
+/**
+ * Drives {@link RouterHandler} against {@link InMemoryDynamoDbClient} from many threads, then
+ * reports throughput and latency percentiles per operation. The data set,
+ * the mix and every worker's random sequence are fixed by the settings below, so two runs of the
+ * same settings on the same machine are comparable across commits.
+ *
+ * <p>Settings are system properties, which {@code ./gradlew loadTest} fills from {@code -Pload*}
+ * project properties: {@code load.threads}, {@code load.users}, {@code load.itemsPerUser}, {@code
+ * load.warmupSeconds}, {@code load.seconds}, {@code load.mix}, {@code load.seed}, {@code
+ * load.cacheEntries} (0 runs without the item cache; otherwise the summary ends with its counters),
+ * {@code load.transport} and {@code load.reportDir}. Transport {@code direct} (the default) calls
+ * the handler in-process; {@code http} puts {@link LocalServer} in front and gives every worker its
+ * own keep-alive connection.
+ *
+ * <p>Workers are closed-loop: each sends its next request when the previous one returns, so the
+ * latencies describe service time under the given concurrency rather than a fixed arrival rate.
+ */
+public final class LoadTest {
+  private static final String TABLE = "items";
+  private static final String DEFAULT_MIX =
+      "list:40,get:30,create:8,update:10,delete:7,batch-get:5";
+  private static final long HIGHEST_TRACKABLE_NANOS = TimeUnit.SECONDS.toNanos(60);
+  private static final int SIGNIFICANT_DIGITS = 3;
+  private static final double NANOS_PER_MICRO = 1_000.0;
+  private static final String USER_HEADER = "X-Load-User";
+
+  private LoadTest() {}
+
+  public static void main(final String[] args) throws Exception {
+    final int threads = intSetting("load.threads", 16);
+    final int users = intSetting("load.users", 1_000);
+    final int itemsPerUser = intSetting("load.itemsPerUser", 50);
+    final int warmupSeconds = intSetting("load.warmupSeconds", 10);
+    final int seconds = intSetting("load.seconds", 30);
+    final String mixSpec = System.getProperty("load.mix", DEFAULT_MIX);
+    final long seed = Long.parseLong(System.getProperty("load.seed", "42"));
+    final int cacheEntries = intSetting("load.cacheEntries", 0);
+    final String transport = System.getProperty("load.transport", "direct");
+    final Path reportDir = Path.of(System.getProperty("load.reportDir", "build/reports/load-test"));
+    if (users < threads) {
+      throw new IllegalArgumentException("load.users must be at least load.threads");
+    }
+    if (!transport.equals("direct") && !transport.equals("http")) {
+      throw new IllegalArgumentException("load.transport must be direct or http");
+    }
+    final Operation.Mix mix = Operation.Mix.parse(mixSpec);
+
+    final InMemoryDynamoDbClient ddb = new InMemoryDynamoDbClient(TABLE, "userId", "itemId");
+    final ExecutorService fanOut = Executors.newVirtualThreadPerTaskExecutor();
+    final UserItemRepository table =
+        new UserItemRepository(
+            DynamoDbEnhancedClient.builder().dynamoDbClient(ddb).build(), ddb, TABLE, fanOut);
+    ItemRepository repo = new SyncItemRepository(table);
+    CachingItemRepository cache = null;
+    if (cacheEntries > 0) {
+      cache =
+          new CachingItemRepository(
+              repo, cacheEntries, 64L * 1024 * 1024, TimeUnit.MINUTES.toMillis(1), 0);
+      repo = cache;
+    }
+    final ObjectMapper mapper =
+        new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+    final RouterHandler handler =
+        new RouterHandler(
+            new ItemService(repo),
+            new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173"))),
+            mapper);
+
+    final List<Workload> workloads = seed(table, threads, users, itemsPerUser, seed);
+    System.out.printf(
+        Locale.ROOT,
+        "Seeded %d items for %d users; %d threads, mix %s, transport %s%n",
+        ddb.size(),
+        users,
+        threads,
+        mixSpec,
+        transport);
+
+    LocalServer server = null;
+    final List<Client> clients = new ArrayList<>(threads);
+    if (transport.equals("http")) {
+      // Same settings LocalServer.main applies; both are read when the server classes load.
+      System.getProperties().putIfAbsent("sun.net.httpserver.maxIdleConnections", "10000");
+      System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+      server =
+          new LocalServer(
+              handler, new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), USER_HEADER);
+      server.start();
+      final InetSocketAddress address =
+          new InetSocketAddress(InetAddress.getLoopbackAddress(), server.port());
+      for (int t = 0; t < threads; t++) {
+        clients.add(new HttpConnection(address, USER_HEADER));
+      }
+    } else {
+      for (int t = 0; t < threads; t++) {
+        clients.add(Client.direct(handler));
+      }
+    }
+
+    run(clients, workloads, mix, seed, TimeUnit.SECONDS.toNanos(warmupSeconds));
+    final long started = System.nanoTime();
+    final List<Map<Operation, Recording>> results =
+        run(clients, workloads, mix, seed + 1, TimeUnit.SECONDS.toNanos(seconds));
+    final double elapsedSeconds = (System.nanoTime() - started) / 1e9;
+    for (final Client client : clients) {
+      client.close();
+    }
+    if (server != null) {
+      server.stop(Duration.ZERO);
+    }
+
+    final Map<Operation, Recording> merged = new EnumMap<>(Operation.class);
+    final Recording all = new Recording();
+    for (final Map<Operation, Recording> worker : results) {
+      for (final Map.Entry<Operation, Recording> op : worker.entrySet()) {
+        merged.computeIfAbsent(op.getKey(), ignored -> new Recording()).add(op.getValue());
+        all.add(op.getValue());
+      }
+    }
+    fanOut.shutdown();
+
+    final String header =
+        String.format(
+            Locale.ROOT,
+            "threads=%d users=%d itemsPerUser=%d warmup=%ds duration=%ds seed=%d cache=%d mix=%s"
+                + " transport=%s java=%s",
+            threads,
+            users,
+            itemsPerUser,
+            warmupSeconds,
+            seconds,
+            seed,
+            cacheEntries,
+            mixSpec,
+            transport,
+            System.getProperty("java.version"));
+    report(
+        reportDir, header, merged, all, elapsedSeconds, cache == null ? null : cache.stats());
+  }
+
+  /** Seeds every user with {@code itemsPerUser} items and deals the users out to the workers. */
+  private static List<Workload> seed(
+      final UserItemRepository table,
+      final int threads,
+      final int users,
+      final int itemsPerUser,
+      final long seed) {
+    final List<List<String>> owned = new ArrayList<>();
+    final List<Map<String, List<String>>> ids = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      owned.add(new ArrayList<>());
+      ids.add(new HashMap<>());
+    }
+    for (int u = 0; u < users; u++) {
+      final String userId = "load-user-" + u;
+      final List<String> items = new ArrayList<>(itemsPerUser);
+      for (int i = 0; i < itemsPerUser; i++) {
+        final String itemId = String.format(Locale.ROOT, "seed-%05d", i);
+        table.put(userId, itemId, "seed value " + i, 0L);
+        items.add(itemId);
+      }
+      owned.get(u % threads).add(userId);
+      ids.get(u % threads).put(userId, items);
+    }
+    final SplittableRandom root = new SplittableRandom(seed);
+    final List<Workload> workloads = new ArrayList<>(threads);
+    for (int t = 0; t < threads; t++) {
+      workloads.add(new Workload(owned.get(t), ids.get(t), root.split()));
+    }
+    return workloads;
+  }
+
+  /**
+   * Runs every workload on its own platform thread, through the client at the same index, for
+   * {@code nanos} and returns what each saw.
+   */
+  private static List<Map<Operation, Recording>> run(
+      final List<Client> clients,
+      final List<Workload> workloads,
+      final Operation.Mix mix,
+      final long seed,
+      final long nanos)
+      throws InterruptedException {
+    final List<Map<Operation, Recording>> results = new ArrayList<>();
+    final List<Thread> workers = new ArrayList<>();
+    final CountDownLatch start = new CountDownLatch(1);
+    final SplittableRandom root = new SplittableRandom(seed);
+    for (int w = 0; w < workloads.size(); w++) {
+      final Workload workload = workloads.get(w);
+      final Client client = clients.get(w);
+      final Map<Operation, Recording> recordings = new EnumMap<>(Operation.class);
+      final SplittableRandom random = root.split();
+      results.add(recordings);
+      workers.add(
+          Thread.ofPlatform()
+              .name("load-" + workers.size())
+              .start(
+                  () -> {
+                    try {
+                      start.await();
+                    } catch (final InterruptedException e) {
+                      Thread.currentThread().interrupt();
+                      return;
+                    }
+                    final long end = System.nanoTime() + nanos;
+                    while (System.nanoTime() < end) {
+                      final Operation op = mix.next(random);
+                      final APIGatewayProxyRequestEvent request = workload.request(op);
+                      final long sent = System.nanoTime();
+                      final Client.Reply reply;
+                      try {
+                        reply = client.send(request);
+                      } catch (final IOException e) {
+                        throw new UncheckedIOException(e);
+                      }
+                      final long took = System.nanoTime() - sent;
+                      recordings
+                          .computeIfAbsent(op, ignored -> new Recording())
+                          .record(took, reply.status());
+                      workload.completed(op, reply);
+                    }
+                  }));
+    }
+    start.countDown();
+    for (final Thread worker : workers) {
+      worker.join();
+    }
+    return results;
+  }
+
+  private static void report(
+      final Path dir,
+      final String header,
+      final Map<Operation, Recording> byOperation,
+      final Recording all,
+      final double elapsedSeconds,
+      final CacheStats cacheStats)
+      throws IOException {
+    Files.createDirectories(dir);
+    final StringBuilder summary = new StringBuilder(header).append('\n');
+    summary.append(
+        String.format(
+            Locale.ROOT,
+            "%-10s %10s %10s %9s %9s %9s %9s %8s%n",
+            "operation",
+            "count",
+            "ops/s",
+            "p50 us",
+            "p99 us",
+            "p999 us",
+            "max us",
+            "errors"));
+    for (final Map.Entry<Operation, Recording> op : byOperation.entrySet()) {
+      summary.append(line(op.getKey().label(), op.getValue(), elapsedSeconds));
+      write(dir.resolve(op.getKey().label() + ".hgrm"), op.getValue().latency);
+    }
+    summary.append(line("all", all, elapsedSeconds));
+    write(dir.resolve("all.hgrm"), all.latency);
+    if (cacheStats != null) {
+      // Counts the warm-up as well as the measured run.
+      summary.append(cacheStats.toLogLine()).append('\n');
+    }
+    Files.writeString(dir.resolve("summary.txt"), summary);
+    System.out.print(summary);
+    System.out.println("Percentile distributions (us) written to " + dir.toAbsolutePath());
+  }
+
+  private static String line(
+      final String label, final Recording recording, final double elapsedSeconds) {
+    final Histogram h = recording.latency;
+    return String.format(
+        Locale.ROOT,
+        "%-10s %10d %10.0f %9.1f %9.1f %9.1f %9.1f %8d%n",
+        label,
+        h.getTotalCount(),
+        h.getTotalCount() / elapsedSeconds,
+        h.getValueAtPercentile(50) / NANOS_PER_MICRO,
+        h.getValueAtPercentile(99) / NANOS_PER_MICRO,
+        h.getValueAtPercentile(99.9) / NANOS_PER_MICRO,
+        h.getMaxValue() / NANOS_PER_MICRO,
+        recording.errors);
+  }
+
+  private static void write(final Path file, final Histogram histogram) throws IOException {
+    try (PrintStream out =
+        new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+      histogram.outputPercentileDistribution(out, NANOS_PER_MICRO);
+    }
+  }
+
+  private static int intSetting(final String name, final int fallback) {
+    return Integer.parseInt(System.getProperty(name, Integer.toString(fallback)));
+  }
+
+  /** Latencies in nanoseconds plus the count of 5xx answers, for one operation on one worker. */
+  private static final class Recording {
+    private final Histogram latency = new Histogram(HIGHEST_TRACKABLE_NANOS, SIGNIFICANT_DIGITS);
+    private long errors;
+
+    final void record(final long nanos, final int status) {
+      latency.recordValue(Math.min(nanos, HIGHEST_TRACKABLE_NANOS));
+      if (status >= 500) {
+        errors++;
+      }
+    }
+
+    final void add(final Recording other) {
+      latency.add(other.latency);
+      errors += other.errors;
+    }
+  }
+}
@@ -0,0 +1,79 @@
+package app.load;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/** The request kinds a load run mixes, named as they appear in {@code -PloadMix}. */
+enum Operation {
+  LIST,
+  GET,
+  CREATE,
+  UPDATE,
+  DELETE,
+  BATCH_GET;
+
+  final String label() {
+    return name().toLowerCase(Locale.ROOT).replace('_', '-');
+  }
+
+  /** Picks operations with probability proportional to their weight. */
+  static final class Mix {
+    private final Operation[] operations;
+    private final int[] cumulative;
+
+    private Mix(final Map<Operation, Integer> weights) {
+      final List<Operation> ops = new ArrayList<>();
+      final List<Integer> bounds = new ArrayList<>();
+      int total = 0;
+      for (final Map.Entry<Operation, Integer> weight : weights.entrySet()) {
+        total += weight.getValue();
+        ops.add(weight.getKey());
+        bounds.add(total);
+      }
+      if (total == 0) {
+        throw new IllegalArgumentException("The load mix needs at least one positive weight");
+      }
+      this.operations = ops.toArray(new Operation[0]);
+      this.cumulative = bounds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /** Parses {@code list:40,get:30,...}; operations left out get no traffic. */
+    static Mix parse(final String spec) {
+      final Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+      for (final String entry : spec.split(",")) {
+        final String[] parts = entry.trim().split(":");
+        if (parts.length != 2) {
+          throw new IllegalArgumentException("Expected operation:weight, got " + entry);
+        }
+        final int weight = Integer.parseInt(parts[1].trim());
+        if (weight < 0) {
+          throw new IllegalArgumentException("Negative weight for " + parts[0]);
+        }
+        weights.put(of(parts[0].trim()), weight);
+      }
+      return new Mix(weights);
+    }
+
+    final Operation next(final SplittableRandom random) {
+      final int roll = random.nextInt(cumulative[cumulative.length - 1]);
+      int i = 0;
+      while (roll >= cumulative[i]) {
+        i++;
+      }
+      return operations[i];
+    }
+
+    private static Operation of(final String label) {
+      for (final Operation op : values()) {
+        if (op.label().equals(label)) {
+          return op;
+        }
+      }
+      throw new IllegalArgumentException("Unknown operation in load mix: " + label);
+    }
+  }
+}
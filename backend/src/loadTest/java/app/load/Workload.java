@@ -0,0 +1,84 @@
+package app.load;
+
+import app.web.Route;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * One worker's users and the item ids it knows they hold. Each worker owns its users outright, so
+ * the ids it tracks stay exact without coordination and every generated request targets data that
+ * exists.
+ */
+final class Workload {
+  private static final String ITEM_ID_FIELD = "\"item_id\":\"";
+  private static final int BATCH_GET_IDS = 10;
+
+  private final List<String> users;
+  private final Map<String, List<String>> itemIds;
+  private final SplittableRandom random;
+  private String lastUser;
+  private String lastItemId;
+
+  Workload(
+      final List<String> users,
+      final Map<String, List<String>> itemIds,
+      final SplittableRandom random) {
+    this.users = users;
+    this.itemIds = itemIds;
+    this.random = random;
+  }
+
+  final APIGatewayProxyRequestEvent request(final Operation op) {
+    lastUser = users.get(random.nextInt(users.size()));
+    final List<String> ids = itemIds.get(lastUser);
+    lastItemId = ids.isEmpty() ? "missing" : ids.get(random.nextInt(ids.size()));
+    final String item = Route.ITEM.expand(lastItemId);
+    return switch (op) {
+      case LIST -> event(lastUser, "GET", Route.ITEMS.toString(), null);
+      case GET -> event(lastUser, "GET", item, null);
+      case CREATE -> event(lastUser, "POST", Route.ITEMS.toString(), valueBody());
+      case UPDATE -> event(lastUser, "PUT", item, valueBody());
+      case DELETE -> event(lastUser, "DELETE", item, null);
+      case BATCH_GET -> event(lastUser, "POST", Route.ITEMS_BATCH_GET.toString(), idsBody(ids));
+    };
+  }
+
+  /** Keeps the tracked ids in step with what the request did. */
+  final void completed(final Operation op, final Client.Reply reply) {
+    if (op == Operation.CREATE && reply.status() == 201) {
+      final String body = reply.body();
+      final int start = body.indexOf(ITEM_ID_FIELD) + ITEM_ID_FIELD.length();
+      itemIds.get(lastUser).add(body.substring(start, body.indexOf('"', start)));
+    } else if (op == Operation.DELETE && reply.status() < 300) {
+      itemIds.get(lastUser).remove(lastItemId);
+    }
+  }
+
+  static APIGatewayProxyRequestEvent event(
+      final String userId, final String method, final String path, final String body) {
+    final APIGatewayProxyRequestEvent.ProxyRequestContext requestContext =
+        new APIGatewayProxyRequestEvent.ProxyRequestContext();
+    requestContext.setAuthorizer(Map.of("claims", Map.of("sub", userId)));
+    return new APIGatewayProxyRequestEvent()
+        .withHttpMethod(method)
+        .withPath(path)
+        .withBody(body)
+        .withRequestContext(requestContext);
+  }
+
+  private String valueBody() {
+    return "{\"value\":\"value-" + random.nextInt(1_000_000) + "\"}";
+  }
+
+  private String idsBody(final List<String> ids) {
+    final List<String> quoted = new ArrayList<>(BATCH_GET_IDS);
+    for (int i = 0; i < BATCH_GET_IDS; i++) {
+      quoted.add(
+          "\"" + (ids.isEmpty() ? "missing" : ids.get(random.nextInt(ids.size()))) + "\"");
+    }
+    return "{\"ids\":[" + String.join(",", quoted) + "]}";
+  }
+}
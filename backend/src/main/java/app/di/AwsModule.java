@@ -2,9 +2,26 @@ package app.di;
 
 import dagger.Module;
 import dagger.Provides;
+import java.net.URI;
+import java.time.Duration;
 import javax.inject.Singleton;
+import org.crac.Core;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.EnvironmentVariableCredentialsProvider;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.http.crt.AwsCrtHttpClient;
+import software.amazon.awssdk.http.crt.ConnectionHealthConfiguration;
+import software.amazon.awssdk.http.crt.TcpKeepAliveConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.urlconnection.UrlConnectionHttpClient;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClientBuilder;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClientBuilder;
 
 @Module
 public final class AwsModule {
@@ -16,7 +33,155 @@ public final class AwsModule {
 
   @Provides
   @Singleton
-  static DynamoDbClient provideDdb(final Region region) {
-    return DynamoDbClient.builder().region(region).build();
+  static RestorableHttpClient provideHttpClient(final HttpClientConfig config) {
+    final RestorableHttpClient client = new RestorableHttpClient(() -> httpClient(config));
+    Core.getGlobalContext().register(client);
+    return client;
+  }
+
+  @Provides
+  @Singleton
+  static RestorableCredentialsProvider provideCredentialsProvider() {
+    final RestorableCredentialsProvider provider =
+        new RestorableCredentialsProvider(AwsModule::credentialsProvider);
+    Core.getGlobalContext().register(provider);
+    return provider;
+  }
+
+  @Provides
+  @Singleton
+  static DynamoDbClient provideDdb(
+      final Region region,
+      final RestorableHttpClient httpClient,
+      final RestorableCredentialsProvider credentialsProvider) {
+    final DynamoDbClientBuilder builder =
+        DynamoDbClient.builder()
+            .region(region)
+            .httpClient(httpClient)
+            .credentialsProvider(credentialsProvider);
+    final URI endpoint = endpointOverride();
+    if (endpoint != null) {
+      builder.endpointOverride(endpoint);
+    }
+    return builder.build();
+  }
+
+  /** Only built when {@code ITEM_REPOSITORY=async}, so the Netty event loop stays off otherwise. */
+  @Provides
+  @Singleton
+  static RestorableAsyncHttpClient provideAsyncHttpClient(final HttpClientConfig config) {
+    final RestorableAsyncHttpClient client =
+        new RestorableAsyncHttpClient(() -> asyncHttpClient(config));
+    Core.getGlobalContext().register(client);
+    return client;
+  }
+
+  @Provides
+  @Singleton
+  static DynamoDbAsyncClient provideAsyncDdb(
+      final Region region,
+      final RestorableAsyncHttpClient httpClient,
+      final RestorableCredentialsProvider credentialsProvider) {
+    final DynamoDbAsyncClientBuilder builder =
+        DynamoDbAsyncClient.builder()
+            .region(region)
+            .httpClient(httpClient)
+            .credentialsProvider(credentialsProvider);
+    final URI endpoint = endpointOverride();
+    if (endpoint != null) {
+      builder.endpointOverride(endpoint);
+    }
+    return builder.build();
+  }
+
+  /** {@code DYNAMODB_ENDPOINT} points the clients at DynamoDB Local or another stand-in. */
+  static URI endpointOverride() {
+    final String endpoint = System.getenv("DYNAMODB_ENDPOINT");
+    return endpoint == null || endpoint.isBlank() ? null : URI.create(endpoint.trim());
+  }
+
+  /**
+   * Builds the configured sync client with explicit timeouts. Apache and CRT also pool connections
+   * with TCP keep-alive on; URLConnection reuses connections through the JDK's keep-alive cache.
+   * Only URLConnection is packaged by default; Apache and CRT need {@code -PhttpClients=apache,crt}
+   * and are built in nested classes, so their absence only matters once one is selected.
+   */
+  static SdkHttpClient httpClient(final HttpClientConfig config) {
+    final Duration connectTimeout = Duration.ofMillis(config.getConnectTimeoutMillis());
+    final Duration readTimeout = Duration.ofMillis(config.getReadTimeoutMillis());
+    final String implementation = config.getImplementation();
+    try {
+      return switch (implementation) {
+        case "url-connection" ->
+            UrlConnectionHttpClient.builder()
+                .connectionTimeout(connectTimeout)
+                .socketTimeout(readTimeout)
+                .build();
+        case "apache" -> Apache.httpClient(connectTimeout, readTimeout, config.getMaxConnections());
+        case "crt" -> Crt.httpClient(connectTimeout, readTimeout, config.getMaxConnections());
+        default -> throw new IllegalArgumentException("Unknown HTTP_CLIENT: " + implementation);
+      };
+    } catch (final NoClassDefFoundError e) {
+      throw new IllegalStateException(
+          "HTTP client not packaged; build with -PhttpClients=" + implementation, e);
+    }
+  }
+
+  /** Builds the Netty client for the async repository with the same timeouts and pool size. */
+  static SdkAsyncHttpClient asyncHttpClient(final HttpClientConfig config) {
+    return NettyNioAsyncHttpClient.builder()
+        .connectionTimeout(Duration.ofMillis(config.getConnectTimeoutMillis()))
+        .readTimeout(Duration.ofMillis(config.getReadTimeoutMillis()))
+        .maxConcurrency(config.getMaxConnections())
+        .tcpKeepAlive(true)
+        .build();
+  }
+
+  /**
+   * Lambda hands the execution role's credentials over in environment variables, so reading them
+   * there skips the default chain's probing of profiles and metadata endpoints. SnapStart restores
+   * and local runs do not have them and fall back to the chain.
+   */
+  static AwsCredentialsProvider credentialsProvider() {
+    if (System.getenv("AWS_ACCESS_KEY_ID") != null) {
+      return EnvironmentVariableCredentialsProvider.create();
+    }
+    return DefaultCredentialsProvider.builder().build();
+  }
+
+  private static final class Apache {
+    static SdkHttpClient httpClient(
+        final Duration connectTimeout, final Duration readTimeout, final int maxConnections) {
+      return ApacheHttpClient.builder()
+          .connectionTimeout(connectTimeout)
+          .socketTimeout(readTimeout)
+          .maxConnections(maxConnections)
+          .tcpKeepAlive(true)
+          .build();
+    }
+  }
+
+  private static final class Crt {
+    private static final Duration KEEP_ALIVE_INTERVAL = Duration.ofSeconds(30);
+    private static final Duration KEEP_ALIVE_TIMEOUT = Duration.ofSeconds(5);
+
+    static SdkHttpClient httpClient(
+        final Duration connectTimeout, final Duration readTimeout, final int maxConnections) {
+      return AwsCrtHttpClient.builder()
+          .connectionTimeout(connectTimeout)
+          // CRT has no socket read timeout; a connection that stalls for this long is dropped.
+          .connectionHealthConfiguration(
+              ConnectionHealthConfiguration.builder()
+                  .minimumThroughputInBps(1L)
+                  .minimumThroughputTimeout(readTimeout)
+                  .build())
+          .maxConcurrency(maxConnections)
+          .tcpKeepAliveConfiguration(
+              TcpKeepAliveConfiguration.builder()
+                  .keepAliveInterval(KEEP_ALIVE_INTERVAL)
+                  .keepAliveTimeout(KEEP_ALIVE_TIMEOUT)
+                  .build())
+          .build();
+    }
   }
 }
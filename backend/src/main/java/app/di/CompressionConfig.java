@@ -0,0 +1,18 @@
+package app.di;
+
+public final class CompressionConfig {
+  private final int minBytes;
+
+  public CompressionConfig(final int minBytes) {
+    this.minBytes = minBytes;
+  }
+
+  /** Compression is off when the threshold is zero or negative. */
+  public final boolean isEnabled() {
+    return minBytes > 0;
+  }
+
+  public final int getMinBytes() {
+    return minBytes;
+  }
+}
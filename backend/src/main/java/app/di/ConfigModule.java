@@ -9,6 +9,13 @@ import javax.inject.Singleton;
 @Module
 public final class ConfigModule {
   private static final String DEFAULT_ORIGIN = "http://localhost:5173";
+  private static final int DEFAULT_CACHE_MAX_ENTRIES = 10_000;
+  private static final long DEFAULT_CACHE_MAX_BYTES = 32L * 1024 * 1024;
+  private static final long DEFAULT_CACHE_STATS_EVERY = 1_000;
+  private static final long DEFAULT_CONNECT_TIMEOUT_MILLIS = 2_000;
+  private static final long DEFAULT_READ_TIMEOUT_MILLIS = 5_000;
+  private static final int DEFAULT_MAX_CONNECTIONS = 50;
+  private static final int DEFAULT_COMPRESSION_MIN_BYTES = 1024;
 
   @Provides
   @Singleton
@@ -17,6 +24,14 @@ public final class ConfigModule {
     return System.getenv("USER_ITEMS_TABLE_NAME");
   }
 
+  /** {@code sync} (default) or {@code async}; see {@link RepoModule}. */
+  @Provides
+  @Singleton
+  @Named("ITEM_REPOSITORY")
+  static String provideItemRepositoryMode() {
+    return System.getenv().getOrDefault("ITEM_REPOSITORY", "sync");
+  }
+
   @Provides
   @Singleton
   static CorsConfig provideCorsConfig() {
@@ -29,4 +44,46 @@ public final class ConfigModule {
     }
     return new CorsConfig(allowedOrigins);
   }
+
+  /** Off by default; set {@code ITEM_CACHE_TTL_SECONDS} to enable the per-container cache. */
+  @Provides
+  @Singleton
+  static ItemCacheConfig provideItemCacheConfig() {
+    return new ItemCacheConfig(
+        (int) longEnv("ITEM_CACHE_MAX_ENTRIES", DEFAULT_CACHE_MAX_ENTRIES),
+        longEnv("ITEM_CACHE_MAX_BYTES", DEFAULT_CACHE_MAX_BYTES),
+        longEnv("ITEM_CACHE_TTL_SECONDS", 0) * 1000,
+        longEnv("ITEM_CACHE_STATS_EVERY", DEFAULT_CACHE_STATS_EVERY));
+  }
+
+  /**
+   * {@code HTTP_CLIENT} picks the sync HTTP client: {@code url-connection} (default, quickest to
+   * initialise), {@code apache} or {@code crt}, the last two only in a jar that packages them; see
+   * {@link AwsModule}.
+   */
+  @Provides
+  @Singleton
+  static HttpClientConfig provideHttpClientConfig() {
+    return new HttpClientConfig(
+        System.getenv().getOrDefault("HTTP_CLIENT", "url-connection"),
+        longEnv("HTTP_CONNECT_TIMEOUT_MILLIS", DEFAULT_CONNECT_TIMEOUT_MILLIS),
+        longEnv("HTTP_READ_TIMEOUT_MILLIS", DEFAULT_READ_TIMEOUT_MILLIS),
+        (int) longEnv("HTTP_MAX_CONNECTIONS", DEFAULT_MAX_CONNECTIONS));
+  }
+
+  /**
+   * Bodies of at least {@code COMPRESSION_MIN_BYTES} characters (default 1024) are gzipped for
+   * clients that accept it; {@code 0} turns compression off.
+   */
+  @Provides
+  @Singleton
+  static CompressionConfig provideCompressionConfig() {
+    return new CompressionConfig(
+        (int) longEnv("COMPRESSION_MIN_BYTES", DEFAULT_COMPRESSION_MIN_BYTES));
+  }
+
+  private static long longEnv(final String name, final long fallback) {
+    final String env = System.getenv(name);
+    return env == null || env.isBlank() ? fallback : Long.parseLong(env.trim());
+  }
 }
@@ -0,0 +1,35 @@
+package app.di;
+
+public final class HttpClientConfig {
+  private final String implementation;
+  private final long connectTimeoutMillis;
+  private final long readTimeoutMillis;
+  private final int maxConnections;
+
+  public HttpClientConfig(
+      final String implementation,
+      final long connectTimeoutMillis,
+      final long readTimeoutMillis,
+      final int maxConnections) {
+    this.implementation = implementation;
+    this.connectTimeoutMillis = connectTimeoutMillis;
+    this.readTimeoutMillis = readTimeoutMillis;
+    this.maxConnections = maxConnections;
+  }
+
+  public final String getImplementation() {
+    return implementation;
+  }
+
+  public final long getConnectTimeoutMillis() {
+    return connectTimeoutMillis;
+  }
+
+  public final long getReadTimeoutMillis() {
+    return readTimeoutMillis;
+  }
+
+  public final int getMaxConnections() {
+    return maxConnections;
+  }
+}
@@ -0,0 +1,38 @@
+package app.di;
+
+public final class ItemCacheConfig {
+  private final int maxEntries;
+  private final long maxBytes;
+  private final long ttlMillis;
+  private final long statsEvery;
+
+  public ItemCacheConfig(
+      final int maxEntries, final long maxBytes, final long ttlMillis, final long statsEvery) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.ttlMillis = ttlMillis;
+    this.statsEvery = statsEvery;
+  }
+
+  /** The cache is off unless both a TTL and a capacity are configured. */
+  public final boolean isEnabled() {
+    return ttlMillis > 0 && maxEntries > 0 && maxBytes > 0;
+  }
+
+  public final int getMaxEntries() {
+    return maxEntries;
+  }
+
+  public final long getMaxBytes() {
+    return maxBytes;
+  }
+
+  public final long getTtlMillis() {
+    return ttlMillis;
+  }
+
+  /** Lookups between two stats log lines; 0 only logs them before a checkpoint. */
+  public final long getStatsEvery() {
+    return statsEvery;
+  }
+}
@@ -1,11 +1,21 @@
 package app.di;
 
+import app.repo.AsyncUserItemRepository;
+import app.repo.CachingItemRepository;
+import app.repo.ItemRepository;
+import app.repo.SyncItemRepository;
 import app.repo.UserItemRepository;
 import dagger.Module;
 import dagger.Provides;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import javax.inject.Named;
+import javax.inject.Provider;
 import javax.inject.Singleton;
+import org.crac.Core;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
 import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
 
 @Module
@@ -16,11 +26,72 @@ public final class RepoModule {
     return DynamoDbEnhancedClient.builder().dynamoDbClient(ddb).build();
   }
 
+  @Provides
+  @Singleton
+  static DynamoDbEnhancedAsyncClient provideEnhancedAsyncClient(final DynamoDbAsyncClient ddb) {
+    return DynamoDbEnhancedAsyncClient.builder().dynamoDbClient(ddb).build();
+  }
+
+  @Provides
+  @Singleton
+  static ExecutorService provideFanOutExecutor() {
+    return Executors.newVirtualThreadPerTaskExecutor();
+  }
+
   @Provides
   @Singleton
   static UserItemRepository provideUserItemRepository(
       final DynamoDbEnhancedClient enhanced,
-      @Named("USER_ITEMS_TABLE_NAME") final String tableName) {
-    return new UserItemRepository(enhanced, tableName);
+      final DynamoDbClient ddb,
+      @Named("USER_ITEMS_TABLE_NAME") final String tableName,
+      final ExecutorService fanOut) {
+    final UserItemRepository repo = new UserItemRepository(enhanced, ddb, tableName, fanOut);
+    Core.getGlobalContext().register(repo);
+    return repo;
+  }
+
+  @Provides
+  @Singleton
+  static AsyncUserItemRepository provideAsyncUserItemRepository(
+      final DynamoDbEnhancedAsyncClient enhanced,
+      final DynamoDbAsyncClient ddb,
+      @Named("USER_ITEMS_TABLE_NAME") final String tableName,
+      final ExecutorService fanOut) {
+    final AsyncUserItemRepository repo =
+        new AsyncUserItemRepository(enhanced, ddb, tableName, fanOut);
+    Core.getGlobalContext().register(repo);
+    return repo;
+  }
+
+  /**
+   * Selects the repository named by {@code ITEM_REPOSITORY}, wrapped in the item cache when one is
+   * configured. Providers keep the unselected implementation, and its HTTP client, from ever being
+   * built.
+   */
+  @Provides
+  @Singleton
+  static ItemRepository provideItemRepository(
+      @Named("ITEM_REPOSITORY") final String mode,
+      final Provider<UserItemRepository> sync,
+      final Provider<AsyncUserItemRepository> async,
+      final ItemCacheConfig cacheConfig) {
+    final ItemRepository repo =
+        switch (mode) {
+          case "sync" -> new SyncItemRepository(sync.get());
+          case "async" -> async.get();
+          default -> throw new IllegalArgumentException("Unknown ITEM_REPOSITORY: " + mode);
+        };
+    if (!cacheConfig.isEnabled()) {
+      return repo;
+    }
+    final CachingItemRepository cached =
+        new CachingItemRepository(
+            repo,
+            cacheConfig.getMaxEntries(),
+            cacheConfig.getMaxBytes(),
+            cacheConfig.getTtlMillis(),
+            cacheConfig.getStatsEvery());
+    Core.getGlobalContext().register(cached);
+    return cached;
   }
 }
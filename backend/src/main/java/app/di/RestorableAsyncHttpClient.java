@@ -0,0 +1,53 @@
+package app.di;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.http.async.AsyncExecuteRequest;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+
+/**
+ * The {@link SdkAsyncHttpClient} counterpart of {@link RestorableHttpClient}: the Netty client,
+ * with its channel pool and event loop, is closed and rebuilt around a checkpoint.
+ */
+public final class RestorableAsyncHttpClient implements SdkAsyncHttpClient, Resource {
+  private final Supplier<SdkAsyncHttpClient> factory;
+  private volatile SdkAsyncHttpClient delegate;
+
+  public RestorableAsyncHttpClient(final Supplier<SdkAsyncHttpClient> factory) {
+    this.factory = factory;
+    this.delegate = factory.get();
+  }
+
+  @Override
+  public final CompletableFuture<Void> execute(final AsyncExecuteRequest request) {
+    return delegate.execute(request);
+  }
+
+  @Override
+  public final String clientName() {
+    return delegate.clientName();
+  }
+
+  @Override
+  public final void close() {
+    delegate.close();
+  }
+
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {
+    rebuild();
+  }
+
+  @Override
+  public final void afterRestore(final Context<? extends Resource> context) {
+    rebuild();
+  }
+
+  private final synchronized void rebuild() {
+    final SdkAsyncHttpClient previous = delegate;
+    delegate = factory.get();
+    previous.close();
+  }
+}
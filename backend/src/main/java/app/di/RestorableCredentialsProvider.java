@@ -0,0 +1,40 @@
+package app.di;
+
+import java.util.function.Supplier;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.auth.credentials.AwsCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.utils.SdkAutoCloseable;
+
+/**
+ * {@link AwsCredentialsProvider} that discards any cached credentials after a restore. A snapshot
+ * can be restored long after it was taken, by which time the credentials resolved during init have
+ * expired or belong to a different execution environment.
+ */
+public final class RestorableCredentialsProvider implements AwsCredentialsProvider, Resource {
+  private final Supplier<AwsCredentialsProvider> factory;
+  private volatile AwsCredentialsProvider delegate;
+
+  public RestorableCredentialsProvider(final Supplier<AwsCredentialsProvider> factory) {
+    this.factory = factory;
+    this.delegate = factory.get();
+  }
+
+  @Override
+  public final AwsCredentials resolveCredentials() {
+    return delegate.resolveCredentials();
+  }
+
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {}
+
+  @Override
+  public final synchronized void afterRestore(final Context<? extends Resource> context) {
+    final AwsCredentialsProvider previous = delegate;
+    delegate = factory.get();
+    if (previous instanceof SdkAutoCloseable closeable) {
+      closeable.close();
+    }
+  }
+}
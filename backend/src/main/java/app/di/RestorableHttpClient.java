@@ -0,0 +1,54 @@
+package app.di;
+
+import java.util.function.Supplier;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.http.ExecutableHttpRequest;
+import software.amazon.awssdk.http.HttpExecuteRequest;
+import software.amazon.awssdk.http.SdkHttpClient;
+
+/**
+ * {@link SdkHttpClient} whose connection pool is thrown away around a checkpoint. Sockets captured
+ * in a SnapStart snapshot are dead after restore, so the pool is rebuilt before the checkpoint (to
+ * keep open connections out of the snapshot) and again after restore.
+ */
+public final class RestorableHttpClient implements SdkHttpClient, Resource {
+  private final Supplier<SdkHttpClient> factory;
+  private volatile SdkHttpClient delegate;
+
+  public RestorableHttpClient(final Supplier<SdkHttpClient> factory) {
+    this.factory = factory;
+    this.delegate = factory.get();
+  }
+
+  @Override
+  public final ExecutableHttpRequest prepareRequest(final HttpExecuteRequest request) {
+    return delegate.prepareRequest(request);
+  }
+
+  @Override
+  public final String clientName() {
+    return delegate.clientName();
+  }
+
+  @Override
+  public final void close() {
+    delegate.close();
+  }
+
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {
+    rebuild();
+  }
+
+  @Override
+  public final void afterRestore(final Context<? extends Resource> context) {
+    rebuild();
+  }
+
+  private final synchronized void rebuild() {
+    final SdkHttpClient previous = delegate;
+    delegate = factory.get();
+    previous.close();
+  }
+}
@@ -1,9 +1,10 @@
 package app.di;
 
 import app.handlers.RouterHandler;
-import app.repo.UserItemRepository;
+import app.repo.ItemRepository;
 import app.service.ItemService;
 import app.web.ApiResponseFactory;
+import app.web.ResponseCompressor;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import dagger.Component;
 import javax.inject.Singleton;
@@ -14,7 +15,7 @@ import javax.inject.Singleton;
 public interface ServiceComponent {
   ItemService itemService();
 
-  UserItemRepository userItemRepository();
+  ItemRepository itemRepository();
 
   ObjectMapper objectMapper();
 
@@ -22,5 +23,7 @@ public interface ServiceComponent {
 
   ApiResponseFactory apiResponseFactory();
 
+  ResponseCompressor responseCompressor();
+
   void inject(RouterHandler handler);
 }
@@ -0,0 +1,28 @@
+package app.handlers;
+
+import app.web.FunctionUrlEvents;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlRequest;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlResponse;
+
+/** Lambda entry point for a Function URL. */
+public final class FunctionUrlHandler
+    implements RequestHandler<LambdaFunctionUrlRequest, LambdaFunctionUrlResponse> {
+  private final RouterHandler router;
+
+  public FunctionUrlHandler(final RouterHandler router) {
+    this.router = router;
+  }
+
+  public FunctionUrlHandler() {
+    this(new RouterHandler());
+  }
+
+  @Override
+  public LambdaFunctionUrlResponse handleRequest(
+      final LambdaFunctionUrlRequest event, final Context ctx) {
+    return FunctionUrlEvents.response(
+        router.handle(event == null ? null : FunctionUrlEvents.request(event)));
+  }
+}
@@ -0,0 +1,28 @@
+package app.handlers;
+
+import app.web.HttpApiEvents;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+
+/** Lambda entry point for an API Gateway HTTP API (payload format 2.0) integration. */
+public final class HttpApiHandler
+    implements RequestHandler<APIGatewayV2HTTPEvent, APIGatewayV2HTTPResponse> {
+  private final RouterHandler router;
+
+  public HttpApiHandler(final RouterHandler router) {
+    this.router = router;
+  }
+
+  public HttpApiHandler() {
+    this(new RouterHandler());
+  }
+
+  @Override
+  public APIGatewayV2HTTPResponse handleRequest(
+      final APIGatewayV2HTTPEvent event, final Context ctx) {
+    return HttpApiEvents.response(
+        router.handle(event == null ? null : HttpApiEvents.request(event)));
+  }
+}
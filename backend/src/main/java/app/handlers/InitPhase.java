@@ -0,0 +1,54 @@
+package app.handlers;
+
+import app.di.DaggerServiceComponent;
+import app.di.ServiceComponent;
+import app.model.Page;
+import app.model.UserItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lambda init-phase work. The component graph is built exactly once per container, when the
+ * handler is constructed during init, and then primed so that the first invocation does not pay for
+ * class loading, serializer construction or the DynamoDB connection handshake.
+ */
+final class InitPhase {
+  private InitPhase() {}
+
+  static ServiceComponent component() {
+    return Holder.COMPONENT;
+  }
+
+  static void prime(final ServiceComponent component) {
+    primeSerializers(component.objectMapper());
+    try {
+      component.itemRepository().prime();
+    } catch (final RuntimeException e) {
+      // Priming is best effort; the first request will surface a real connectivity problem.
+    }
+  }
+
+  private static void primeSerializers(final ObjectMapper mapper) {
+    final UserItem item = new UserItem("prime", "prime", "prime", 0L, 0L, 0L);
+    try {
+      mapper.writeValueAsString(item);
+      mapper.writeValueAsString(new Page<>(List.of(item), item.itemId()));
+      mapper.writeValueAsString(Map.of("userId", item.userId()));
+      mapper.writeValueAsString(Map.of("error", item.value()));
+    } catch (final JsonProcessingException e) {
+      // Unreachable for these fixed shapes; a real serialization failure is reported per request.
+    }
+  }
+
+  private static final class Holder {
+    static final ServiceComponent COMPONENT = start();
+
+    private static ServiceComponent start() {
+      final ServiceComponent component = DaggerServiceComponent.create();
+      prime(component);
+      return component;
+    }
+  }
+}
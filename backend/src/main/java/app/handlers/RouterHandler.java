@@ -1,84 +1,155 @@
 package app.handlers;
 
-import app.di.DaggerServiceComponent;
+import app.di.CompressionConfig;
+import app.di.ServiceComponent;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import app.repo.VersionConflictException;
 import app.service.ItemService;
+import app.web.ApiRequest;
 import app.web.ApiResponse;
 import app.web.ApiResponseFactory;
+import app.web.ApiResult;
+import app.web.ETags;
+import app.web.HttpMethod;
+import app.web.RequestBodyDecoder;
+import app.web.ResponseCompressor;
+import app.web.RestApiEvents;
 import app.web.Route;
-import com.amazonaws.HttpMethod;
+import app.web.RouteTable;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.RequestHandler;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
-import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import javax.inject.Inject;
+import org.crac.Core;
+import org.crac.Resource;
 
-/** AWS Lambda handler for routing API Gateway requests to item management endpoints. */
+/**
+ * Routes requests to the item management endpoints. {@link #handle} works on the transport-neutral
+ * {@link ApiRequest}; as a Lambda handler this class takes REST API proxy events, and {@link
+ * HttpApiHandler} and {@link FunctionUrlHandler} adapt the other event types onto the same routes.
+ */
 public final class RouterHandler
-    implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> {
+    implements RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent>,
+        Resource {
 
   private static final String ANONYMOUS_USER = "anonymous";
+  private static final String DEFAULT_ORIGIN = "http://localhost:5173";
   private static final String OPTIONS_METHOD = "OPTIONS";
-  private static final String VALUE_REGEX = ".*\"value\":\"(.*?)\".*";
-  private static final String VALUE_REPLACEMENT = "$1";
+  private static final String LIMIT_PARAM = "limit";
+  private static final String CURSOR_PARAM = "cursor";
+  private static final String FIELDS_PARAM = "fields";
+  private static final String IF_MATCH_HEADER = "If-Match";
+  private static final String IF_NONE_MATCH_HEADER = "If-None-Match";
+  private static final int DEFAULT_PAGE_SIZE = 100;
+  private static final int MAX_PAGE_SIZE = 1000;
+  private static final String WARMUP_USER = "snapstart-warmup";
+  private static final String WARMUP_ITEM_ID = "warmup";
+  private static final String WARMUP_BODY = "{\"value\":\"warmup\"}";
+  private static final String WARMUP_BATCH_BODY =
+      "{\"operations\":[{\"op\":\"create\",\"value\":\"warmup\"},"
+          + "{\"op\":\"delete\",\"item_id\":\"warmup\"}]}";
 
   private final ItemService items;
   private final ApiResponseFactory responseFactory;
-  private final ObjectMapper mapper;
+  private final ResponseCompressor compressor;
+  private final RequestBodyDecoder bodyDecoder;
+  private final RouteTable<Endpoint> routes;
+
+  /** One route's handler; {@code params} holds the segments captured by its path template. */
+  @FunctionalInterface
+  private interface Endpoint {
+    ApiResult handle(
+        String userId, ApiRequest req, ApiResponse response, Map<String, String> params);
+  }
+
+  /** Serves every response uncompressed. */
+  public RouterHandler(
+      final ItemService itemService,
+      final ApiResponseFactory responseFactory,
+      final ObjectMapper mapper) {
+    this(itemService, responseFactory, new ResponseCompressor(new CompressionConfig(0)), mapper);
+  }
 
   @Inject
   public RouterHandler(
       final ItemService itemService,
       final ApiResponseFactory responseFactory,
+      final ResponseCompressor compressor,
       final ObjectMapper mapper) {
     this.items = itemService;
     this.responseFactory = responseFactory;
-    this.mapper = mapper;
+    this.compressor = compressor;
+    this.bodyDecoder = new RequestBodyDecoder(mapper.getFactory());
+    this.routes = routes();
   }
 
   public RouterHandler() {
+    this(InitPhase.component());
+    Core.getGlobalContext().register(this);
+  }
+
+  private RouterHandler(final ServiceComponent component) {
     this(
-        DaggerServiceComponent.create().itemService(),
-        DaggerServiceComponent.create().apiResponseFactory(),
-        DaggerServiceComponent.create().objectMapper());
+        component.itemService(),
+        component.apiResponseFactory(),
+        component.responseCompressor(),
+        component.objectMapper());
   }
 
   @Override
   public APIGatewayProxyResponseEvent handleRequest(
       final APIGatewayProxyRequestEvent req, final Context ctx) {
+    return RestApiEvents.response(handle(req == null ? null : RestApiEvents.request(req)));
+  }
+
+  /** Routes one request, whichever event type it arrived in, and compresses what it returns. */
+  public final ApiResult handle(final ApiRequest req) {
     if (req == null) {
-      final ApiResponse response = responseFactory.create("http://localhost:5173");
-      return response.badRequest("Request cannot be null");
+      return malformedRequest("Request cannot be null");
     }
 
-    final ApiResponse response = responseFactory.create(req);
+    return compressor.encode(req, route(req, responseFactory.create(req)));
+  }
 
+  /**
+   * The 400 for a request the transport could not turn into an {@link ApiRequest}, with the default
+   * origin's CORS headers since the request's own origin is not known.
+   */
+  public final ApiResult malformedRequest(final String message) {
+    return responseFactory.create(DEFAULT_ORIGIN).badRequest(message);
+  }
+
+  private final ApiResult route(final ApiRequest req, final ApiResponse response) {
     try {
-      final String methodStr = Optional.ofNullable(req.getHttpMethod()).orElse("GET");
+      final String methodStr = Optional.ofNullable(req.method()).orElse("GET");
 
       // Handle OPTIONS first, before any other processing
       if (OPTIONS_METHOD.equalsIgnoreCase(methodStr)) {
         return response.noContent();
       }
 
-      final String route = Optional.ofNullable(req.getPath()).orElse("");
-      final String userId = extractUserId(req);
+      final String route = Optional.ofNullable(req.path()).orElse("");
+      final String userId = req.subject() == null ? ANONYMOUS_USER : req.subject();
 
-      final HttpMethod method = HttpMethod.valueOf(methodStr);
-
-      if (Route.ME.matches(route)) {
-        return response.ok(Map.of("userId", userId));
-      }
-      if (Route.ITEMS.matches(route) || Route.ITEMS_PREFIX.isPrefixOf(route)) {
-        if (ANONYMOUS_USER.equals(userId)) {
-          return response.unauthorized();
-        }
-        return handleItemsRoute(route, method, userId, req, response);
-      }
-      return response.routeNotFound();
+      return switch (routes.match(HttpMethod.of(methodStr), route)) {
+        case RouteTable.Found<Endpoint> found ->
+            found.handler().handle(userId, req, response, found.params());
+        case RouteTable.MethodNotAllowed<Endpoint> notAllowed ->
+            response.methodNotAllowedAllowing(notAllowed.allow());
+        case RouteTable.NotFound<Endpoint> notFound -> response.routeNotFound();
+      };
+    } catch (VersionConflictException e) {
+      return response.versionConflict();
     } catch (IllegalArgumentException e) {
       return response.badRequestWithException(e);
     } catch (RuntimeException e) {
@@ -86,67 +157,214 @@ public final class RouterHandler
     }
   }
 
-  private final APIGatewayProxyResponseEvent handleItemsRoute(
-      final String route,
-      final HttpMethod method,
+  /**
+   * Warms the request paths before a SnapStart checkpoint so the snapshot holds JIT-warmed, fully
+   * class-loaded code. Only reads reach DynamoDB: a snapshot must not depend on, or leave behind,
+   * rows in the live table. The write paths are exercised locally, from body decoding through
+   * response serialization and compression, without calling the repository.
+   */
+  @Override
+  public final void beforeCheckpoint(final org.crac.Context<? extends Resource> context) {
+    // OPTIONS goes through the REST API event adapter too, so its classes are in the snapshot.
+    handleRequest(
+        new APIGatewayProxyRequestEvent()
+            .withHttpMethod(OPTIONS_METHOD)
+            .withPath(Route.ITEMS.toString()),
+        null);
+    handle(warmupRequest("GET", Route.ME.toString(), null));
+    handle(warmupRequest("GET", Route.ITEM.expand(WARMUP_ITEM_ID), null));
+    warmWriteSerializers();
+    try {
+      items.prime();
+    } catch (final RuntimeException e) {
+      // Best effort, as at init; the first request will surface a real connectivity problem.
+    }
+  }
+
+  private void warmWriteSerializers() {
+    final ApiRequest req = warmupRequest("POST", Route.ITEMS_BATCH.toString(), WARMUP_BATCH_BODY);
+    final ApiResponse response = responseFactory.create(req);
+    final String value = bodyDecoder.readValue(WARMUP_BODY).orElse(WARMUP_ITEM_ID);
+    final UserItem item = new UserItem(WARMUP_USER, WARMUP_ITEM_ID, value, 0L, 0L, 1L);
+    final String etag = ETags.ofVersion(item.version());
+    compressor.encode(req, response.created(item, etag));
+    compressor.encode(req, response.updated(item, etag));
+    compressor.encode(req, response.noContent());
+    final List<BatchResult> results = new ArrayList<>();
+    for (final BatchOperation operation : bodyDecoder.readBatch(req.body()).orElse(List.of())) {
+      results.add(BatchResult.of(operation, true));
+    }
+    compressor.encode(req, response.ok(Map.of("results", results)));
+  }
+
+  @Override
+  public final void afterRestore(final org.crac.Context<? extends Resource> context) {}
+
+  /** Builds the dispatch table once; every item route requires a signed-in user. */
+  private RouteTable<Endpoint> routes() {
+    return RouteTable.<Endpoint>builder()
+        .add(HttpMethod.GET, Route.ME.toString(), this::handleMe)
+        .add(HttpMethod.GET, Route.ITEMS.toString(), authenticated(this::handleListItems))
+        .add(HttpMethod.POST, Route.ITEMS.toString(), authenticated(this::handleCreateItem))
+        .add(HttpMethod.POST, Route.ITEMS_BATCH.toString(), authenticated(this::handleBatch))
+        .add(
+            HttpMethod.POST, Route.ITEMS_BATCH_GET.toString(), authenticated(this::handleBatchGet))
+        .add(HttpMethod.GET, Route.ITEM.toString(), authenticated(this::handleGetItem))
+        .add(HttpMethod.PUT, Route.ITEM.toString(), authenticated(this::handleUpdateItem))
+        .add(HttpMethod.DELETE, Route.ITEM.toString(), authenticated(this::handleDeleteItem))
+        .build();
+  }
+
+  private static Endpoint authenticated(final Endpoint endpoint) {
+    return (userId, req, response, params) ->
+        ANONYMOUS_USER.equals(userId)
+            ? response.unauthorized()
+            : endpoint.handle(userId, req, response, params);
+  }
+
+  private final ApiResult handleMe(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    return response.ok(Map.of("userId", userId));
+  }
+
+  private final ApiResult handleListItems(
       final String userId,
-      final APIGatewayProxyRequestEvent req,
-      final ApiResponse response) {
-    if (HttpMethod.POST.equals(method)) {
-      return handleCreateItem(userId, req, response);
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    return response.okUnlessNotModified(
+        items.listPageJson(
+            userId,
+            parseLimit(req),
+            req.queryParameter(CURSOR_PARAM),
+            ItemField.parse(req.queryParameter(FIELDS_PARAM))),
+        req.header(IF_NONE_MATCH_HEADER));
+  }
+
+  private final ApiResult handleGetItem(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    final String itemId = params.get(Route.ITEM_ID);
+    final Set<ItemField> fields = ItemField.parse(req.queryParameter(FIELDS_PARAM));
+    if (fields != null) {
+      // The version tag stands for the whole item, so a partial one is tagged by its content.
+      return items
+          .get(userId, itemId, fields)
+          .map(
+              item ->
+                  response.okUnlessNotModified(
+                      ItemField.select(item, fields), req.header(IF_NONE_MATCH_HEADER)))
+          .orElseGet(response::itemNotFound);
     }
-    if (HttpMethod.GET.equals(method) && Route.ITEMS.matches(route)) {
-      return response.ok(Map.of("items", items.list(userId)));
+    return items
+        .get(userId, itemId)
+        .map(
+            item ->
+                response.okUnlessNotModified(
+                    item, ETags.ofVersion(item.version()), req.header(IF_NONE_MATCH_HEADER)))
+        .orElseGet(response::itemNotFound);
+  }
+
+  private final ApiResult handleDeleteItem(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    items.delete(userId, params.get(Route.ITEM_ID));
+    return response.noContent();
+  }
+
+  private final ApiResult handleCreateItem(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    if (bodyDecoder.exceedsLimit(req.body())) {
+      return response.bodyTooLarge();
     }
-    if (HttpMethod.PUT.equals(method)) {
-      final String id = extractItemId(route);
-      return handleUpdateItem(userId, id, req, response);
+    return bodyDecoder
+        .readValue(req.body())
+        .map(value -> items.create(userId, value))
+        .map(item -> response.created(item, ETags.ofVersion(item.version())))
+        .orElseGet(response::invalidBody);
+  }
+
+  private final ApiResult handleUpdateItem(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    final String itemId = params.get(Route.ITEM_ID);
+    if (bodyDecoder.exceedsLimit(req.body())) {
+      return response.bodyTooLarge();
     }
-    if (HttpMethod.GET.equals(method)) {
-      final String id = extractItemId(route);
-      return items.get(userId, id).map(response::ok).orElseGet(response::itemNotFound);
+    final String ifMatch = req.header(IF_MATCH_HEADER);
+    final Long expectedVersion;
+    if (ifMatch == null || ETags.ANY.equals(ifMatch.trim())) {
+      expectedVersion = null;
+    } else {
+      expectedVersion = ETags.versionOf(ifMatch);
+      if (expectedVersion == null) {
+        return response.versionConflict();
+      }
     }
-    if (HttpMethod.DELETE.equals(method)) {
-      final String id = extractItemId(route);
-      items.delete(userId, id);
-      return response.noContent();
+    final Optional<String> value = bodyDecoder.readValue(req.body());
+    if (value.isEmpty()) {
+      return response.invalidBody();
     }
-    return response.methodNotAllowed();
+    return items
+        .update(userId, itemId, value.get(), expectedVersion)
+        .map(item -> response.updated(item, ETags.ofVersion(item.version())))
+        .orElseGet(response::itemNotFound);
   }
 
-  private final APIGatewayProxyResponseEvent handleCreateItem(
-      final String userId, final APIGatewayProxyRequestEvent req, final ApiResponse response) {
-    final String body = Optional.ofNullable(req.getBody()).orElse("");
-    final String value = body.replaceAll(VALUE_REGEX, VALUE_REPLACEMENT);
-    if (value.isEmpty() || value.equals(body)) {
-      return response.invalidBody();
+  private final ApiResult handleBatch(
+      final String userId,
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    if (bodyDecoder.exceedsLimit(req.body())) {
+      return response.bodyTooLarge();
     }
-    return response.created(items.create(userId, value));
+    return bodyDecoder
+        .readBatch(req.body())
+        .map(operations -> response.ok(Map.of("results", items.batch(userId, operations))))
+        .orElseGet(response::invalidBatchBody);
   }
 
-  private final APIGatewayProxyResponseEvent handleUpdateItem(
+  private final ApiResult handleBatchGet(
       final String userId,
-      final String itemId,
-      final APIGatewayProxyRequestEvent req,
-      final ApiResponse response) {
-    final String body = Optional.ofNullable(req.getBody()).orElse("");
-    final String value = body.replaceAll(VALUE_REGEX, VALUE_REPLACEMENT);
-    if (value.isEmpty() || value.equals(body)) {
-      return response.invalidBody();
+      final ApiRequest req,
+      final ApiResponse response,
+      final Map<String, String> params) {
+    if (bodyDecoder.exceedsLimit(req.body())) {
+      return response.bodyTooLarge();
     }
-    return response.updated(items.update(userId, itemId, value));
+    return bodyDecoder
+        .readIds(req.body())
+        .map(ids -> response.ok(Map.of("results", items.getMany(userId, ids))))
+        .orElseGet(response::invalidIdsBody);
   }
 
-  private final String extractUserId(final APIGatewayProxyRequestEvent req) {
-    if (req.getRequestContext() == null || req.getRequestContext().getAuthorizer() == null) {
-      return ANONYMOUS_USER;
+  private static int parseLimit(final ApiRequest req) {
+    final String limit = req.queryParameter(LIMIT_PARAM);
+    if (limit == null) {
+      return DEFAULT_PAGE_SIZE;
+    }
+    final int parsed = Integer.parseInt(limit);
+    if (parsed < 1 || parsed > MAX_PAGE_SIZE) {
+      throw new IllegalArgumentException("limit must be between 1 and " + MAX_PAGE_SIZE);
     }
-    final JsonNode node = mapper.valueToTree(req.getRequestContext().getAuthorizer());
-    final String sub = node.path("claims").path("sub").asText(null);
-    return (sub == null || sub.isBlank()) ? ANONYMOUS_USER : sub;
+    return parsed;
   }
 
-  private final String extractItemId(final String route) {
-    return route.substring(Route.ITEMS_PREFIX.toString().length());
+  private static ApiRequest warmupRequest(
+      final String method, final String path, final String body) {
+    return new ApiRequest(method, path, null, null, body, WARMUP_USER);
   }
 }
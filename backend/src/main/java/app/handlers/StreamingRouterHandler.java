@@ -0,0 +1,47 @@
+package app.handlers;
+
+import app.web.ProxyEventCodec;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestStreamHandler;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Stream entry point for the same routes as {@link RouterHandler}. The runtime hands over the raw
+ * event bytes, so the event is never bound to a full POJO graph by the runtime serializer, and the
+ * already-serialized response body is escaped once, straight into the output stream.
+ */
+public final class StreamingRouterHandler implements RequestStreamHandler {
+  private static final byte[] PRIME_EVENT =
+      "{\"httpMethod\":\"OPTIONS\",\"path\":\"/v1/items\",\"headers\":{},\"requestContext\":{}}"
+          .getBytes(StandardCharsets.UTF_8);
+
+  private final RouterHandler router;
+  private final ProxyEventCodec codec;
+
+  public StreamingRouterHandler(final RouterHandler router, final JsonFactory factory) {
+    this.router = router;
+    this.codec = new ProxyEventCodec(factory);
+  }
+
+  public StreamingRouterHandler() {
+    this(new RouterHandler(), InitPhase.component().objectMapper().getFactory());
+    // Loads the codec's parser and generator paths during init rather than on the first request.
+    try {
+      handleRequest(new ByteArrayInputStream(PRIME_EVENT), OutputStream.nullOutputStream(), null);
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  @Override
+  public void handleRequest(final InputStream input, final OutputStream output, final Context ctx)
+      throws IOException {
+    codec.write(router.handle(codec.read(input)), output);
+  }
+}
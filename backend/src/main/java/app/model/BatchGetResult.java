@@ -0,0 +1,8 @@
+package app.model;
+
+/** One requested id and the item stored under it; {@code found} is false when there is none. */
+public record BatchGetResult(String itemId, boolean found, UserItem item) {
+  public static BatchGetResult of(final String itemId, final UserItem item) {
+    return new BatchGetResult(itemId, item != null, item);
+  }
+}
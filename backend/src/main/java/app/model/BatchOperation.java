@@ -0,0 +1,10 @@
+package app.model;
+
+/** One entry of a bulk write request. {@code itemId} is null for creates until one is assigned. */
+public record BatchOperation(Type type, String itemId, String value) {
+  public enum Type {
+    CREATE,
+    UPDATE,
+    DELETE
+  }
+}
@@ -0,0 +1,17 @@
+package app.model;
+
+/** Outcome of one {@link BatchOperation}, reported in request order. */
+public record BatchResult(String itemId, String status) {
+  public static BatchResult of(final BatchOperation operation, final boolean succeeded) {
+    if (!succeeded) {
+      return new BatchResult(operation.itemId(), "failed");
+    }
+    final String status =
+        switch (operation.type()) {
+          case CREATE -> "created";
+          case UPDATE -> "updated";
+          case DELETE -> "deleted";
+        };
+    return new BatchResult(operation.itemId(), status);
+  }
+}
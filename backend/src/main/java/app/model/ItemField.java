@@ -0,0 +1,77 @@
+package app.model;
+
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The fields of a {@link UserItem} as the API names them, for clients that ask for a subset with
+ * {@code fields=}. A null field set everywhere means every field.
+ */
+public enum ItemField {
+  USER_ID("user_id"),
+  ITEM_ID("item_id"),
+  VALUE("value"),
+  CREATED_AT("created_at"),
+  UPDATED_AT("updated_at"),
+  VERSION("version");
+
+  private static final int ALL = values().length;
+
+  private final String apiName;
+
+  ItemField(final String apiName) {
+    this.apiName = apiName;
+  }
+
+  public final String apiName() {
+    return apiName;
+  }
+
+  /**
+   * Parses a comma-separated list of API field names. Returns null, meaning every field, when
+   * {@code fields} is null or names them all.
+   *
+   * @throws IllegalArgumentException if a name is blank or unknown
+   */
+  public static Set<ItemField> parse(final String fields) {
+    if (fields == null) {
+      return null;
+    }
+    final Set<ItemField> out = EnumSet.noneOf(ItemField.class);
+    for (final String name : fields.split(",", -1)) {
+      out.add(of(name.trim()));
+    }
+    return out.size() == ALL ? null : out;
+  }
+
+  /** The requested fields of {@code item}, keyed by API name, in declaration order. */
+  public static Map<String, Object> select(final UserItem item, final Set<ItemField> fields) {
+    final Map<String, Object> out = new LinkedHashMap<>();
+    for (final ItemField field : fields) {
+      out.put(field.apiName, field.read(item));
+    }
+    return out;
+  }
+
+  private static ItemField of(final String apiName) {
+    for (final ItemField field : values()) {
+      if (field.apiName.equals(apiName)) {
+        return field;
+      }
+    }
+    throw new IllegalArgumentException("Unknown field: " + apiName);
+  }
+
+  private final Object read(final UserItem item) {
+    return switch (this) {
+      case USER_ID -> item.userId();
+      case ITEM_ID -> item.itemId();
+      case VALUE -> item.value();
+      case CREATED_AT -> item.createdAt();
+      case UPDATED_AT -> item.updatedAt();
+      case VERSION -> item.version();
+    };
+  }
+}
@@ -0,0 +1,6 @@
+package app.model;
+
+import java.util.List;
+
+/** One page of results plus the opaque cursor for the next page, or null on the last page. */
+public record Page<T>(List<T> items, String nextCursor) {}
@@ -1,9 +1,5 @@
 package app.model;
 
-public final class UserItem {
-  public String userId;
-  public String itemId;
-  public String value;
-  public long createdAt;
-  public long updatedAt;
-}
+/** One stored item as the API returns it. Items written before versioning report version 0. */
+public record UserItem(
+    String userId, String itemId, String value, long createdAt, long updatedAt, long version) {}
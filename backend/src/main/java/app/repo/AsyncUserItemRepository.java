@@ -0,0 +1,264 @@
+package app.repo;
+
+import static app.repo.UserItemMapping.MAX_BATCH_GET;
+import static app.repo.UserItemMapping.MAX_BATCH_WRITE;
+import static app.repo.UserItemMapping.SCHEMA;
+import static app.repo.UserItemMapping.key;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.core.exception.SdkException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+
+/**
+ * {@link ItemRepository} on the non-blocking enhanced client. No thread waits on DynamoDB: batch
+ * chunks are all in flight at once and unprocessed entries are re-driven from a delayed executor
+ * instead of a sleeping thread.
+ */
+public final class AsyncUserItemRepository implements ItemRepository, Resource {
+  private final DynamoDbEnhancedAsyncClient enhanced;
+  private final DynamoDbAsyncClient ddb;
+  private final String tableName;
+  private final DynamoDbAsyncTable<UserItemRecord> table;
+  private final Executor executor;
+
+  public AsyncUserItemRepository(
+      final DynamoDbEnhancedAsyncClient enhanced,
+      final DynamoDbAsyncClient ddb,
+      final String tableName,
+      final Executor executor) {
+    this.enhanced = enhanced;
+    this.ddb = ddb;
+    this.tableName = tableName;
+    this.table = enhanced.table(tableName, SCHEMA);
+    this.executor = executor;
+  }
+
+  @Override
+  public final CompletableFuture<UserItem> put(
+      final String userId, final String itemId, final String value, final long now) {
+    final UserItemRecord r = UserItemMapping.toRecord(userId, itemId, value, now);
+    return table.putItem(r).thenApply(ignored -> UserItemMapping.toModel(r));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> update(
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    return ddb.updateItem(
+            UserItemMapping.updateRequest(tableName, userId, itemId, value, expectedVersion, now))
+        .handle(
+            (response, e) -> {
+              if (e == null) {
+                return UserItemMapping.updated(response);
+              }
+              final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+              if (cause instanceof ConditionalCheckFailedException failed) {
+                return UserItemMapping.conditionFailed(itemId, failed);
+              }
+              throw e instanceof CompletionException ce ? ce : new CompletionException(cause);
+            });
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId) {
+    return table
+        .getItem(key(userId, itemId))
+        .thenApply(r -> Optional.ofNullable(r).map(UserItemMapping::toModel));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId, final Set<ItemField> fields) {
+    if (fields == null) {
+      return get(userId, itemId);
+    }
+    return ddb.getItem(UserItemMapping.getRequest(tableName, userId, itemId, fields))
+        .thenApply(UserItemMapping::found);
+  }
+
+  @Override
+  public final CompletableFuture<String> listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    return ddb.query(UserItemMapping.queryRequest(tableName, userId, limit, cursor, fields))
+        .thenApply(
+            page ->
+                UserItemJson.page(
+                    page.items(), UserItemMapping.encodeCursor(page.lastEvaluatedKey()), fields));
+  }
+
+  @Override
+  public final CompletableFuture<Void> delete(final String userId, final String itemId) {
+    return table.deleteItem(key(userId, itemId)).thenApply(ignored -> null);
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchResult>> batchWrite(
+      final String userId, final List<BatchOperation> operations, final long now) {
+    final List<CompletableFuture<Set<String>>> writes = new ArrayList<>();
+    for (final BatchOperation op : operations) {
+      if (op.type() == BatchOperation.Type.UPDATE) {
+        final Set<String> itemId = Set.of(op.itemId());
+        writes.add(
+            update(userId, op.itemId(), op.value(), null, now)
+                .thenApply(item -> item.isPresent() ? Set.<String>of() : itemId)
+                .exceptionally(e -> failWholeChunk(e, itemId)));
+      }
+    }
+    final List<BatchOperation> batchable = UserItemMapping.batchable(operations);
+    for (final List<BatchOperation> chunk : UserItemMapping.chunks(batchable, MAX_BATCH_WRITE)) {
+      final Set<String> chunkIds =
+          chunk.stream().map(BatchOperation::itemId).collect(Collectors.toSet());
+      final List<UserItemRecord> puts = UserItemMapping.puts(userId, chunk, now);
+      final List<Key> deletes = UserItemMapping.deletes(userId, chunk);
+      writes.add(writeChunk(puts, deletes, 1).exceptionally(e -> failWholeChunk(e, chunkIds)));
+    }
+    return allOf(writes)
+        .thenApply(
+            ignored -> {
+              final Set<String> failed = new HashSet<>();
+              writes.forEach(write -> failed.addAll(write.join()));
+              return UserItemMapping.batchResults(operations, failed);
+            });
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchGetResult>> getMany(
+      final String userId, final List<String> itemIds) {
+    final List<String> unique = new ArrayList<>(new LinkedHashSet<>(itemIds));
+    final List<CompletableFuture<Map<String, UserItem>>> chunks = new ArrayList<>();
+    for (final List<String> chunk : UserItemMapping.chunks(unique, MAX_BATCH_GET)) {
+      chunks.add(readChunk(UserItemMapping.keys(userId, chunk), new HashMap<>(), 1));
+    }
+    return allOf(chunks)
+        .thenApply(
+            ignored -> {
+              final Map<String, UserItem> found = new HashMap<>();
+              chunks.forEach(chunk -> found.putAll(chunk.join()));
+              return UserItemMapping.batchGetResults(itemIds, found);
+            });
+  }
+
+  @Override
+  public final void prime() {
+    UserItemMapping.primeSchema();
+    table.describeTable().join();
+  }
+
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {}
+
+  /** Reopens the table connection on the freshly rebuilt HTTP client before traffic arrives. */
+  @Override
+  public final void afterRestore(final Context<? extends Resource> context) {
+    try {
+      prime();
+    } catch (final RuntimeException e) {
+      // A failed reconnect must not fail the restore; the next request retries the connection.
+    }
+  }
+
+  /** Completes with the ids still unprocessed once the entries are written or attempts run out. */
+  private final CompletableFuture<Set<String>> writeChunk(
+      final List<UserItemRecord> puts, final List<Key> deletes, final int attempt) {
+    final WriteBatch.Builder<UserItemRecord> batch =
+        WriteBatch.builder(UserItemRecord.class).mappedTableResource(table);
+    puts.forEach(batch::addPutItem);
+    deletes.forEach(batch::addDeleteItem);
+    return enhanced
+        .batchWriteItem(BatchWriteItemEnhancedRequest.builder().writeBatches(batch.build()).build())
+        .thenCompose(
+            result -> {
+              final List<UserItemRecord> unprocessedPuts =
+                  result.unprocessedPutItemsForTable(table);
+              final List<Key> unprocessedDeletes = result.unprocessedDeleteItemsForTable(table);
+              if ((unprocessedPuts.isEmpty() && unprocessedDeletes.isEmpty())
+                  || attempt == Backoff.MAX_ATTEMPTS) {
+                return CompletableFuture.completedFuture(
+                    UserItemMapping.itemIds(unprocessedPuts, unprocessedDeletes));
+              }
+              return afterBackoff(attempt)
+                  .thenCompose(
+                      ignored -> writeChunk(unprocessedPuts, unprocessedDeletes, attempt + 1));
+            });
+  }
+
+  private final CompletableFuture<Map<String, UserItem>> readChunk(
+      final List<Key> keys, final Map<String, UserItem> found, final int attempt) {
+    final ReadBatch.Builder<UserItemRecord> batch =
+        ReadBatch.builder(UserItemRecord.class).mappedTableResource(table);
+    keys.forEach(batch::addGetItem);
+    final List<BatchGetResultPage> pages = new ArrayList<>(1);
+    return enhanced
+        .batchGetItem(BatchGetItemEnhancedRequest.builder().readBatches(batch.build()).build())
+        .limit(1)
+        .subscribe(pages::add)
+        .thenCompose(
+            ignored -> {
+              final BatchGetResultPage page = pages.get(0);
+              for (final UserItemRecord r : page.resultsForTable(table)) {
+                found.put(r.getItemId(), UserItemMapping.toModel(r));
+              }
+              final List<Key> unprocessed = page.unprocessedKeysForTable(table);
+              if (unprocessed.isEmpty()) {
+                return CompletableFuture.completedFuture(found);
+              }
+              if (attempt == Backoff.MAX_ATTEMPTS) {
+                throw new IllegalStateException(
+                    unprocessed.size() + " keys left unprocessed by BatchGetItem");
+              }
+              return afterBackoff(attempt)
+                  .thenCompose(next -> readChunk(unprocessed, found, attempt + 1));
+            });
+  }
+
+  private final CompletableFuture<Void> afterBackoff(final int attempt) {
+    return CompletableFuture.runAsync(
+        () -> {},
+        CompletableFuture.delayedExecutor(Backoff.delayMillis(attempt), MILLISECONDS, executor));
+  }
+
+  /** A transport failure marks every operation in the chunk failed, as the blocking path does. */
+  private static Set<String> failWholeChunk(final Throwable e, final Set<String> chunkIds) {
+    final Throwable cause = e instanceof CompletionException ? e.getCause() : e;
+    if (cause instanceof SdkException) {
+      return chunkIds;
+    }
+    throw e instanceof CompletionException ce ? ce : new CompletionException(cause);
+  }
+
+  private static <T> CompletableFuture<Void> allOf(final List<CompletableFuture<T>> futures) {
+    return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new));
+  }
+}
@@ -0,0 +1,29 @@
+package app.repo;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/** Capped exponential backoff with full jitter for re-driving unprocessed batch entries. */
+final class Backoff {
+  static final int MAX_ATTEMPTS = 5;
+  private static final long BASE_MILLIS = 20;
+  private static final long CAP_MILLIS = 500;
+
+  private Backoff() {}
+
+  /** Returns a random delay in milliseconds to wait before retry number {@code attempt}. */
+  static long delayMillis(final int attempt) {
+    final long ceiling = Math.min(CAP_MILLIS, BASE_MILLIS << Math.min(attempt, 16));
+    return ThreadLocalRandom.current().nextLong(ceiling + 1);
+  }
+
+  /** Sleeps before retry number {@code attempt}; returns false if the thread was interrupted. */
+  static boolean pause(final int attempt) {
+    try {
+      Thread.sleep(delayMillis(attempt));
+      return true;
+    } catch (final InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+}
@@ -0,0 +1,28 @@
+package app.repo;
+
+import java.util.Locale;
+
+/** Point-in-time counters for the item cache; hits over lookups is the read-capacity saving. */
+public record CacheStats(
+    long hits, long misses, long evictions, long expirations, int entries, long bytes) {
+  /** Zero before the first lookup. */
+  public double hitRatio() {
+    final long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+
+  /** One JSON object per line, so CloudWatch Logs Insights can query the fields directly. */
+  public String toLogLine() {
+    return String.format(
+        Locale.ROOT,
+        "{\"event\":\"item_cache_stats\",\"hits\":%d,\"misses\":%d,\"hit_ratio\":%.4f,"
+            + "\"evictions\":%d,\"expirations\":%d,\"entries\":%d,\"bytes\":%d}",
+        hits,
+        misses,
+        hitRatio(),
+        evictions,
+        expirations,
+        entries,
+        bytes);
+  }
+}
@@ -0,0 +1,245 @@
+package app.repo;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+import org.crac.Context;
+import org.crac.Resource;
+
+/**
+ * Read-through cache in front of another {@link ItemRepository}, local to one container. Single
+ * items are cached under {@code (userId, itemId)}; each user also has one entry holding the first
+ * list page. Writes made through this container replace or drop the entries they touch, while
+ * writes from other containers become visible once the TTL runs out. The counters are logged as one
+ * JSON line every {@code statsEvery} lookups, when that is positive, and before a checkpoint.
+ */
+public final class CachingItemRepository implements ItemRepository, Resource {
+  private static final long ENTRY_OVERHEAD_BYTES = 96;
+
+  private final ItemRepository delegate;
+  private final ItemCache<CacheKey, Object> cache;
+  private final long statsEvery;
+  private final AtomicLong lookups = new AtomicLong();
+
+  public CachingItemRepository(
+      final ItemRepository delegate,
+      final int maxEntries,
+      final long maxBytes,
+      final long ttlMillis,
+      final long statsEvery) {
+    this(delegate, maxEntries, maxBytes, ttlMillis, statsEvery, System::currentTimeMillis);
+  }
+
+  CachingItemRepository(
+      final ItemRepository delegate,
+      final int maxEntries,
+      final long maxBytes,
+      final long ttlMillis,
+      final long statsEvery,
+      final LongSupplier clock) {
+    this.delegate = delegate;
+    this.cache =
+        new ItemCache<>(maxEntries, maxBytes, ttlMillis, CachingItemRepository::weigh, clock);
+    this.statsEvery = statsEvery;
+  }
+
+  public final CacheStats stats() {
+    return cache.stats();
+  }
+
+  @Override
+  public final CompletableFuture<UserItem> put(
+      final String userId, final String itemId, final String value, final long now) {
+    final CacheKey key = CacheKey.item(userId, itemId);
+    invalidate(userId, itemId);
+    final long generation = cache.generation(key);
+    return delegate
+        .put(userId, itemId, value, now)
+        .whenComplete(
+            (item, e) -> {
+              if (e == null) {
+                cache.replace(key, item, generation);
+              } else {
+                cache.invalidate(key);
+              }
+              cache.invalidate(CacheKey.list(userId));
+            });
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> update(
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    final CacheKey key = CacheKey.item(userId, itemId);
+    invalidate(userId, itemId);
+    final long generation = cache.generation(key);
+    return delegate
+        .update(userId, itemId, value, expectedVersion, now)
+        .whenComplete(
+            (item, e) -> {
+              if (e == null && item.isPresent()) {
+                cache.replace(key, item.get(), generation);
+              } else {
+                cache.invalidate(key);
+              }
+              cache.invalidate(CacheKey.list(userId));
+            });
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId) {
+    final CacheKey key = CacheKey.item(userId, itemId);
+    countLookup();
+    if (cache.get(key) instanceof UserItem item) {
+      return CompletableFuture.completedFuture(Optional.of(item));
+    }
+    final long generation = cache.generation(key);
+    return delegate
+        .get(userId, itemId)
+        .whenComplete(
+            (item, e) -> {
+              if (e == null && item.isPresent()) {
+                cache.putIfUnchanged(key, item.get(), generation);
+              }
+            });
+  }
+
+  /**
+   * Serves a cached whole item, whose extra fields the caller ignores. Partial items read on a miss
+   * are not cached, since later whole-item reads would see their missing fields.
+   */
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId, final Set<ItemField> fields) {
+    if (fields == null) {
+      return get(userId, itemId);
+    }
+    countLookup();
+    if (cache.get(CacheKey.item(userId, itemId)) instanceof UserItem item) {
+      return CompletableFuture.completedFuture(Optional.of(item));
+    }
+    return delegate.get(userId, itemId, fields);
+  }
+
+  /**
+   * Only the first page is cached, since that is what polling clients request; whichever limit and
+   * field set was read last is the one kept.
+   */
+  @Override
+  public final CompletableFuture<String> listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    if (cursor != null) {
+      return delegate.listPageJson(userId, limit, cursor, fields);
+    }
+    final CacheKey key = CacheKey.list(userId);
+    countLookup();
+    final Object cached =
+        cache.get(key, value -> value instanceof FirstPageJson page && page.matches(limit, fields));
+    if (cached instanceof FirstPageJson first) {
+      return CompletableFuture.completedFuture(first.json());
+    }
+    final long generation = cache.generation(key);
+    return delegate
+        .listPageJson(userId, limit, null, fields)
+        .whenComplete(
+            (json, e) -> {
+              if (e == null) {
+                cache.putIfUnchanged(key, new FirstPageJson(limit, fields, json), generation);
+              }
+            });
+  }
+
+  @Override
+  public final CompletableFuture<Void> delete(final String userId, final String itemId) {
+    invalidate(userId, itemId);
+    return delegate.delete(userId, itemId).whenComplete((ignored, e) -> invalidate(userId, itemId));
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchResult>> batchWrite(
+      final String userId, final List<BatchOperation> operations, final long now) {
+    operations.forEach(op -> invalidate(userId, op.itemId()));
+    return delegate
+        .batchWrite(userId, operations, now)
+        .whenComplete((results, e) -> operations.forEach(op -> invalidate(userId, op.itemId())));
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchGetResult>> getMany(
+      final String userId, final List<String> itemIds) {
+    return delegate.getMany(userId, itemIds);
+  }
+
+  @Override
+  public final void prime() {
+    delegate.prime();
+  }
+
+  /** Logs what the warm-up left in the cache, the last line before the snapshot is taken. */
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {
+    logStats();
+  }
+
+  @Override
+  public final void afterRestore(final Context<? extends Resource> context) {}
+
+  private void countLookup() {
+    if (statsEvery > 0 && lookups.incrementAndGet() % statsEvery == 0) {
+      logStats();
+    }
+  }
+
+  private void logStats() {
+    System.out.println(cache.stats().toLogLine());
+  }
+
+  private void invalidate(final String userId, final String itemId) {
+    cache.invalidate(CacheKey.item(userId, itemId));
+    cache.invalidate(CacheKey.list(userId));
+  }
+
+  /** Rough UTF-16 footprint of the cached value plus a fixed per-entry overhead. */
+  private static long weigh(final Object value) {
+    if (value instanceof UserItem item) {
+      return ENTRY_OVERHEAD_BYTES
+          + 2L * (length(item.userId()) + length(item.itemId()) + length(item.value()));
+    }
+    final FirstPageJson first = (FirstPageJson) value;
+    return ENTRY_OVERHEAD_BYTES + 2L * length(first.json());
+  }
+
+  private static int length(final String s) {
+    return s == null ? 0 : s.length();
+  }
+
+  /** A null {@code itemId} marks the user's list entry. */
+  private record CacheKey(String userId, String itemId) {
+    static CacheKey item(final String userId, final String itemId) {
+      return new CacheKey(userId, itemId);
+    }
+
+    static CacheKey list(final String userId) {
+      return new CacheKey(userId, null);
+    }
+  }
+
+  private record FirstPageJson(int limit, Set<ItemField> fields, String json) {
+    boolean matches(final int limit, final Set<ItemField> fields) {
+      return this.limit == limit && Objects.equals(this.fields, fields);
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package app.repo;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Access-ordered LRU bounded by entry count and estimated bytes, with a fixed time-to-live per
+ * entry. Expired entries are dropped when read; the LRU tail goes first when either bound is hit.
+ *
+ * <p>Values loaded from elsewhere are stored with {@link #putIfUnchanged} against a {@link
+ * #generation} read before the load started, so a load that overlaps an invalidation cannot put
+ * back what the invalidation removed. Generations are kept per stripe of keys rather than per key,
+ * which bounds their memory; a collision only means a load is not cached.
+ */
+final class ItemCache<K, V> {
+  private static final int GENERATION_STRIPES = 1024;
+
+  private final int maxEntries;
+  private final long maxBytes;
+  private final long ttlMillis;
+  private final ToLongFunction<V> weigher;
+  private final LongSupplier clock;
+  private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(64, 0.75f, true);
+  private final long[] generations = new long[GENERATION_STRIPES];
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long expirations;
+
+  ItemCache(
+      final int maxEntries,
+      final long maxBytes,
+      final long ttlMillis,
+      final ToLongFunction<V> weigher,
+      final LongSupplier clock) {
+    this.maxEntries = maxEntries;
+    this.maxBytes = maxBytes;
+    this.ttlMillis = ttlMillis;
+    this.weigher = weigher;
+    this.clock = clock;
+  }
+
+  /** Returns the live value for {@code key}, or null on a miss. */
+  final synchronized V get(final K key) {
+    return get(key, value -> true);
+  }
+
+  /**
+   * Returns the live value for {@code key} if it {@code matches}, or null on a miss. A value that
+   * does not match is left in place but counted as a miss, since the caller has to load anyway.
+   */
+  final synchronized V get(final K key, final Predicate<? super V> matches) {
+    final Entry<V> entry = entries.get(key);
+    if (entry == null) {
+      misses++;
+      return null;
+    }
+    if (entry.expiresAt() <= clock.getAsLong()) {
+      remove(key);
+      expirations++;
+      misses++;
+      return null;
+    }
+    if (!matches.test(entry.value())) {
+      misses++;
+      return null;
+    }
+    hits++;
+    return entry.value();
+  }
+
+  /** Read before loading a value for {@code key}; see {@link #putIfUnchanged}. */
+  final synchronized long generation(final K key) {
+    return generations[stripe(key)];
+  }
+
+  /** Stores a loaded value unless {@code key} was invalidated since {@code generation} was read. */
+  final synchronized void putIfUnchanged(final K key, final V value, final long generation) {
+    if (generations[stripe(key)] == generation) {
+      put(key, value);
+    }
+  }
+
+  /**
+   * Stores the result of a write that started at {@code generation}. If another write or
+   * invalidation overlapped it, which of the two the store saw last is unknown, so the entry is
+   * dropped instead. Either way loads that were in flight are not cached afterwards.
+   */
+  final synchronized void replace(final K key, final V value, final long generation) {
+    if (generations[stripe(key)] == generation) {
+      put(key, value);
+      generations[stripe(key)]++;
+    } else {
+      invalidate(key);
+    }
+  }
+
+  final synchronized void put(final K key, final V value) {
+    final long weight = weigher.applyAsLong(value);
+    if (weight > maxBytes) {
+      remove(key);
+      return;
+    }
+    final Entry<V> previous =
+        entries.put(key, new Entry<>(value, weight, clock.getAsLong() + ttlMillis));
+    if (previous != null) {
+      bytes -= previous.weight();
+    }
+    bytes += weight;
+    final Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+    while (entries.size() > maxEntries || bytes > maxBytes) {
+      bytes -= eldest.next().getValue().weight();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  final synchronized void invalidate(final K key) {
+    remove(key);
+    generations[stripe(key)]++;
+  }
+
+  final synchronized CacheStats stats() {
+    return new CacheStats(hits, misses, evictions, expirations, entries.size(), bytes);
+  }
+
+  private static int stripe(final Object key) {
+    final int h = key.hashCode();
+    return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+  }
+
+  private void remove(final K key) {
+    final Entry<V> removed = entries.remove(key);
+    if (removed != null) {
+      bytes -= removed.weight();
+    }
+  }
+
+  private record Entry<V>(V value, long weight, long expiresAt) {}
+}
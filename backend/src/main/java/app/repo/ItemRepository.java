@@ -0,0 +1,60 @@
+package app.repo;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Storage for user items. Every data call returns a future so callers can overlap independent
+ * requests; whether the I/O itself is blocking depends on the implementation selected in {@code
+ * RepoModule}.
+ */
+public interface ItemRepository {
+  CompletableFuture<UserItem> put(String userId, String itemId, String value, long now);
+
+  /**
+   * Changes the value of an existing item, optionally only while it is at {@code expectedVersion}.
+   * Completes empty if the item does not exist, or exceptionally with {@link
+   * VersionConflictException} if it is at another version.
+   */
+  CompletableFuture<Optional<UserItem>> update(
+      String userId, String itemId, String value, Long expectedVersion, long now);
+
+  CompletableFuture<Optional<UserItem>> get(String userId, String itemId);
+
+  /**
+   * Reads only the attributes behind {@code fields}, or the whole item when it is null. Fields left
+   * out come back null or 0, so the result is only fit for serializing those fields.
+   */
+  CompletableFuture<Optional<UserItem>> get(String userId, String itemId, Set<ItemField> fields);
+
+  /**
+   * Reads one query page of at most {@code limit} items, resuming after {@code cursor}, and returns
+   * it already serialized as the API's JSON page body, written straight from the stored attributes.
+   * When {@code fields} is not null, only those attributes are read and written.
+   */
+  CompletableFuture<String> listPageJson(
+      String userId, int limit, String cursor, Set<ItemField> fields);
+
+  CompletableFuture<Void> delete(String userId, String itemId);
+
+  /**
+   * Writes {@code operations}, reporting per-operation success in the same order. An update changes
+   * an existing item the way {@link #update} does without an expected version, so its version is
+   * bumped and {@code createdAt} kept; it fails if the item does not exist.
+   */
+  CompletableFuture<List<BatchResult>> batchWrite(
+      String userId, List<BatchOperation> operations, long now);
+
+  /** Fetches {@code itemIds}, reporting found or missing in the same order. */
+  CompletableFuture<List<BatchGetResult>> getMany(String userId, List<String> itemIds);
+
+  /** Warms the mapper and the table connection; blocks until done. */
+  void prime();
+}
@@ -0,0 +1,93 @@
+package app.repo;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * {@link ItemRepository} over the blocking {@link UserItemRepository}. Calls run on the caller's
+ * thread and return already-completed futures; batch chunks still fan out on the repository's
+ * executor.
+ */
+public final class SyncItemRepository implements ItemRepository {
+  private final UserItemRepository repo;
+
+  public SyncItemRepository(final UserItemRepository repo) {
+    this.repo = repo;
+  }
+
+  @Override
+  public final CompletableFuture<UserItem> put(
+      final String userId, final String itemId, final String value, final long now) {
+    return complete(() -> repo.put(userId, itemId, value, now));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> update(
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    return complete(() -> repo.update(userId, itemId, value, expectedVersion, now));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId) {
+    return complete(() -> repo.get(userId, itemId));
+  }
+
+  @Override
+  public final CompletableFuture<Optional<UserItem>> get(
+      final String userId, final String itemId, final Set<ItemField> fields) {
+    return complete(() -> repo.get(userId, itemId, fields));
+  }
+
+  @Override
+  public final CompletableFuture<String> listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    return complete(() -> repo.listPageJson(userId, limit, cursor, fields));
+  }
+
+  @Override
+  public final CompletableFuture<Void> delete(final String userId, final String itemId) {
+    return complete(
+        () -> {
+          repo.delete(userId, itemId);
+          return null;
+        });
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchResult>> batchWrite(
+      final String userId, final List<BatchOperation> operations, final long now) {
+    return complete(() -> repo.batchWrite(userId, operations, now));
+  }
+
+  @Override
+  public final CompletableFuture<List<BatchGetResult>> getMany(
+      final String userId, final List<String> itemIds) {
+    return complete(() -> repo.getMany(userId, itemIds));
+  }
+
+  @Override
+  public final void prime() {
+    repo.prime();
+  }
+
+  private static <T> CompletableFuture<T> complete(final Supplier<T> call) {
+    try {
+      return CompletableFuture.completedFuture(call.get());
+    } catch (final RuntimeException e) {
+      return CompletableFuture.failedFuture(e);
+    }
+  }
+}
@@ -0,0 +1,124 @@
+package app.repo;
+
+import app.model.ItemField;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+/**
+ * Writes stored items straight from DynamoDB attribute maps into a {@link JsonGenerator}, with no
+ * {@link UserItemRecord} or {@code UserItem} in between. The output is the API's snake_case page
+ * body, identical to what the API's ObjectMapper writes for a {@code Page<UserItem>}. Numbers are
+ * copied through as DynamoDB returned them.
+ */
+final class UserItemJson {
+  private static final JsonFactory FACTORY = new JsonFactory();
+  private static final int BYTES_PER_ITEM_ESTIMATE = 160;
+  private static final SerializableString ITEMS = new SerializedString("items");
+  private static final SerializableString NEXT_CURSOR = new SerializedString("next_cursor");
+  private static final SerializableString USER_ID = new SerializedString("user_id");
+  private static final SerializableString ITEM_ID = new SerializedString("item_id");
+  private static final SerializableString VALUE = new SerializedString("value");
+  private static final SerializableString CREATED_AT = new SerializedString("created_at");
+  private static final SerializableString UPDATED_AT = new SerializedString("updated_at");
+  private static final SerializableString VERSION = new SerializedString("version");
+
+  private UserItemJson() {}
+
+  static String page(final List<Map<String, AttributeValue>> items, final String nextCursor) {
+    return page(items, nextCursor, null);
+  }
+
+  /** Writes only {@code fields} of each item, or every field when it is null. */
+  static String page(
+      final List<Map<String, AttributeValue>> items,
+      final String nextCursor,
+      final Set<ItemField> fields) {
+    final StringWriter out = new StringWriter(64 + items.size() * BYTES_PER_ITEM_ESTIMATE);
+    try (JsonGenerator gen = FACTORY.createGenerator(out)) {
+      gen.writeStartObject();
+      gen.writeFieldName(ITEMS);
+      gen.writeStartArray();
+      for (final Map<String, AttributeValue> item : items) {
+        if (fields == null) {
+          writeItem(gen, item);
+        } else {
+          writeFields(gen, item, fields);
+        }
+      }
+      gen.writeEndArray();
+      gen.writeFieldName(NEXT_CURSOR);
+      gen.writeString(nextCursor);
+      gen.writeEndObject();
+    } catch (final IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return out.toString();
+  }
+
+  private static void writeItem(final JsonGenerator gen, final Map<String, AttributeValue> item)
+      throws IOException {
+    gen.writeStartObject();
+    gen.writeFieldName(USER_ID);
+    gen.writeString(string(item.get("userId")));
+    gen.writeFieldName(ITEM_ID);
+    gen.writeString(string(item.get("itemId")));
+    gen.writeFieldName(VALUE);
+    gen.writeString(string(item.get("value")));
+    gen.writeFieldName(CREATED_AT);
+    gen.writeNumber(number(item.get("createdAt")));
+    gen.writeFieldName(UPDATED_AT);
+    gen.writeNumber(number(item.get("updatedAt")));
+    // Items written before versioning have no version attribute and count as version 0.
+    gen.writeFieldName(VERSION);
+    gen.writeNumber(number(item.get("version")));
+    gen.writeEndObject();
+  }
+
+  private static void writeFields(
+      final JsonGenerator gen, final Map<String, AttributeValue> item, final Set<ItemField> fields)
+      throws IOException {
+    gen.writeStartObject();
+    for (final ItemField field : fields) {
+      switch (field) {
+        case USER_ID -> writeString(gen, USER_ID, item.get("userId"));
+        case ITEM_ID -> writeString(gen, ITEM_ID, item.get("itemId"));
+        case VALUE -> writeString(gen, VALUE, item.get("value"));
+        case CREATED_AT -> writeNumber(gen, CREATED_AT, item.get("createdAt"));
+        case UPDATED_AT -> writeNumber(gen, UPDATED_AT, item.get("updatedAt"));
+        case VERSION -> writeNumber(gen, VERSION, item.get("version"));
+      }
+    }
+    gen.writeEndObject();
+  }
+
+  private static void writeString(
+      final JsonGenerator gen, final SerializableString name, final AttributeValue value)
+      throws IOException {
+    gen.writeFieldName(name);
+    gen.writeString(string(value));
+  }
+
+  private static void writeNumber(
+      final JsonGenerator gen, final SerializableString name, final AttributeValue value)
+      throws IOException {
+    gen.writeFieldName(name);
+    gen.writeNumber(number(value));
+  }
+
+  private static String string(final AttributeValue value) {
+    return value == null ? null : value.s();
+  }
+
+  private static String number(final AttributeValue value) {
+    return value == null || value.n() == null ? "0" : value.n();
+  }
+}
@@ -0,0 +1,384 @@
+package app.repo;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticAttributeTags;
+import software.amazon.awssdk.enhanced.dynamodb.mapper.StaticTableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValue;
+import software.amazon.awssdk.services.dynamodb.model.ReturnValuesOnConditionCheckFailure;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+/** Schema, key, cursor and batch bookkeeping shared by the sync and async repositories. */
+final class UserItemMapping {
+  private static final String USER_ID_ATTRIBUTE = "userId";
+  private static final String ITEM_ID_ATTRIBUTE = "itemId";
+  static final TableSchema<UserItemRecord> SCHEMA = schema();
+  static final int MAX_BATCH_WRITE = 25;
+  static final int MAX_BATCH_GET = 100;
+  private static final String PRIME_USER_ID = "prime";
+  private static final String UPDATE_EXPRESSION =
+      "SET #value = :value, #updatedAt = :now, #version = if_not_exists(#version, :zero) + :one";
+  private static final Map<String, String> UPDATE_NAMES =
+      Map.of(
+          "#itemId", ITEM_ID_ATTRIBUTE,
+          "#value", "value",
+          "#updatedAt", "updatedAt",
+          "#version", "version");
+  private static final Base64.Encoder CURSOR_ENCODER = Base64.getUrlEncoder().withoutPadding();
+  private static final Base64.Decoder CURSOR_DECODER = Base64.getUrlDecoder();
+
+  private UserItemMapping() {}
+
+  /**
+   * Hand-written equivalent of {@code TableSchema.fromBean(UserItemRecord.class)}. Getters and
+   * setters are plain method references, so building it involves no reflection or
+   * LambdaMetafactory spin-up and it works unchanged in a native image.
+   */
+  static TableSchema<UserItemRecord> schema() {
+    return StaticTableSchema.builder(UserItemRecord.class)
+        .newItemSupplier(UserItemRecord::new)
+        .addAttribute(
+            String.class,
+            a ->
+                a.name(USER_ID_ATTRIBUTE)
+                    .getter(UserItemRecord::getUserId)
+                    .setter(UserItemRecord::setUserId)
+                    .tags(StaticAttributeTags.primaryPartitionKey()))
+        .addAttribute(
+            String.class,
+            a ->
+                a.name(ITEM_ID_ATTRIBUTE)
+                    .getter(UserItemRecord::getItemId)
+                    .setter(UserItemRecord::setItemId)
+                    .tags(StaticAttributeTags.primarySortKey()))
+        .addAttribute(
+            String.class,
+            a -> a.name("value").getter(UserItemRecord::getValue).setter(UserItemRecord::setValue))
+        .addAttribute(
+            Long.class,
+            a ->
+                a.name("createdAt")
+                    .getter(UserItemRecord::getCreatedAt)
+                    .setter(UserItemRecord::setCreatedAt))
+        .addAttribute(
+            Long.class,
+            a ->
+                a.name("updatedAt")
+                    .getter(UserItemRecord::getUpdatedAt)
+                    .setter(UserItemRecord::setUpdatedAt))
+        .addAttribute(
+            Long.class,
+            a ->
+                a.name("version")
+                    .getter(UserItemRecord::getVersion)
+                    .setter(UserItemRecord::setVersion))
+        .build();
+  }
+
+  static Key key(final String userId, final String itemId) {
+    return Key.builder().partitionValue(userId).sortValue(itemId).build();
+  }
+
+  /**
+   * One query page of the user's items, resuming after {@code cursor}, for reads that skip the item
+   * mapper. Only the attributes behind {@code fields} are returned, or every attribute when it is
+   * null.
+   */
+  static QueryRequest queryRequest(
+      final String tableName,
+      final String userId,
+      final int limit,
+      final String cursor,
+      final Set<ItemField> fields) {
+    final Map<String, String> names = new HashMap<>();
+    names.put("#userId", USER_ID_ATTRIBUTE);
+    final QueryRequest.Builder request =
+        QueryRequest.builder()
+            .tableName(tableName)
+            .keyConditionExpression("#userId = :userId")
+            .expressionAttributeValues(Map.of(":userId", AttributeValue.fromS(userId)))
+            .limit(limit);
+    if (fields != null) {
+      request.projectionExpression(projection(fields, names));
+    }
+    if (cursor != null) {
+      request.exclusiveStartKey(decodeCursor(userId, cursor));
+    }
+    return request.expressionAttributeNames(names).build();
+  }
+
+  /**
+   * A GetItem for the attributes behind {@code fields}, which the enhanced client cannot project.
+   * The item id is always read too, so an item whose requested attributes are all unset still
+   * comes back as found.
+   */
+  static GetItemRequest getRequest(
+      final String tableName,
+      final String userId,
+      final String itemId,
+      final Set<ItemField> fields) {
+    final Set<ItemField> projected = EnumSet.of(ItemField.ITEM_ID);
+    projected.addAll(fields);
+    final Map<String, String> names = new HashMap<>();
+    return GetItemRequest.builder()
+        .tableName(tableName)
+        .key(
+            Map.of(
+                USER_ID_ATTRIBUTE,
+                AttributeValue.fromS(userId),
+                ITEM_ID_ATTRIBUTE,
+                AttributeValue.fromS(itemId)))
+        .projectionExpression(projection(projected, names))
+        .expressionAttributeNames(names)
+        .build();
+  }
+
+  /**
+   * Builds a ProjectionExpression over placeholders, since {@code value} is a reserved word, and
+   * adds the placeholders to {@code names}.
+   */
+  static String projection(final Set<ItemField> fields, final Map<String, String> names) {
+    final StringBuilder out = new StringBuilder();
+    for (final ItemField field : fields) {
+      final String attribute = attribute(field);
+      names.put("#" + attribute, attribute);
+      if (out.length() > 0) {
+        out.append(", ");
+      }
+      out.append('#').append(attribute);
+    }
+    return out.toString();
+  }
+
+  static String attribute(final ItemField field) {
+    return switch (field) {
+      case USER_ID -> USER_ID_ATTRIBUTE;
+      case ITEM_ID -> ITEM_ID_ATTRIBUTE;
+      case VALUE -> "value";
+      case CREATED_AT -> "createdAt";
+      case UPDATED_AT -> "updatedAt";
+      case VERSION -> "version";
+    };
+  }
+
+  static UserItemRecord toRecord(
+      final String userId, final String itemId, final String value, final long now) {
+    final UserItemRecord r = new UserItemRecord();
+    r.setUserId(userId);
+    r.setItemId(itemId);
+    r.setValue(value);
+    r.setCreatedAt(now);
+    r.setUpdatedAt(now);
+    r.setVersion(1L);
+    return r;
+  }
+
+  /** Attributes a projection left out read as null, or as 0 for the numeric ones. */
+  static UserItem toModel(final UserItemRecord r) {
+    return new UserItem(
+        r.getUserId(),
+        r.getItemId(),
+        r.getValue(),
+        orZero(r.getCreatedAt()),
+        orZero(r.getUpdatedAt()),
+        orZero(r.getVersion()));
+  }
+
+  private static long orZero(final Long value) {
+    return value == null ? 0L : value;
+  }
+
+  /**
+   * Builds an UpdateItem that changes only {@code value} and {@code updatedAt} and bumps {@code
+   * version}, leaving {@code createdAt} alone. The item must already exist, and when {@code
+   * expectedVersion} is given it must still carry that version; items written before versioning
+   * count as version 0.
+   */
+  static UpdateItemRequest updateRequest(
+      final String tableName,
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    final Map<String, AttributeValue> values = new HashMap<>();
+    values.put(":value", AttributeValue.fromS(value));
+    values.put(":now", AttributeValue.fromN(Long.toString(now)));
+    values.put(":zero", AttributeValue.fromN("0"));
+    values.put(":one", AttributeValue.fromN("1"));
+    final String condition;
+    if (expectedVersion == null) {
+      condition = "attribute_exists(#itemId)";
+    } else if (expectedVersion == 0L) {
+      condition = "attribute_exists(#itemId) AND attribute_not_exists(#version)";
+    } else {
+      condition = "#version = :expected";
+      values.put(":expected", AttributeValue.fromN(Long.toString(expectedVersion)));
+    }
+    return UpdateItemRequest.builder()
+        .tableName(tableName)
+        .key(
+            Map.of(
+                USER_ID_ATTRIBUTE,
+                AttributeValue.fromS(userId),
+                ITEM_ID_ATTRIBUTE,
+                AttributeValue.fromS(itemId)))
+        .updateExpression(UPDATE_EXPRESSION)
+        .conditionExpression(condition)
+        .expressionAttributeNames(UPDATE_NAMES)
+        .expressionAttributeValues(values)
+        .returnValues(ReturnValue.ALL_NEW)
+        .returnValuesOnConditionCheckFailure(ReturnValuesOnConditionCheckFailure.ALL_OLD)
+        .build();
+  }
+
+  static Optional<UserItem> found(final GetItemResponse response) {
+    return response.hasItem() && !response.item().isEmpty()
+        ? Optional.of(toModel(SCHEMA.mapToItem(response.item())))
+        : Optional.empty();
+  }
+
+  static Optional<UserItem> updated(final UpdateItemResponse response) {
+    return Optional.of(toModel(SCHEMA.mapToItem(response.attributes())));
+  }
+
+  /**
+   * Tells a missing item, reported as empty, from a version mismatch, thrown as {@link
+   * VersionConflictException}, using the old item DynamoDB returns with the failure.
+   */
+  static Optional<UserItem> conditionFailed(
+      final String itemId, final ConditionalCheckFailedException e) {
+    if (e.hasItem() && !e.item().isEmpty()) {
+      throw new VersionConflictException(itemId);
+    }
+    return Optional.empty();
+  }
+
+  /** Runs one record through the bean schema in both directions to warm the mapper. */
+  static void primeSchema() {
+    final UserItemRecord r = toRecord(PRIME_USER_ID, PRIME_USER_ID, "", 0L);
+    toModel(SCHEMA.mapToItem(SCHEMA.itemToMap(r, true)));
+  }
+
+  static <T> List<List<T>> chunks(final List<T> items, final int size) {
+    final List<List<T>> out = new ArrayList<>((items.size() + size - 1) / size);
+    for (int i = 0; i < items.size(); i += size) {
+      out.add(items.subList(i, Math.min(items.size(), i + size)));
+    }
+    return out;
+  }
+
+  /**
+   * The creates and deletes in {@code operations}, which BatchWriteItem can carry. Updates are left
+   * out: a batch put would replace the whole item and reset its version and {@code createdAt}, so
+   * they are sent as single UpdateItems instead.
+   */
+  static List<BatchOperation> batchable(final List<BatchOperation> operations) {
+    final List<BatchOperation> out = new ArrayList<>(operations.size());
+    for (final BatchOperation op : operations) {
+      if (op.type() != BatchOperation.Type.UPDATE) {
+        out.add(op);
+      }
+    }
+    return out;
+  }
+
+  static List<UserItemRecord> puts(
+      final String userId, final List<BatchOperation> chunk, final long now) {
+    final List<UserItemRecord> out = new ArrayList<>();
+    for (final BatchOperation op : chunk) {
+      if (op.type() == BatchOperation.Type.CREATE) {
+        out.add(toRecord(userId, op.itemId(), op.value(), now));
+      }
+    }
+    return out;
+  }
+
+  static List<Key> deletes(final String userId, final List<BatchOperation> chunk) {
+    final List<Key> out = new ArrayList<>();
+    for (final BatchOperation op : chunk) {
+      if (op.type() == BatchOperation.Type.DELETE) {
+        out.add(key(userId, op.itemId()));
+      }
+    }
+    return out;
+  }
+
+  static List<Key> keys(final String userId, final List<String> itemIds) {
+    final List<Key> out = new ArrayList<>(itemIds.size());
+    for (final String itemId : itemIds) {
+      out.add(key(userId, itemId));
+    }
+    return out;
+  }
+
+  static Set<String> itemIds(final List<UserItemRecord> puts, final List<Key> deletes) {
+    final Set<String> out = new HashSet<>();
+    puts.forEach(r -> out.add(r.getItemId()));
+    deletes.forEach(k -> out.add(k.sortKeyValue().orElseThrow().s()));
+    return out;
+  }
+
+  static List<BatchResult> batchResults(
+      final List<BatchOperation> operations, final Set<String> failed) {
+    final List<BatchResult> out = new ArrayList<>(operations.size());
+    for (final BatchOperation op : operations) {
+      out.add(BatchResult.of(op, !failed.contains(op.itemId())));
+    }
+    return out;
+  }
+
+  static List<BatchGetResult> batchGetResults(
+      final List<String> itemIds, final Map<String, UserItem> found) {
+    final List<BatchGetResult> out = new ArrayList<>(itemIds.size());
+    for (final String itemId : itemIds) {
+      out.add(BatchGetResult.of(itemId, found.get(itemId)));
+    }
+    return out;
+  }
+
+  static String encodeCursor(final Map<String, AttributeValue> lastEvaluatedKey) {
+    if (lastEvaluatedKey == null || lastEvaluatedKey.isEmpty()) {
+      return null;
+    }
+    final String itemId = lastEvaluatedKey.get(ITEM_ID_ATTRIBUTE).s();
+    return CURSOR_ENCODER.encodeToString(itemId.getBytes(StandardCharsets.UTF_8));
+  }
+
+  /**
+   * The cursor only carries the sort key; the partition key always comes from the caller, so a
+   * cursor can never reach into another user's items.
+   */
+  static Map<String, AttributeValue> decodeCursor(final String userId, final String cursor) {
+    final String itemId = new String(CURSOR_DECODER.decode(cursor), StandardCharsets.UTF_8);
+    if (itemId.isEmpty()) {
+      throw new IllegalArgumentException("Invalid cursor");
+    }
+    return Map.of(
+        USER_ID_ATTRIBUTE,
+        AttributeValue.fromS(userId),
+        ITEM_ID_ATTRIBUTE,
+        AttributeValue.fromS(itemId));
+  }
+}
@@ -4,6 +4,11 @@ import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbBean;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbPartitionKey;
 import software.amazon.awssdk.enhanced.dynamodb.mapper.annotations.DynamoDbSortKey;
 
+/**
+ * Stored shape of an item. The repositories map it through the static schema in {@link
+ * UserItemMapping}; the bean annotations remain so that {@code TableSchema.fromBean} can serve as
+ * the reference the static schema is tested and benchmarked against.
+ */
 @DynamoDbBean
 public final class UserItemRecord {
   private String userId;
@@ -11,6 +16,7 @@ public final class UserItemRecord {
   private String value;
   private Long createdAt;
   private Long updatedAt;
+  private Long version;
 
   public UserItemRecord() {
     // Default constructor required by DynamoDB Enhanced Client
@@ -57,4 +63,12 @@ public final class UserItemRecord {
   public final void setUpdatedAt(final Long v) {
     updatedAt = v;
   }
+
+  public final Long getVersion() {
+    return version;
+  }
+
+  public final void setVersion(final Long v) {
+    version = v;
+  }
 }
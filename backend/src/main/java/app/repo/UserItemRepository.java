@@ -1,68 +1,253 @@
 package app.repo;
 
+import static app.repo.UserItemMapping.MAX_BATCH_GET;
+import static app.repo.UserItemMapping.MAX_BATCH_WRITE;
+import static app.repo.UserItemMapping.SCHEMA;
+import static app.repo.UserItemMapping.key;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
 import app.model.UserItem;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import org.crac.Context;
+import org.crac.Resource;
+import software.amazon.awssdk.core.exception.SdkException;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
-import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
-import software.amazon.awssdk.enhanced.dynamodb.model.QueryConditional;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.enhanced.dynamodb.model.ReadBatch;
+import software.amazon.awssdk.enhanced.dynamodb.model.WriteBatch;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
 
-public final class UserItemRepository {
+public final class UserItemRepository implements Resource {
   private final DynamoDbEnhancedClient enhanced;
+  private final DynamoDbClient ddb;
+  private final String tableName;
   private final DynamoDbTable<UserItemRecord> table;
+  private final Executor executor;
 
-  public UserItemRepository(final DynamoDbEnhancedClient enhanced, final String tableName) {
+  public UserItemRepository(
+      final DynamoDbEnhancedClient enhanced,
+      final DynamoDbClient ddb,
+      final String tableName,
+      final Executor executor) {
     this.enhanced = enhanced;
-    this.table = enhanced.table(tableName, TableSchema.fromBean(UserItemRecord.class));
+    this.ddb = ddb;
+    this.tableName = tableName;
+    this.table = enhanced.table(tableName, SCHEMA);
+    this.executor = executor;
   }
 
   public final UserItem put(
       final String userId, final String itemId, final String value, final long now) {
-    final UserItemRecord r = new UserItemRecord();
-    r.setUserId(userId);
-    r.setItemId(itemId);
-    r.setValue(value);
-    r.setCreatedAt(now);
-    r.setUpdatedAt(now);
+    final UserItemRecord r = UserItemMapping.toRecord(userId, itemId, value, now);
     table.putItem(r);
-    return toModel(r);
+    return UserItemMapping.toModel(r);
+  }
+
+  /**
+   * Changes the value of an existing item in a single UpdateItem, optionally only if it still
+   * carries {@code expectedVersion}. Returns empty when the item does not exist.
+   *
+   * @throws VersionConflictException if the item exists at a different version
+   */
+  public final Optional<UserItem> update(
+      final String userId,
+      final String itemId,
+      final String value,
+      final Long expectedVersion,
+      final long now) {
+    try {
+      return UserItemMapping.updated(
+          ddb.updateItem(
+              UserItemMapping.updateRequest(
+                  tableName, userId, itemId, value, expectedVersion, now)));
+    } catch (final ConditionalCheckFailedException e) {
+      return UserItemMapping.conditionFailed(itemId, e);
+    }
   }
 
   public final Optional<UserItem> get(final String userId, final String itemId) {
-    final Key key = Key.builder().partitionValue(userId).sortValue(itemId).build();
-    final UserItemRecord r = table.getItem(key);
-    return Optional.ofNullable(r).map(this::toModel);
+    final UserItemRecord r = table.getItem(key(userId, itemId));
+    return Optional.ofNullable(r).map(UserItemMapping::toModel);
   }
 
-  public final List<UserItem> list(final String userId) {
-    final List<UserItem> out = new ArrayList<>();
-    for (final UserItemRecord r :
-        table
-            .query(
-                r ->
-                    r.queryConditional(
-                        QueryConditional.keyEqualTo(Key.builder().partitionValue(userId).build())))
-            .items()) {
-      out.add(toModel(r));
+  /** Reads only the attributes behind {@code fields}, or the whole item when it is null. */
+  public final Optional<UserItem> get(
+      final String userId, final String itemId, final Set<ItemField> fields) {
+    if (fields == null) {
+      return get(userId, itemId);
     }
-    return out;
+    return UserItemMapping.found(
+        ddb.getItem(UserItemMapping.getRequest(tableName, userId, itemId, fields)));
+  }
+
+  /**
+   * Reads a single DynamoDB query page of at most {@code limit} items, resuming after {@code
+   * cursor} when given, serialized without building any item objects. Memory stays bounded by the
+   * page size whatever the partition holds. A non-null {@code fields} becomes the query's
+   * ProjectionExpression, so attributes nobody asked for are neither sent by DynamoDB nor parsed
+   * here.
+   */
+  public final String listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    final QueryResponse page =
+        ddb.query(UserItemMapping.queryRequest(tableName, userId, limit, cursor, fields));
+    return UserItemJson.page(
+        page.items(), UserItemMapping.encodeCursor(page.lastEvaluatedKey()), fields);
   }
 
   public final void delete(final String userId, final String itemId) {
-    final Key key = Key.builder().partitionValue(userId).sortValue(itemId).build();
-    table.deleteItem(key);
+    table.deleteItem(key(userId, itemId));
+  }
+
+  /**
+   * Applies puts and deletes through BatchWriteItem in chunks of {@value
+   * UserItemMapping#MAX_BATCH_WRITE}, sending the chunks concurrently and re-driving unprocessed
+   * entries with jittered backoff. Every operation must carry an item id and ids must be unique.
+   * Results are in {@code operations} order; entries still unprocessed after the last attempt are
+   * reported as failed.
+   */
+  public final List<BatchResult> batchWrite(
+      final String userId, final List<BatchOperation> operations, final long now) {
+    final List<CompletableFuture<Set<String>>> writes = new ArrayList<>();
+    for (final BatchOperation op : operations) {
+      if (op.type() == BatchOperation.Type.UPDATE) {
+        writes.add(CompletableFuture.supplyAsync(() -> updateOne(userId, op, now), executor));
+      }
+    }
+    final List<BatchOperation> batchable = UserItemMapping.batchable(operations);
+    for (final List<BatchOperation> chunk : UserItemMapping.chunks(batchable, MAX_BATCH_WRITE)) {
+      writes.add(CompletableFuture.supplyAsync(() -> writeChunk(userId, chunk, now), executor));
+    }
+    final Set<String> failed = new HashSet<>();
+    for (final CompletableFuture<Set<String>> write : writes) {
+      failed.addAll(write.join());
+    }
+    return UserItemMapping.batchResults(operations, failed);
+  }
+
+  /**
+   * Fetches items through BatchGetItem in chunks of {@value UserItemMapping#MAX_BATCH_GET} keys,
+   * sending the chunks concurrently and re-driving unprocessed keys with jittered backoff. Results
+   * follow {@code itemIds} order, duplicates included, with missing ids flagged as not found.
+   */
+  public final List<BatchGetResult> getMany(final String userId, final List<String> itemIds) {
+    final List<String> unique = new ArrayList<>(new LinkedHashSet<>(itemIds));
+    final List<CompletableFuture<Map<String, UserItem>>> chunks = new ArrayList<>();
+    for (final List<String> chunk : UserItemMapping.chunks(unique, MAX_BATCH_GET)) {
+      chunks.add(CompletableFuture.supplyAsync(() -> readChunk(userId, chunk), executor));
+    }
+    final Map<String, UserItem> found = new HashMap<>();
+    for (final CompletableFuture<Map<String, UserItem>> chunk : chunks) {
+      found.putAll(chunk.join());
+    }
+    return UserItemMapping.batchGetResults(itemIds, found);
+  }
+
+  /**
+   * Runs one item through the bean schema in both directions and opens a connection to the table,
+   * so the first real request does not pay for either.
+   */
+  public final void prime() {
+    UserItemMapping.primeSchema();
+    table.describeTable();
+  }
+
+  @Override
+  public final void beforeCheckpoint(final Context<? extends Resource> context) {}
+
+  /** Reopens the table connection on the freshly rebuilt HTTP client before traffic arrives. */
+  @Override
+  public final void afterRestore(final Context<? extends Resource> context) {
+    try {
+      prime();
+    } catch (final RuntimeException e) {
+      // A failed reconnect must not fail the restore; the next request retries the connection.
+    }
   }
 
-  private final UserItem toModel(final UserItemRecord r) {
-    final UserItem m = new UserItem();
-    m.userId = r.getUserId();
-    m.itemId = r.getItemId();
-    m.value = r.getValue();
-    m.createdAt = r.getCreatedAt();
-    m.updatedAt = r.getUpdatedAt();
-    return m;
+  /** Returns the item id if the update failed, including when the item does not exist. */
+  private final Set<String> updateOne(
+      final String userId, final BatchOperation op, final long now) {
+    try {
+      return update(userId, op.itemId(), op.value(), null, now).isPresent()
+          ? Set.of()
+          : Set.of(op.itemId());
+    } catch (final SdkException e) {
+      return Set.of(op.itemId());
+    }
+  }
+
+  /** Returns the ids from {@code chunk} that could not be written. */
+  private final Set<String> writeChunk(
+      final String userId, final List<BatchOperation> chunk, final long now) {
+    List<UserItemRecord> puts = UserItemMapping.puts(userId, chunk, now);
+    List<Key> deletes = UserItemMapping.deletes(userId, chunk);
+    try {
+      for (int attempt = 1; ; attempt++) {
+        final WriteBatch.Builder<UserItemRecord> batch =
+            WriteBatch.builder(UserItemRecord.class).mappedTableResource(table);
+        puts.forEach(batch::addPutItem);
+        deletes.forEach(batch::addDeleteItem);
+        final BatchWriteResult result =
+            enhanced.batchWriteItem(
+                BatchWriteItemEnhancedRequest.builder().writeBatches(batch.build()).build());
+        puts = result.unprocessedPutItemsForTable(table);
+        deletes = result.unprocessedDeleteItemsForTable(table);
+        if ((puts.isEmpty() && deletes.isEmpty())
+            || attempt == Backoff.MAX_ATTEMPTS
+            || !Backoff.pause(attempt)) {
+          break;
+        }
+      }
+    } catch (final SdkException e) {
+      return chunk.stream().map(BatchOperation::itemId).collect(Collectors.toSet());
+    }
+    return UserItemMapping.itemIds(puts, deletes);
+  }
+
+  private final Map<String, UserItem> readChunk(final String userId, final List<String> chunk) {
+    final Map<String, UserItem> found = new HashMap<>();
+    List<Key> keys = UserItemMapping.keys(userId, chunk);
+    for (int attempt = 1; ; attempt++) {
+      final ReadBatch.Builder<UserItemRecord> batch =
+          ReadBatch.builder(UserItemRecord.class).mappedTableResource(table);
+      keys.forEach(batch::addGetItem);
+      final BatchGetResultPage page =
+          enhanced
+              .batchGetItem(
+                  BatchGetItemEnhancedRequest.builder().readBatches(batch.build()).build())
+              .iterator()
+              .next();
+      for (final UserItemRecord r : page.resultsForTable(table)) {
+        found.put(r.getItemId(), UserItemMapping.toModel(r));
+      }
+      keys = page.unprocessedKeysForTable(table);
+      if (keys.isEmpty()) {
+        return found;
+      }
+      if (attempt == Backoff.MAX_ATTEMPTS || !Backoff.pause(attempt)) {
+        throw new IllegalStateException(keys.size() + " keys left unprocessed by BatchGetItem");
+      }
+    }
   }
 }
@@ -0,0 +1,8 @@
+package app.repo;
+
+/** The item exists but no longer carries the version the caller expected to overwrite. */
+public final class VersionConflictException extends RuntimeException {
+  public VersionConflictException(final String itemId) {
+    super("Item " + itemId + " was modified concurrently");
+  }
+}
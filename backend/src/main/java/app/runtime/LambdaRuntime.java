@@ -0,0 +1,148 @@
+package app.runtime;
+
+import app.handlers.RouterHandler;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+
+/**
+ * Custom Lambda runtime for the native-image build. Lambda runs the {@code bootstrap} executable,
+ * which builds the handler once and then loops over the Runtime API: fetch the next invocation,
+ * run it, post the result back. The JVM deployment does not use this class; there the managed
+ * Java runtime drives {@link RouterHandler} directly.
+ */
+public final class LambdaRuntime {
+  private static final String API_VERSION = "/2018-06-01/runtime";
+  private static final String REQUEST_ID_HEADER = "Lambda-Runtime-Aws-Request-Id";
+  private static final String DEADLINE_HEADER = "Lambda-Runtime-Deadline-Ms";
+  private static final String FUNCTION_ARN_HEADER = "Lambda-Runtime-Invoked-Function-Arn";
+  private static final String TRACE_ID_HEADER = "Lambda-Runtime-Trace-Id";
+  private static final String ERROR_TYPE_HEADER = "Lambda-Runtime-Function-Error-Type";
+  private static final String TRACE_ID_PROPERTY = "com.amazonaws.xray.traceHeader";
+  private static final long RETRY_PAUSE_MILLIS = 100;
+
+  private final HttpClient http;
+  private final String baseUri;
+  private final ObjectMapper mapper;
+  private final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler;
+
+  public LambdaRuntime(
+      final String runtimeApi,
+      final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+    this.http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    this.baseUri = "http://" + runtimeApi + API_VERSION;
+    this.mapper = eventMapper();
+    this.handler = handler;
+  }
+
+  public static void main(final String[] args) throws IOException, InterruptedException {
+    final String runtimeApi = System.getenv("AWS_LAMBDA_RUNTIME_API");
+    final RouterHandler handler;
+    try {
+      handler = new RouterHandler();
+    } catch (final RuntimeException | ExceptionInInitializerError e) {
+      new LambdaRuntime(runtimeApi, null).postError("/init/error", e);
+      System.exit(1);
+      return;
+    }
+    final LambdaRuntime runtime = new LambdaRuntime(runtimeApi, handler);
+    while (true) {
+      runtime.next();
+    }
+  }
+
+  /**
+   * API Gateway events use the Java field names of the event classes, unlike the snake_case API
+   * bodies, so they get a mapper of their own.
+   */
+  static ObjectMapper eventMapper() {
+    final ObjectMapper mapper = new ObjectMapper();
+    mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    mapper.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+    return mapper;
+  }
+
+  /**
+   * Waits for one invocation, handles it and reports the outcome to the Runtime API. Failures are
+   * reported against the invocation where there is one and logged otherwise, so the loop in {@link
+   * #main} keeps polling; only an interrupt ends it.
+   */
+  public final void next() throws InterruptedException {
+    final HttpResponse<byte[]> invocation;
+    try {
+      invocation =
+          http.send(
+              HttpRequest.newBuilder(URI.create(baseUri + "/invocation/next")).GET().build(),
+              HttpResponse.BodyHandlers.ofByteArray());
+    } catch (final IOException e) {
+      System.err.println("Could not fetch the next invocation: " + e);
+      Thread.sleep(RETRY_PAUSE_MILLIS);
+      return;
+    }
+    final String requestId = invocation.headers().firstValue(REQUEST_ID_HEADER).orElse(null);
+    if (requestId == null) {
+      // Nothing to report the failure against; the Runtime API times the invocation out.
+      System.err.println("Invocation without " + REQUEST_ID_HEADER + ": " + invocation);
+      return;
+    }
+    try {
+      handle(requestId, invocation);
+    } catch (final IOException | RuntimeException e) {
+      try {
+        postError("/invocation/" + requestId + "/error", e);
+      } catch (final IOException | RuntimeException postFailure) {
+        System.err.println("Could not report failure of " + requestId + ": " + postFailure);
+      }
+    }
+  }
+
+  private final void handle(final String requestId, final HttpResponse<byte[]> invocation)
+      throws IOException, InterruptedException {
+    invocation
+        .headers()
+        .firstValue(TRACE_ID_HEADER)
+        .ifPresentOrElse(
+            id -> System.setProperty(TRACE_ID_PROPERTY, id),
+            () -> System.clearProperty(TRACE_ID_PROPERTY));
+    final RuntimeContext context =
+        new RuntimeContext(
+            requestId,
+            invocation.headers().firstValue(DEADLINE_HEADER).map(Long::parseLong).orElse(0L),
+            invocation.headers().firstValue(FUNCTION_ARN_HEADER).orElse(null));
+    final APIGatewayProxyRequestEvent event =
+        mapper.readValue(invocation.body(), APIGatewayProxyRequestEvent.class);
+    final byte[] result = mapper.writeValueAsBytes(handler.handleRequest(event, context));
+    send(
+        HttpRequest.newBuilder(URI.create(baseUri + "/invocation/" + requestId + "/response"))
+            .POST(HttpRequest.BodyPublishers.ofByteArray(result))
+            .build());
+  }
+
+  private final void postError(final String path, final Throwable e)
+      throws IOException, InterruptedException {
+    final String errorType = e.getClass().getName();
+    final Map<String, String> error =
+        Map.of("errorMessage", String.valueOf(e.getMessage()), "errorType", errorType);
+    send(
+        HttpRequest.newBuilder(URI.create(baseUri + path))
+            .header(ERROR_TYPE_HEADER, errorType)
+            .POST(HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(error)))
+            .build());
+  }
+
+  private final void send(final HttpRequest request) throws IOException, InterruptedException {
+    final HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+    if (response.statusCode() / 100 != 2) {
+      throw new IOException("Runtime API answered " + response.statusCode() + " to " + request);
+    }
+  }
+}
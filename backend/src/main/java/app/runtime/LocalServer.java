@@ -0,0 +1,105 @@
+package app.runtime;
+
+import app.handlers.RouterHandler;
+import app.web.ApiResult;
+import app.web.HttpExchanges;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves the API over plain HTTP outside Lambda, for integration tests and on-prem deployments. The
+ * JDK {@link HttpServer} accepts and parses connections and runs each request on its own virtual
+ * thread through the same {@link RouterHandler} and component graph the Lambda handlers use.
+ * Connections are kept alive between requests, and a shutdown signal stops accepting and lets
+ * in-flight requests finish before the process exits.
+ *
+ * <p>Configured by environment: {@code PORT} (default 8080), {@code SUBJECT_HEADER}, {@code
+ * SHUTDOWN_GRACE_SECONDS} (default 10), plus the variables the Lambda function reads. {@code
+ * SUBJECT_HEADER} names the header an authenticating proxy sets to the caller's id; leave it unset
+ * unless such a proxy sits in front, since any client could send it. Point {@code
+ * DYNAMODB_ENDPOINT} at DynamoDB Local to run without AWS.
+ */
+public final class LocalServer {
+  private static final int BACKLOG = 1024;
+
+  private final HttpServer server;
+  private final ExecutorService executor;
+  private final RouterHandler router;
+  private final String subjectHeader;
+
+  public LocalServer(
+      final RouterHandler router, final InetSocketAddress address, final String subjectHeader)
+      throws IOException {
+    this.router = router;
+    this.subjectHeader = subjectHeader;
+    this.executor = Executors.newVirtualThreadPerTaskExecutor();
+    this.server = HttpServer.create(address, BACKLOG);
+    server.createContext("/", this::handle);
+    server.setExecutor(executor);
+  }
+
+  public static void main(final String[] args) throws IOException {
+    // Read once when the JDK server classes load. The default keeps only 200 idle connections
+    // open, so busier clients would reconnect; Nagle would hold back small responses.
+    System.getProperties().putIfAbsent("sun.net.httpserver.maxIdleConnections", "10000");
+    System.getProperties().putIfAbsent("sun.net.httpserver.nodelay", "true");
+    final int port = Integer.parseInt(System.getenv().getOrDefault("PORT", "8080"));
+    final Duration grace =
+        Duration.ofSeconds(
+            Long.parseLong(System.getenv().getOrDefault("SHUTDOWN_GRACE_SECONDS", "10")));
+    final LocalServer server =
+        new LocalServer(
+            new RouterHandler(), new InetSocketAddress(port), System.getenv("SUBJECT_HEADER"));
+    Runtime.getRuntime().addShutdownHook(new Thread(() -> server.stop(grace), "shutdown"));
+    server.start();
+    System.out.println("Serving on http://localhost:" + server.port());
+  }
+
+  public final void start() {
+    server.start();
+  }
+
+  public final int port() {
+    return server.getAddress().getPort();
+  }
+
+  /**
+   * Closes the listening socket, waits up to {@code grace} in all for in-flight requests to finish,
+   * then closes the remaining connections and the request executor. The server's own wait takes
+   * whole seconds, so the executor gets whatever is left of the deadline after it.
+   */
+  public final void stop(final Duration grace) {
+    final long deadline = System.nanoTime() + grace.toNanos();
+    server.stop((int) Math.max(0, grace.toSeconds()));
+    executor.shutdown();
+    try {
+      final long remaining = Math.max(0, deadline - System.nanoTime());
+      if (!executor.awaitTermination(remaining, TimeUnit.NANOSECONDS)) {
+        executor.shutdownNow();
+      }
+    } catch (final InterruptedException e) {
+      executor.shutdownNow();
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void handle(final HttpExchange exchange) throws IOException {
+    try {
+      ApiResult result;
+      try {
+        result = router.handle(HttpExchanges.request(exchange, subjectHeader));
+      } catch (final IllegalArgumentException e) {
+        result = router.malformedRequest("Bad request: malformed query string");
+      }
+      HttpExchanges.write(result, exchange);
+    } finally {
+      exchange.close();
+    }
+  }
+}
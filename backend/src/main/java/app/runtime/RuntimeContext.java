@@ -0,0 +1,89 @@
+package app.runtime;
+
+import com.amazonaws.services.lambda.runtime.ClientContext;
+import com.amazonaws.services.lambda.runtime.CognitoIdentity;
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.LambdaLogger;
+import java.nio.charset.StandardCharsets;
+
+/** {@link Context} built from the Runtime API's invocation headers and the function environment. */
+final class RuntimeContext implements Context {
+  private static final LambdaLogger LOGGER =
+      new LambdaLogger() {
+        @Override
+        public void log(final String message) {
+          System.out.println(message);
+        }
+
+        @Override
+        public void log(final byte[] message) {
+          log(new String(message, StandardCharsets.UTF_8));
+        }
+      };
+
+  private final String requestId;
+  private final long deadlineMillis;
+  private final String functionArn;
+
+  RuntimeContext(final String requestId, final long deadlineMillis, final String functionArn) {
+    this.requestId = requestId;
+    this.deadlineMillis = deadlineMillis;
+    this.functionArn = functionArn;
+  }
+
+  @Override
+  public final String getAwsRequestId() {
+    return requestId;
+  }
+
+  @Override
+  public final String getLogGroupName() {
+    return System.getenv("AWS_LAMBDA_LOG_GROUP_NAME");
+  }
+
+  @Override
+  public final String getLogStreamName() {
+    return System.getenv("AWS_LAMBDA_LOG_STREAM_NAME");
+  }
+
+  @Override
+  public final String getFunctionName() {
+    return System.getenv("AWS_LAMBDA_FUNCTION_NAME");
+  }
+
+  @Override
+  public final String getFunctionVersion() {
+    return System.getenv("AWS_LAMBDA_FUNCTION_VERSION");
+  }
+
+  @Override
+  public final String getInvokedFunctionArn() {
+    return functionArn;
+  }
+
+  @Override
+  public final CognitoIdentity getIdentity() {
+    return null;
+  }
+
+  @Override
+  public final ClientContext getClientContext() {
+    return null;
+  }
+
+  @Override
+  public final int getRemainingTimeInMillis() {
+    return (int) Math.max(0, deadlineMillis - System.currentTimeMillis());
+  }
+
+  @Override
+  public final int getMemoryLimitInMB() {
+    final String memory = System.getenv("AWS_LAMBDA_FUNCTION_MEMORY_SIZE");
+    return memory == null ? 0 : Integer.parseInt(memory);
+  }
+
+  @Override
+  public final LambdaLogger getLogger() {
+    return LOGGER;
+  }
+}
@@ -1,40 +1,97 @@
 package app.service;
 
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
 import app.model.UserItem;
-import app.repo.UserItemRepository;
+import app.repo.ItemRepository;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import javax.inject.Inject;
 
 public final class ItemService {
-  private final UserItemRepository repo;
+  private final ItemRepository repo;
 
   @Inject
-  public ItemService(final UserItemRepository repo) {
+  public ItemService(final ItemRepository repo) {
     this.repo = repo;
   }
 
   public final UserItem create(final String userId, final String value) {
     final String id = UUID.randomUUID().toString();
     final long now = System.currentTimeMillis();
-    return repo.put(userId, id, value, now);
+    return await(repo.put(userId, id, value, now));
   }
 
-  public final UserItem update(final String userId, final String itemId, final String value) {
+  /**
+   * Changes the value of an existing item, only while it is still at {@code expectedVersion} when
+   * one is given. Returns empty if the item does not exist.
+   */
+  public final Optional<UserItem> update(
+      final String userId, final String itemId, final String value, final Long expectedVersion) {
     final long now = System.currentTimeMillis();
-    return repo.put(userId, itemId, value, now);
+    return await(repo.update(userId, itemId, value, expectedVersion, now));
   }
 
   public final Optional<UserItem> get(final String userId, final String id) {
-    return repo.get(userId, id);
+    return await(repo.get(userId, id));
   }
 
-  public final List<UserItem> list(final String userId) {
-    return repo.list(userId);
+  /** Only {@code fields} of the result are meaningful; null reads the whole item. */
+  public final Optional<UserItem> get(
+      final String userId, final String id, final Set<ItemField> fields) {
+    return await(repo.get(userId, id, fields));
+  }
+
+  public final List<BatchGetResult> getMany(final String userId, final List<String> ids) {
+    return await(repo.getMany(userId, ids));
+  }
+
+  /**
+   * One page of the user's items, already serialized as the response body, with only {@code fields}
+   * of each item when that is not null.
+   */
+  public final String listPageJson(
+      final String userId, final int limit, final String cursor, final Set<ItemField> fields) {
+    return await(repo.listPageJson(userId, limit, cursor, fields));
+  }
+
+  /** Assigns ids to creates, then writes every operation with one timestamp. */
+  public final List<BatchResult> batch(final String userId, final List<BatchOperation> operations) {
+    final List<BatchOperation> withIds = new ArrayList<>(operations.size());
+    for (final BatchOperation op : operations) {
+      withIds.add(
+          op.type() == BatchOperation.Type.CREATE
+              ? new BatchOperation(op.type(), UUID.randomUUID().toString(), op.value())
+              : op);
+    }
+    return await(repo.batchWrite(userId, withIds, System.currentTimeMillis()));
   }
 
   public final void delete(final String userId, final String id) {
-    repo.delete(userId, id);
+    await(repo.delete(userId, id));
+  }
+
+  /** Opens the repository's connection with a read-only call, ahead of the first request. */
+  public final void prime() {
+    repo.prime();
+  }
+
+  /** Waits for {@code future}, rethrowing its original failure so callers see the same types. */
+  private static <T> T await(final CompletableFuture<T> future) {
+    try {
+      return future.join();
+    } catch (final CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw e;
+    }
   }
 }
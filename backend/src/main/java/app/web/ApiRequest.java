@@ -0,0 +1,52 @@
+package app.web;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+
+/**
+ * One HTTP request as the router sees it, whatever carried it: REST API (v1), HTTP API (v2) or a
+ * Function URL. {@code body} is already decoded text and {@code subject} is the authorizer's
+ * {@code sub} claim, or null for an anonymous caller. Header and query maps may be null.
+ */
+public record ApiRequest(
+    String method,
+    String path,
+    Map<String, String> headers,
+    Map<String, String> queryParameters,
+    String body,
+    String subject) {
+
+  /** Header lookup that tolerates any casing, since gateways pass names through as sent. */
+  public String header(final String name) {
+    if (headers == null) {
+      return null;
+    }
+    final String exact = headers.get(name);
+    if (exact != null) {
+      return exact;
+    }
+    for (final Map.Entry<String, String> header : headers.entrySet()) {
+      if (name.equalsIgnoreCase(header.getKey())) {
+        return header.getValue();
+      }
+    }
+    return null;
+  }
+
+  /** Returns the named query parameter, treating a blank value as absent. */
+  public String queryParameter(final String name) {
+    if (queryParameters == null) {
+      return null;
+    }
+    final String value = queryParameters.get(name);
+    return (value == null || value.isBlank()) ? null : value;
+  }
+
+  /** Decodes a body the gateway base64-encoded, which it does for content it treats as binary. */
+  static String textBody(final String body, final boolean base64Encoded) {
+    return base64Encoded && body != null
+        ? new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8)
+        : body;
+  }
+}
@@ -1,138 +1,202 @@
 package app.web;
 
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collections;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 
+/**
+ * Builds responses for one CORS origin. Instances hold nothing request-specific, so {@link
+ * ApiResponseFactory} shares one per allowed origin and the CORS header map is shared, immutable,
+ * by every response it produces.
+ */
 public final class ApiResponse {
-  private static final String DEFAULT_ORIGIN = "http://localhost:5173";
+  static final String DEFAULT_ORIGIN = "http://localhost:5173";
   private static final String ERROR_KEY = "error";
+  private static final String ETAG_HEADER = "ETag";
+  private static final String ALLOW_HEADER = "Allow";
+  private static final String CACHE_CONTROL_HEADER = "Cache-Control";
+  // Lets browsers keep the body but always revalidate it, so polling turns into 304s.
+  private static final String REVALIDATE = "private, no-cache";
 
   private final ObjectMapper mapper;
-  private final String origin;
-  private final List<String> allowedOrigins;
+  private final Map<String, String> corsHeaders;
 
-  private final String pickOrigin(final String requestOrigin) {
-    if (requestOrigin != null && allowedOrigins.contains(requestOrigin)) {
-      return requestOrigin;
-    }
-    return DEFAULT_ORIGIN;
+  ApiResponse(final ObjectMapper mapper, final Map<String, String> corsHeaders) {
+    this.mapper = mapper;
+    this.corsHeaders = corsHeaders;
   }
 
-  public ApiResponse(
-      final ObjectMapper mapper, final String origin, final List<String> allowedOrigins) {
-    this.mapper = mapper;
-    this.origin = origin;
-    this.allowedOrigins = allowedOrigins;
+  static Map<String, String> corsHeaders(final String origin) {
+    final Map<String, String> h = new HashMap<>();
+    h.put("Access-Control-Allow-Origin", origin);
+    h.put("Access-Control-Allow-Headers", "Authorization,Content-Type,If-Match,If-None-Match");
+    h.put("Access-Control-Allow-Methods", "GET,POST,PUT,PATCH,DELETE,OPTIONS");
+    h.put("Access-Control-Expose-Headers", ETAG_HEADER);
+    return Collections.unmodifiableMap(h);
   }
 
-  public ApiResponse(
-      final ObjectMapper mapper,
-      final String originHeader,
-      final boolean pickOrigin,
-      final List<String> allowedOrigins) {
-    this.mapper = mapper;
-    this.allowedOrigins = allowedOrigins;
-    this.origin = pickOrigin ? pickOrigin(originHeader) : originHeader;
+  public final ApiResult ok(final Object body) {
+    return generateResponseEvent(200, body);
   }
 
-  public ApiResponse(
-      final ObjectMapper mapper,
-      final APIGatewayProxyRequestEvent req,
-      final List<String> allowedOrigins) {
-    this.mapper = mapper;
-    this.allowedOrigins = allowedOrigins;
-    final String originHeader =
-        req.getHeaders() != null
-            ? Optional.ofNullable(req.getHeaders().get("origin"))
-                .orElse(req.getHeaders().get("Origin"))
-            : null;
-    this.origin = pickOrigin(originHeader);
+  public final ApiResult ok(final Object body, final String etag) {
+    return withETag(ok(body), etag, false);
   }
 
-  public final APIGatewayProxyResponseEvent ok(final Object body) {
-    return generateResponseEvent(200, body);
+  /**
+   * Serializes {@code body} and tags it by content. When {@code ifNoneMatch} already names that
+   * tag, answers 304 with no body instead.
+   */
+  public final ApiResult okUnlessNotModified(final Object body, final String ifNoneMatch) {
+    final String json = toJson(body);
+    final String etag = ETags.ofContent(json);
+    if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+      return notModified(etag);
+    }
+    return withETag(generateResponseEvent(200, json), etag, true);
   }
 
-  public final APIGatewayProxyResponseEvent created(final Object body) {
+  /**
+   * Answers 304 when {@code ifNoneMatch} names {@code etag}; otherwise serializes {@code body}.
+   * Use this when the tag is known before serialization, so a hit skips serialization entirely.
+   */
+  public final ApiResult okUnlessNotModified(
+      final Object body, final String etag, final String ifNoneMatch) {
+    if (ETags.noneMatchHits(ifNoneMatch, etag)) {
+      return notModified(etag);
+    }
+    return withETag(ok(body), etag, true);
+  }
+
+  public final ApiResult notModified(final String etag) {
+    return withETag(new ApiResult(304, corsHeaders, ""), etag, true);
+  }
+
+  public final ApiResult created(final Object body) {
     return generateResponseEvent(201, body);
   }
 
-  public final APIGatewayProxyResponseEvent updated(final Object body) {
+  public final ApiResult created(final Object body, final String etag) {
+    return withETag(created(body), etag, false);
+  }
+
+  public final ApiResult updated(final Object body) {
     return generateResponseEvent(200, body);
   }
 
-  public final APIGatewayProxyResponseEvent badRequest(final String message) {
+  public final ApiResult updated(final Object body, final String etag) {
+    return withETag(updated(body), etag, false);
+  }
+
+  public final ApiResult badRequest(final String message) {
     return generateResponseEvent(400, Map.of(ERROR_KEY, message));
   }
 
-  public final APIGatewayProxyResponseEvent notFound(final String message) {
+  public final ApiResult notFound(final String message) {
     return generateResponseEvent(404, Map.of(ERROR_KEY, message));
   }
 
-  public final APIGatewayProxyResponseEvent methodNotAllowed(final String message) {
+  public final ApiResult methodNotAllowed(final String message) {
     return generateResponseEvent(405, Map.of(ERROR_KEY, message));
   }
 
-  public final APIGatewayProxyResponseEvent unauthorized(final String message) {
+  /** Answers 405 with an Allow header listing the methods the path does support. */
+  public final ApiResult methodNotAllowed(final String message, final String allow) {
+    final ApiResult result = methodNotAllowed(message);
+    final Map<String, String> headers = new HashMap<>(result.headers());
+    headers.put(ALLOW_HEADER, allow);
+    return result.withHeaders(headers);
+  }
+
+  public final ApiResult preconditionFailed(final String message) {
+    return generateResponseEvent(412, Map.of(ERROR_KEY, message));
+  }
+
+  public final ApiResult payloadTooLarge(final String message) {
+    return generateResponseEvent(413, Map.of(ERROR_KEY, message));
+  }
+
+  public final ApiResult unauthorized(final String message) {
     return generateResponseEvent(401, Map.of(ERROR_KEY, message));
   }
 
-  public final APIGatewayProxyResponseEvent serverError(final String message) {
+  public final ApiResult serverError(final String message) {
     return generateResponseEvent(500, Map.of(ERROR_KEY, message));
   }
 
   // Convenience methods with predefined error messages
-  public final APIGatewayProxyResponseEvent routeNotFound() {
+  public final ApiResult routeNotFound() {
     return notFound("Route not found");
   }
 
-  public final APIGatewayProxyResponseEvent methodNotAllowed() {
+  public final ApiResult methodNotAllowed() {
     return methodNotAllowed("Method not allowed");
   }
 
-  public final APIGatewayProxyResponseEvent itemNotFound() {
+  public final ApiResult methodNotAllowedAllowing(final String allow) {
+    return methodNotAllowed("Method not allowed", allow);
+  }
+
+  public final ApiResult itemNotFound() {
     return notFound("Not found");
   }
 
-  public final APIGatewayProxyResponseEvent invalidBody() {
+  public final ApiResult invalidBody() {
     return badRequest("Invalid body; expected {\"value\":\"...\"}");
   }
 
-  public final APIGatewayProxyResponseEvent unauthorized() {
+  public final ApiResult invalidBatchBody() {
+    return badRequest(
+        "Invalid body; expected {\"operations\":[{\"op\":\"create|update|delete\",...}]}");
+  }
+
+  public final ApiResult invalidIdsBody() {
+    return badRequest("Invalid body; expected {\"ids\":[\"...\"]}");
+  }
+
+  public final ApiResult versionConflict() {
+    return preconditionFailed("Item has changed; fetch it again before updating");
+  }
+
+  public final ApiResult bodyTooLarge() {
+    return payloadTooLarge("Request body too large");
+  }
+
+  public final ApiResult unauthorized() {
     return unauthorized("Authentication required");
   }
 
   // Exception-based error methods with prefixes
-  public final APIGatewayProxyResponseEvent badRequestWithException(final Exception e) {
+  public final ApiResult badRequestWithException(final Exception e) {
     return badRequest("Bad request: " + e.getMessage());
   }
 
-  public final APIGatewayProxyResponseEvent methodNotAllowedWithException(final Exception e) {
+  public final ApiResult methodNotAllowedWithException(final Exception e) {
     return methodNotAllowed("Method not allowed: " + e.getMessage());
   }
 
-  public final APIGatewayProxyResponseEvent serverErrorWithException(final Exception e) {
+  public final ApiResult serverErrorWithException(final Exception e) {
     return serverError("Unexpected error: " + e.getMessage());
   }
 
-  public final APIGatewayProxyResponseEvent noContent() {
-    return new APIGatewayProxyResponseEvent()
-        .withStatusCode(204)
-        .withHeaders(corsHeaders())
-        .withBody("");
+  public final ApiResult noContent() {
+    return new ApiResult(204, corsHeaders, "");
   }
 
-  private final APIGatewayProxyResponseEvent generateResponseEvent(
-      final int status, final Object body) {
-    return new APIGatewayProxyResponseEvent()
-        .withStatusCode(status)
-        .withHeaders(corsHeaders())
-        .withBody(toJson(body));
+  private final ApiResult generateResponseEvent(final int status, final Object body) {
+    return new ApiResult(status, corsHeaders, toJson(body));
+  }
+
+  /** Copies the shared CORS headers, since only tagged responses need headers of their own. */
+  private static ApiResult withETag(
+      final ApiResult result, final String etag, final boolean revalidate) {
+    final Map<String, String> headers = new HashMap<>(result.headers());
+    headers.put(ETAG_HEADER, etag);
+    if (revalidate) {
+      headers.put(CACHE_CONTROL_HEADER, REVALIDATE);
+    }
+    return result.withHeaders(headers);
   }
 
   private final String toJson(final Object body) {
@@ -144,12 +208,4 @@ public final class ApiResponse {
       return "{\"error\":\"serialization\"}";
     }
   }
-
-  private final Map<String, String> corsHeaders() {
-    final Map<String, String> h = new HashMap<>();
-    h.put("Access-Control-Allow-Origin", origin);
-    h.put("Access-Control-Allow-Headers", "Authorization,Content-Type");
-    h.put("Access-Control-Allow-Methods", "GET,POST,PUT,PATCH,DELETE,OPTIONS");
-    return h;
-  }
 }
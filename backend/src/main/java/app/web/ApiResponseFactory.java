@@ -1,27 +1,53 @@
 package app.web;
 
 import app.di.CorsConfig;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.HashMap;
+import java.util.Map;
 import javax.inject.Inject;
 import javax.inject.Singleton;
 
+/**
+ * Hands out one shared {@link ApiResponse} per allowed origin, built at startup, so choosing the
+ * response for a request is a single hash lookup and allocates nothing.
+ */
 @Singleton
 public final class ApiResponseFactory {
   private final ObjectMapper mapper;
-  private final CorsConfig corsConfig;
+  private final Map<String, ApiResponse> byOrigin = new HashMap<>();
+  private final ApiResponse fallback;
 
   @Inject
   public ApiResponseFactory(final ObjectMapper mapper, final CorsConfig corsConfig) {
     this.mapper = mapper;
-    this.corsConfig = corsConfig;
+    for (final String origin : corsConfig.getAllowedOrigins()) {
+      byOrigin.put(origin, new ApiResponse(mapper, ApiResponse.corsHeaders(origin)));
+    }
+    final ApiResponse defaultResponse = byOrigin.get(ApiResponse.DEFAULT_ORIGIN);
+    this.fallback =
+        defaultResponse != null
+            ? defaultResponse
+            : new ApiResponse(mapper, ApiResponse.corsHeaders(ApiResponse.DEFAULT_ORIGIN));
   }
 
-  public final ApiResponse create(final APIGatewayProxyRequestEvent req) {
-    return new ApiResponse(mapper, req, corsConfig.getAllowedOrigins());
+  /** Echoes the request origin when it is allowed, and the default origin otherwise. */
+  public final ApiResponse create(final ApiRequest req) {
+    final String origin = origin(req);
+    return origin == null ? fallback : byOrigin.getOrDefault(origin, fallback);
   }
 
+  /** Uses {@code origin} as given; only origins outside the allowed set cost an allocation. */
   public final ApiResponse create(final String origin) {
-    return new ApiResponse(mapper, origin, corsConfig.getAllowedOrigins());
+    final ApiResponse shared = byOrigin.get(origin);
+    return shared != null ? shared : new ApiResponse(mapper, ApiResponse.corsHeaders(origin));
+  }
+
+  static String origin(final ApiRequest req) {
+    final Map<String, String> headers = req.headers();
+    if (headers == null) {
+      return null;
+    }
+    final String origin = headers.get("origin");
+    return origin != null ? origin : headers.get("Origin");
   }
 }
@@ -0,0 +1,21 @@
+package app.web;
+
+import java.util.Map;
+
+/**
+ * A finished response before any transport envelope is put around it. The adapters for each
+ * event type copy these fields into that transport's response class. {@code base64Encoded} marks
+ * a binary body, such as a gzipped one, carried as base64 text the way API Gateway expects.
+ */
+public record ApiResult(
+    int statusCode, Map<String, String> headers, String body, boolean base64Encoded) {
+
+  public ApiResult(final int statusCode, final Map<String, String> headers, final String body) {
+    this(statusCode, headers, body, false);
+  }
+
+  /** Returns a copy carrying {@code headers} instead. */
+  public ApiResult withHeaders(final Map<String, String> headers) {
+    return new ApiResult(statusCode, headers, body, base64Encoded);
+  }
+}
@@ -0,0 +1,37 @@
+package app.web;
+
+import java.util.Map;
+
+/**
+ * Reads the caller's subject straight out of the API Gateway authorizer map. Understands the REST
+ * API Cognito layout ({@code claims.sub}) and the HTTP API JWT layout ({@code jwt.claims.sub}).
+ */
+public final class AuthorizerClaims {
+  private static final String CLAIMS = "claims";
+  private static final String JWT = "jwt";
+  private static final String SUBJECT = "sub";
+
+  private AuthorizerClaims() {}
+
+  /** Returns the non-blank {@code sub} claim, or null when the authorizer carries none. */
+  public static String subject(final Map<String, ?> authorizer) {
+    if (authorizer == null) {
+      return null;
+    }
+    String sub = subjectOf(authorizer.get(CLAIMS));
+    if (sub == null && authorizer.get(JWT) instanceof Map<?, ?> jwt) {
+      sub = subjectOf(jwt.get(CLAIMS));
+    }
+    return sub == null || sub.isBlank() ? null : sub;
+  }
+
+  /** Returns the non-blank {@code sub} entry of an already unwrapped claims map, or null. */
+  public static String claimSubject(final Map<String, ?> claims) {
+    final String sub = subjectOf(claims);
+    return sub == null || sub.isBlank() ? null : sub;
+  }
+
+  private static String subjectOf(final Object claims) {
+    return claims instanceof Map<?, ?> map && map.get(SUBJECT) instanceof String sub ? sub : null;
+  }
+}
@@ -0,0 +1,94 @@
+package app.web;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Strong entity tags, derived from an item's version or from a serialized response body. A gzipped
+ * response carries its own tag, the plain one with {@code -gzip} appended inside the quotes, since
+ * the bytes differ; comparisons here ignore the suffix.
+ */
+public final class ETags {
+  public static final String ANY = "*";
+  private static final String WEAK_PREFIX = "W/";
+  private static final String GZIP_SUFFIX = "-gzip";
+  private static final int CONTENT_TAG_BYTES = 16;
+
+  private ETags() {}
+
+  public static String ofVersion(final long version) {
+    return "\"" + version + "\"";
+  }
+
+  /** Tags {@code body} with a truncated SHA-256 of its UTF-8 bytes. */
+  public static String ofContent(final String body) {
+    final byte[] digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256").digest(body.getBytes(StandardCharsets.UTF_8));
+    } catch (final NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is required of every JVM", e);
+    }
+    return "\""
+        + Base64.getUrlEncoder()
+            .withoutPadding()
+            .encodeToString(Arrays.copyOf(digest, CONTENT_TAG_BYTES))
+        + "\"";
+  }
+
+  /** Tags the gzipped form of a response tagged {@code etag}. */
+  public static String ofGzip(final String etag) {
+    return etag.endsWith("\"") && !etag.endsWith(GZIP_SUFFIX + "\"")
+        ? etag.substring(0, etag.length() - 1) + GZIP_SUFFIX + "\""
+        : etag;
+  }
+
+  /**
+   * Evaluates an If-None-Match header against the current tag using weak comparison, as RFC 9110
+   * requires for GET. Returns false when the header is absent.
+   */
+  public static boolean noneMatchHits(final String ifNoneMatch, final String etag) {
+    if (ifNoneMatch == null) {
+      return false;
+    }
+    if (ANY.equals(ifNoneMatch.trim())) {
+      return true;
+    }
+    for (final String candidate : ifNoneMatch.split(",")) {
+      final String tag = candidate.trim();
+      if (opaque(tag).equals(opaque(etag))) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private static String opaque(final String tag) {
+    return withoutGzip(tag.startsWith(WEAK_PREFIX) ? tag.substring(WEAK_PREFIX.length()) : tag);
+  }
+
+  private static String withoutGzip(final String tag) {
+    return tag.endsWith(GZIP_SUFFIX + "\"")
+        ? tag.substring(0, tag.length() - GZIP_SUFFIX.length() - 1) + "\""
+        : tag;
+  }
+
+  /**
+   * Returns the version named by a single strong entity tag, or null if {@code tag} is weak,
+   * unquoted, a list, or not a version at all; such a tag can never match.
+   */
+  public static Long versionOf(final String tag) {
+    final String trimmed = withoutGzip(tag.trim());
+    if (trimmed.length() < 3 || trimmed.charAt(0) != '"' || !trimmed.endsWith("\"")) {
+      return null;
+    }
+    try {
+      final long version = Long.parseLong(trimmed.substring(1, trimmed.length() - 1));
+      return version < 0 ? null : version;
+    } catch (final NumberFormatException e) {
+      return null;
+    }
+  }
+}
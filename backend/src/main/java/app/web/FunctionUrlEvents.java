@@ -0,0 +1,48 @@
+package app.web;
+
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlRequest;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlResponse;
+
+/**
+ * Adapts Lambda Function URL events to {@link ApiRequest} and back. The event has the HTTP API
+ * 2.0 shape, but a Function URL has no user pool authorizer: with {@code AWS_IAM} auth the caller
+ * is the signing IAM principal, whose ARN becomes the subject. With auth type {@code NONE} there
+ * is no caller identity, and requests reach the router as anonymous.
+ */
+public final class FunctionUrlEvents {
+  private FunctionUrlEvents() {}
+
+  public static ApiRequest request(final LambdaFunctionUrlRequest event) {
+    final LambdaFunctionUrlRequest.RequestContext context = event.getRequestContext();
+    return new ApiRequest(
+        context == null || context.getHttp() == null ? null : context.getHttp().getMethod(),
+        event.getRawPath(),
+        event.getHeaders(),
+        event.getQueryStringParameters(),
+        ApiRequest.textBody(event.getBody(), event.isBase64Encoded()),
+        context == null ? null : subject(context.getAuthorizer()));
+  }
+
+  public static LambdaFunctionUrlResponse response(final ApiResult result) {
+    return LambdaFunctionUrlResponse.builder()
+        .withStatusCode(result.statusCode())
+        .withHeaders(result.headers())
+        .withBody(result.body())
+        .withIsBase64Encoded(result.base64Encoded())
+        .build();
+  }
+
+  /** The caller's IAM ARN, falling back to its unique id when the ARN is missing. */
+  private static String subject(
+      final LambdaFunctionUrlRequest.RequestContext.Authorizer authorizer) {
+    final LambdaFunctionUrlRequest.RequestContext.IamAuth iam =
+        authorizer == null ? null : authorizer.getIam();
+    if (iam == null) {
+      return null;
+    }
+    if (iam.getUserArn() != null && !iam.getUserArn().isBlank()) {
+      return iam.getUserArn();
+    }
+    return iam.getUserId() == null || iam.getUserId().isBlank() ? null : iam.getUserId();
+  }
+}
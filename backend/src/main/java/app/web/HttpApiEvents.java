@@ -0,0 +1,45 @@
+package app.web;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+
+/**
+ * Adapts HTTP API (payload format 2.0) events to {@link ApiRequest} and back. The method lives
+ * under {@code requestContext.http}, the path is {@code rawPath}, and a JWT authorizer's claims
+ * arrive already flattened to strings under {@code requestContext.authorizer.jwt.claims}.
+ */
+public final class HttpApiEvents {
+  private HttpApiEvents() {}
+
+  public static ApiRequest request(final APIGatewayV2HTTPEvent event) {
+    final APIGatewayV2HTTPEvent.RequestContext context = event.getRequestContext();
+    return new ApiRequest(
+        context == null || context.getHttp() == null ? null : context.getHttp().getMethod(),
+        event.getRawPath(),
+        event.getHeaders(),
+        event.getQueryStringParameters(),
+        ApiRequest.textBody(event.getBody(), event.isBase64Encoded()),
+        context == null ? null : subject(context.getAuthorizer()));
+  }
+
+  public static APIGatewayV2HTTPResponse response(final ApiResult result) {
+    return APIGatewayV2HTTPResponse.builder()
+        .withStatusCode(result.statusCode())
+        .withHeaders(result.headers())
+        .withBody(result.body())
+        .withIsBase64Encoded(result.base64Encoded())
+        .build();
+  }
+
+  /** Prefers JWT authorizer claims, then a Lambda authorizer context in the v1 layouts. */
+  private static String subject(final APIGatewayV2HTTPEvent.RequestContext.Authorizer authorizer) {
+    if (authorizer == null) {
+      return null;
+    }
+    final APIGatewayV2HTTPEvent.RequestContext.Authorizer.JWT jwt = authorizer.getJwt();
+    if (jwt != null && jwt.getClaims() != null) {
+      return AuthorizerClaims.claimSubject(jwt.getClaims());
+    }
+    return AuthorizerClaims.subject(authorizer.getLambda());
+  }
+}
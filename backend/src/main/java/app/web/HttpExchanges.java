@@ -0,0 +1,107 @@
+package app.web;
+
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Adapts JDK {@link HttpExchange}s to {@link ApiRequest} and back, for serving the routes outside
+ * Lambda. There is no API Gateway authorizer in front, so the subject is read from a header that
+ * an authenticating proxy sets, or left null when no such header is configured.
+ */
+public final class HttpExchanges {
+  private static final String CONTENT_TYPE = "Content-Type";
+  private static final String JSON = "application/json";
+
+  private HttpExchanges() {}
+
+  /**
+   * Reads the whole request body, which the JDK server needs before it will reuse the connection.
+   *
+   * @param subjectHeader header carrying the caller's subject, or null to treat every caller as
+   *     anonymous
+   */
+  public static ApiRequest request(final HttpExchange exchange, final String subjectHeader)
+      throws IOException {
+    final Map<String, String> headers = headers(exchange.getRequestHeaders());
+    final String body;
+    try (InputStream in = exchange.getRequestBody()) {
+      final byte[] bytes = in.readAllBytes();
+      body = bytes.length == 0 ? null : new String(bytes, StandardCharsets.UTF_8);
+    }
+    final String subject =
+        subjectHeader == null ? null : exchange.getRequestHeaders().getFirst(subjectHeader);
+    return new ApiRequest(
+        exchange.getRequestMethod(),
+        exchange.getRequestURI().getPath(),
+        headers,
+        query(exchange.getRequestURI().getRawQuery()),
+        body,
+        subject == null || subject.isBlank() ? null : subject);
+  }
+
+  /** Sends {@code result} with an exact length, so the connection stays open for the next one. */
+  public static void write(final ApiResult result, final HttpExchange exchange) throws IOException {
+    final Headers out = exchange.getResponseHeaders();
+    if (result.headers() != null) {
+      for (final Map.Entry<String, String> header : result.headers().entrySet()) {
+        out.set(header.getKey(), header.getValue());
+      }
+    }
+    final byte[] body;
+    if (result.body() == null) {
+      body = new byte[0];
+    } else if (result.base64Encoded()) {
+      body = Base64.getDecoder().decode(result.body());
+    } else {
+      body = result.body().getBytes(StandardCharsets.UTF_8);
+    }
+    if (body.length > 0 && !out.containsKey(CONTENT_TYPE)) {
+      out.set(CONTENT_TYPE, JSON);
+    }
+    exchange.sendResponseHeaders(result.statusCode(), body.length == 0 ? -1 : body.length);
+    if (body.length > 0) {
+      try (OutputStream stream = exchange.getResponseBody()) {
+        stream.write(body);
+      }
+    }
+  }
+
+  /** Joins repeated headers with commas, as API Gateway does for its single-value map. */
+  private static Map<String, String> headers(final Headers headers) {
+    final Map<String, String> out = new HashMap<>(headers.size() * 2);
+    for (final Map.Entry<String, List<String>> header : headers.entrySet()) {
+      final List<String> values = header.getValue();
+      out.put(header.getKey(), values.size() == 1 ? values.get(0) : String.join(",", values));
+    }
+    return out;
+  }
+
+  /** Decodes a query string; a repeated name keeps its last value, as API Gateway does. */
+  static Map<String, String> query(final String raw) {
+    if (raw == null || raw.isEmpty()) {
+      return null;
+    }
+    final Map<String, String> out = new HashMap<>();
+    for (final String pair : raw.split("&")) {
+      if (pair.isEmpty()) {
+        continue;
+      }
+      final int eq = pair.indexOf('=');
+      final String name = eq < 0 ? pair : pair.substring(0, eq);
+      final String value = eq < 0 ? "" : pair.substring(eq + 1);
+      out.put(
+          URLDecoder.decode(name, StandardCharsets.UTF_8),
+          URLDecoder.decode(value, StandardCharsets.UTF_8));
+    }
+    return out;
+  }
+}
@@ -0,0 +1,29 @@
+package app.web;
+
+/** Request methods the API can route. */
+public enum HttpMethod {
+  GET,
+  HEAD,
+  POST,
+  PUT,
+  PATCH,
+  DELETE,
+  OPTIONS;
+
+  /** Resolves a request method by exact name, or returns null for one the API does not know. */
+  public static HttpMethod of(final String name) {
+    if (name == null) {
+      return null;
+    }
+    return switch (name) {
+      case "GET" -> GET;
+      case "HEAD" -> HEAD;
+      case "POST" -> POST;
+      case "PUT" -> PUT;
+      case "PATCH" -> PATCH;
+      case "DELETE" -> DELETE;
+      case "OPTIONS" -> OPTIONS;
+      default -> null;
+    };
+  }
+}
@@ -0,0 +1,162 @@
+package app.web;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Reads REST API proxy events from, and writes proxy responses to, raw Lambda streams. The event
+ * is decoded straight into an {@link ApiRequest}: only method, path, headers, query string, body
+ * and the caller's subject are kept, and everything else is skipped without being materialised.
+ * The response envelope and its escaped body are written to the stream in one pass.
+ */
+public final class ProxyEventCodec {
+  private static final String CLAIMS = "claims";
+  private static final String JWT = "jwt";
+  private static final String SUBJECT = "sub";
+
+  private final JsonFactory factory;
+
+  public ProxyEventCodec(final JsonFactory factory) {
+    this.factory = factory;
+  }
+
+  public final ApiRequest read(final InputStream in) throws IOException {
+    String method = null;
+    String path = null;
+    Map<String, String> headers = null;
+    Map<String, String> query = null;
+    String body = null;
+    boolean base64Encoded = false;
+    String subject = null;
+    try (JsonParser parser = factory.createParser(in)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new IOException("Expected an API Gateway proxy event object");
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "httpMethod" -> method = parser.getValueAsString();
+          case "path" -> path = parser.getValueAsString();
+          case "headers" -> headers = readStrings(parser);
+          case "queryStringParameters" -> query = readStrings(parser);
+          case "body" -> body = parser.getValueAsString();
+          case "isBase64Encoded" -> base64Encoded = parser.getValueAsBoolean();
+          case "requestContext" -> subject = readRequestContext(parser);
+          default -> parser.skipChildren();
+        }
+      }
+    }
+    return new ApiRequest(
+        method, path, headers, query, ApiRequest.textBody(body, base64Encoded), subject);
+  }
+
+  public final void write(final ApiResult result, final OutputStream out) throws IOException {
+    try (JsonGenerator gen = factory.createGenerator(out, JsonEncoding.UTF8)) {
+      gen.writeStartObject();
+      gen.writeNumberField("statusCode", result.statusCode());
+      if (result.headers() != null) {
+        gen.writeObjectFieldStart("headers");
+        for (final Map.Entry<String, String> header : result.headers().entrySet()) {
+          gen.writeStringField(header.getKey(), header.getValue());
+        }
+        gen.writeEndObject();
+      }
+      if (result.body() != null) {
+        gen.writeStringField("body", result.body());
+      }
+      gen.writeBooleanField("isBase64Encoded", result.base64Encoded());
+      gen.writeEndObject();
+    }
+  }
+
+  /** Reads a flat string map, or returns null for a JSON null. */
+  private static Map<String, String> readStrings(final JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    final Map<String, String> out = new HashMap<>();
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String name = parser.currentName();
+      parser.nextToken();
+      out.put(name, parser.getValueAsString());
+      parser.skipChildren();
+    }
+    return out;
+  }
+
+  /** Returns the authorizer's subject, or null when the context carries none. */
+  private static String readRequestContext(final JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    String subject = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.currentName();
+      parser.nextToken();
+      if ("authorizer".equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+        subject = readAuthorizerSubject(parser);
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return subject;
+  }
+
+  /**
+   * Finds {@code claims.sub}, falling back to {@code jwt.claims.sub}, the same layouts {@link
+   * AuthorizerClaims} understands.
+   */
+  private static String readAuthorizerSubject(final JsonParser parser) throws IOException {
+    String claimsSub = null;
+    String jwtSub = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.currentName();
+      parser.nextToken();
+      if (CLAIMS.equals(field)) {
+        claimsSub = readSubject(parser);
+      } else if (JWT.equals(field) && parser.currentToken() == JsonToken.START_OBJECT) {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+          final String inner = parser.currentName();
+          parser.nextToken();
+          if (CLAIMS.equals(inner)) {
+            jwtSub = readSubject(parser);
+          } else {
+            parser.skipChildren();
+          }
+        }
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return claimsSub != null ? claimsSub : jwtSub;
+  }
+
+  private static String readSubject(final JsonParser parser) throws IOException {
+    if (parser.currentToken() != JsonToken.START_OBJECT) {
+      parser.skipChildren();
+      return null;
+    }
+    String sub = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      final String field = parser.currentName();
+      final JsonToken token = parser.nextToken();
+      if (SUBJECT.equals(field) && token == JsonToken.VALUE_STRING) {
+        sub = parser.getText();
+      } else {
+        parser.skipChildren();
+      }
+    }
+    return sub == null || sub.isBlank() ? null : sub;
+  }
+}
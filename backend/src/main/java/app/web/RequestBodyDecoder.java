@@ -0,0 +1,183 @@
+package app.web;
+
+import app.model.BatchOperation;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Decodes item request bodies with a streaming parser. For single items parsing stops at the
+ * {@code value} field, sibling values are skipped without being materialised, and escapes are
+ * decoded by Jackson rather than by a regular expression.
+ */
+public final class RequestBodyDecoder {
+  public static final int DEFAULT_MAX_BODY_CHARS = 384 * 1024;
+  public static final int MAX_BATCH_OPERATIONS = 100;
+  public static final int MAX_BATCH_GET_IDS = 300;
+  private static final String VALUE_FIELD = "value";
+  private static final String OPERATIONS_FIELD = "operations";
+  private static final String OP_FIELD = "op";
+  private static final String ITEM_ID_FIELD = "item_id";
+  private static final String IDS_FIELD = "ids";
+
+  private final JsonFactory factory;
+  private final int maxBodyChars;
+
+  public RequestBodyDecoder(final JsonFactory factory) {
+    this(factory, DEFAULT_MAX_BODY_CHARS);
+  }
+
+  public RequestBodyDecoder(final JsonFactory factory, final int maxBodyChars) {
+    this.factory = factory;
+    this.maxBodyChars = maxBodyChars;
+  }
+
+  public final boolean exceedsLimit(final String body) {
+    return body != null && body.length() > maxBodyChars;
+  }
+
+  /**
+   * Returns the {@code value} string, or empty when the body is missing, malformed, not an object,
+   * or holds an empty or non-string {@code value}.
+   */
+  public final Optional<String> readValue(final String body) {
+    if (body == null || body.isEmpty() || exceedsLimit(body)) {
+      return Optional.empty();
+    }
+    try (final JsonParser parser = factory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return Optional.empty();
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        final JsonToken token = parser.nextToken();
+        if (VALUE_FIELD.equals(field)) {
+          return token == JsonToken.VALUE_STRING
+              ? Optional.of(parser.getText()).filter(v -> !v.isEmpty())
+              : Optional.empty();
+        }
+        parser.skipChildren();
+      }
+      return Optional.empty();
+    } catch (final IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Reads {@code {"operations":[{"op":"create|update|delete","item_id":"...","value":"..."}]}}.
+   * Returns empty when the body is malformed, holds no or more than {@value #MAX_BATCH_OPERATIONS}
+   * operations, an operation lacks the fields its type needs, or an item id appears twice.
+   */
+  public final Optional<List<BatchOperation>> readBatch(final String body) {
+    if (body == null || body.isEmpty() || exceedsLimit(body)) {
+      return Optional.empty();
+    }
+    try (final JsonParser parser = factory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return Optional.empty();
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && OPERATIONS_FIELD.equals(field)) {
+          return readOperations(parser);
+        }
+        parser.skipChildren();
+      }
+      return Optional.empty();
+    } catch (final IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Reads {@code {"ids":["..."]}}. Returns empty when the body is malformed, or the list is empty,
+   * longer than {@value #MAX_BATCH_GET_IDS} or holds anything but non-empty strings.
+   */
+  public final Optional<List<String>> readIds(final String body) {
+    if (body == null || body.isEmpty() || exceedsLimit(body)) {
+      return Optional.empty();
+    }
+    try (final JsonParser parser = factory.createParser(body)) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        return Optional.empty();
+      }
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        if (parser.nextToken() == JsonToken.START_ARRAY && IDS_FIELD.equals(field)) {
+          final List<String> ids = new ArrayList<>();
+          while (parser.nextToken() == JsonToken.VALUE_STRING) {
+            final String id = parser.getText();
+            if (id.isEmpty() || ids.size() == MAX_BATCH_GET_IDS) {
+              return Optional.empty();
+            }
+            ids.add(id);
+          }
+          return parser.currentToken() == JsonToken.END_ARRAY && !ids.isEmpty()
+              ? Optional.of(ids)
+              : Optional.empty();
+        }
+        parser.skipChildren();
+      }
+      return Optional.empty();
+    } catch (final IOException e) {
+      return Optional.empty();
+    }
+  }
+
+  private static Optional<List<BatchOperation>> readOperations(final JsonParser parser)
+      throws IOException {
+    final List<BatchOperation> operations = new ArrayList<>();
+    final Set<String> itemIds = new HashSet<>();
+    while (parser.nextToken() == JsonToken.START_OBJECT) {
+      String op = null;
+      String itemId = null;
+      String value = null;
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        final String field = parser.currentName();
+        final String text = parser.nextToken() == JsonToken.VALUE_STRING ? parser.getText() : null;
+        parser.skipChildren();
+        switch (field) {
+          case OP_FIELD -> op = text;
+          case ITEM_ID_FIELD -> itemId = text;
+          case VALUE_FIELD -> value = text;
+          default -> {}
+        }
+      }
+      final BatchOperation operation = toOperation(op, itemId, value);
+      if (operation == null
+          || operations.size() == MAX_BATCH_OPERATIONS
+          || (operation.itemId() != null && !itemIds.add(operation.itemId()))) {
+        return Optional.empty();
+      }
+      operations.add(operation);
+    }
+    if (parser.currentToken() != JsonToken.END_ARRAY || operations.isEmpty()) {
+      return Optional.empty();
+    }
+    return Optional.of(operations);
+  }
+
+  private static BatchOperation toOperation(
+      final String op, final String itemId, final String value) {
+    if (op == null) {
+      return null;
+    }
+    final boolean hasId = itemId != null && !itemId.isEmpty();
+    final boolean hasValue = value != null && !value.isEmpty();
+    return switch (op) {
+      case "create" ->
+          hasValue ? new BatchOperation(BatchOperation.Type.CREATE, null, value) : null;
+      case "update" ->
+          hasId && hasValue ? new BatchOperation(BatchOperation.Type.UPDATE, itemId, value) : null;
+      case "delete" -> hasId ? new BatchOperation(BatchOperation.Type.DELETE, itemId, null) : null;
+      default -> null;
+    };
+  }
+}
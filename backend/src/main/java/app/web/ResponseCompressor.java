@@ -0,0 +1,177 @@
+package app.web;
+
+import app.di.CompressionConfig;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import javax.inject.Inject;
+import javax.inject.Singleton;
+
+/**
+ * Gzips large response bodies for clients that send {@code Accept-Encoding: gzip}. The compressed
+ * body goes out base64-encoded with {@code isBase64Encoded}, which API Gateway and Function URLs
+ * decode back to bytes before sending them to the client.
+ *
+ * <p>Each {@link Deflater} holds about 256 KB of native zlib state that is only released by {@link
+ * Deflater#end}, so they are pooled and reset rather than created per response. The gzip header and
+ * trailer are written here around raw deflate output, since {@link java.util.zip.GZIPOutputStream}
+ * always creates its own deflater.
+ */
+@Singleton
+public final class ResponseCompressor {
+  private static final String ACCEPT_ENCODING = "Accept-Encoding";
+  private static final String CONTENT_ENCODING = "Content-Encoding";
+  private static final String VARY = "Vary";
+  private static final String ETAG = "ETag";
+  private static final String IF_NONE_MATCH = "If-None-Match";
+  private static final int NOT_MODIFIED = 304;
+  private static final String GZIP = "gzip";
+  // Magic, deflate method, no flags, no mtime, no extra flags, unknown OS (RFC 1952).
+  private static final byte[] HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+  private static final int TRAILER_BYTES = 8;
+
+  private final int minBytes;
+  private final BlockingQueue<Deflater> pool;
+
+  @Inject
+  public ResponseCompressor(final CompressionConfig config) {
+    this.minBytes = config.isEnabled() ? config.getMinBytes() : Integer.MAX_VALUE;
+    // Compression never blocks, so no more deflaters run at once than there are cores.
+    this.pool = new ArrayBlockingQueue<>(Math.max(2, Runtime.getRuntime().availableProcessors()));
+  }
+
+  /**
+   * Returns {@code result} gzipped when its body is at least the configured size, the request
+   * accepts gzip, and compression actually shrinks it. Every response large enough to be compressed
+   * gets {@code Vary: Accept-Encoding}, so caches keep the two forms apart, and a gzipped one gets
+   * the {@link ETags#ofGzip gzip variant} of its entity tag.
+   */
+  public final ApiResult encode(final ApiRequest req, final ApiResult result) {
+    if (result.statusCode() == NOT_MODIFIED) {
+      return notModified(req, result);
+    }
+    final String body = result.body();
+    if (body == null
+        || body.length() < minBytes
+        || result.base64Encoded()
+        || (result.headers() != null && result.headers().containsKey(CONTENT_ENCODING))) {
+      return result;
+    }
+    final Map<String, String> headers =
+        result.headers() == null ? new HashMap<>() : new HashMap<>(result.headers());
+    headers.put(VARY, ACCEPT_ENCODING);
+    if (!acceptsGzip(req.header(ACCEPT_ENCODING))) {
+      return result.withHeaders(headers);
+    }
+    final byte[] gzipped = gzip(body.getBytes(StandardCharsets.UTF_8));
+    if (gzipped == null) {
+      return result.withHeaders(headers);
+    }
+    headers.put(CONTENT_ENCODING, GZIP);
+    headers.computeIfPresent(ETAG, (name, etag) -> ETags.ofGzip(etag));
+    return new ApiResult(
+        result.statusCode(), headers, Base64.getEncoder().encodeToString(gzipped), true);
+  }
+
+  /**
+   * A 304 carries the tag the client validated, so a client that revalidated a gzipped copy gets
+   * the gzip variant back rather than the plain tag.
+   */
+  private ApiResult notModified(final ApiRequest req, final ApiResult result) {
+    final String etag = result.headers() == null ? null : result.headers().get(ETAG);
+    final String ifNoneMatch = req.header(IF_NONE_MATCH);
+    if (etag == null
+        || ifNoneMatch == null
+        || minBytes == Integer.MAX_VALUE
+        || !ifNoneMatch.contains(ETags.ofGzip(etag))) {
+      return result;
+    }
+    final Map<String, String> headers = new HashMap<>(result.headers());
+    headers.put(ETAG, ETags.ofGzip(etag));
+    headers.put(VARY, ACCEPT_ENCODING);
+    return result.withHeaders(headers);
+  }
+
+  /** Returns the gzip member for {@code data}, or null when it would not be smaller. */
+  final byte[] gzip(final byte[] data) {
+    if (data.length <= HEADER.length + TRAILER_BYTES) {
+      return null;
+    }
+    final Deflater pooled = pool.poll();
+    final Deflater deflater =
+        pooled != null ? pooled : new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    try {
+      final byte[] out = new byte[data.length];
+      System.arraycopy(HEADER, 0, out, 0, HEADER.length);
+      int length = HEADER.length;
+      deflater.setInput(data);
+      deflater.finish();
+      while (!deflater.finished()) {
+        if (length >= out.length) {
+          return null;
+        }
+        length += deflater.deflate(out, length, out.length - length);
+      }
+      if (length + TRAILER_BYTES >= out.length) {
+        return null;
+      }
+      final CRC32 crc = new CRC32();
+      crc.update(data);
+      putIntLittleEndian(out, length, (int) crc.getValue());
+      putIntLittleEndian(out, length + 4, data.length);
+      return Arrays.copyOf(out, length + TRAILER_BYTES);
+    } finally {
+      deflater.reset();
+      if (!pool.offer(deflater)) {
+        deflater.end();
+      }
+    }
+  }
+
+  /** Honors {@code q=0} and a {@code *} wildcard; {@code x-gzip} is the legacy name. */
+  static boolean acceptsGzip(final String acceptEncoding) {
+    if (acceptEncoding == null) {
+      return false;
+    }
+    boolean wildcard = false;
+    for (final String part : acceptEncoding.split(",")) {
+      final int semi = part.indexOf(';');
+      final String coding = (semi < 0 ? part : part.substring(0, semi)).trim();
+      final boolean allowed = semi < 0 || positiveQuality(part.substring(semi + 1));
+      if (GZIP.equalsIgnoreCase(coding) || "x-gzip".equalsIgnoreCase(coding)) {
+        return allowed;
+      }
+      if ("*".equals(coding)) {
+        wildcard = allowed;
+      }
+    }
+    return wildcard;
+  }
+
+  private static boolean positiveQuality(final String params) {
+    for (final String param : params.split(";")) {
+      final int eq = param.indexOf('=');
+      if (eq > 0 && "q".equalsIgnoreCase(param.substring(0, eq).trim())) {
+        try {
+          return Double.parseDouble(param.substring(eq + 1).trim()) > 0;
+        } catch (final NumberFormatException e) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static void putIntLittleEndian(final byte[] out, final int offset, final int value) {
+    out[offset] = (byte) value;
+    out[offset + 1] = (byte) (value >>> 8);
+    out[offset + 2] = (byte) (value >>> 16);
+    out[offset + 3] = (byte) (value >>> 24);
+  }
+}
@@ -0,0 +1,28 @@
+package app.web;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+
+/** Adapts REST API (payload format 1.0) proxy events to {@link ApiRequest} and back. */
+public final class RestApiEvents {
+  private RestApiEvents() {}
+
+  public static ApiRequest request(final APIGatewayProxyRequestEvent event) {
+    final APIGatewayProxyRequestEvent.ProxyRequestContext context = event.getRequestContext();
+    return new ApiRequest(
+        event.getHttpMethod(),
+        event.getPath(),
+        event.getHeaders(),
+        event.getQueryStringParameters(),
+        ApiRequest.textBody(event.getBody(), Boolean.TRUE.equals(event.getIsBase64Encoded())),
+        context == null ? null : AuthorizerClaims.subject(context.getAuthorizer()));
+  }
+
+  public static APIGatewayProxyResponseEvent response(final ApiResult result) {
+    return new APIGatewayProxyResponseEvent()
+        .withStatusCode(result.statusCode())
+        .withHeaders(result.headers())
+        .withBody(result.body())
+        .withIsBase64Encoded(result.base64Encoded());
+  }
+}
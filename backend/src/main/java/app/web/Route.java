@@ -1,9 +1,14 @@
 package app.web;
 
+/** Path templates of the API, in the syntax {@link RouteTable} accepts. */
 public enum Route {
   ME("/v1/me"),
   ITEMS("/v1/items"),
-  ITEMS_PREFIX("/v1/items/");
+  ITEMS_BATCH("/v1/items:batch"),
+  ITEMS_BATCH_GET("/v1/items:batchGet"),
+  ITEM("/v1/items/{" + Route.ITEM_ID + "}");
+
+  public static final String ITEM_ID = "id";
 
   private final String path;
 
@@ -16,14 +21,12 @@ public enum Route {
     return path;
   }
 
-  public final boolean matches(final String route) {
-    return path.equals(route);
-  }
-
-  public final boolean isPrefixOf(final String route) {
-    if (route == null || route.isEmpty()) {
-      return false;
+  /** Fills the template's single parameter segment with {@code param}. */
+  public final String expand(final String param) {
+    final int open = path.indexOf('{');
+    if (open < 0) {
+      return path;
     }
-    return route.startsWith(path);
+    return path.substring(0, open) + param + path.substring(path.indexOf('}', open) + 1);
   }
 }
@@ -0,0 +1,167 @@
+package app.web;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * Method and path dispatch table, built once and read-only afterwards. Path templates are split on
+ * {@code /} into a segment trie in which a {@code {name}} segment captures any one non-empty
+ * segment and literal segments win over captures. A lookup walks the request path once, so its
+ * cost follows path depth rather than the number of routes, and it never throws.
+ *
+ * @param <H> the handler type stored per route
+ */
+public final class RouteTable<H> {
+  private final Node<H> root;
+  private final int maxDepth;
+
+  private RouteTable(final Node<H> root, final int maxDepth) {
+    this.root = root;
+    this.maxDepth = maxDepth;
+  }
+
+  public static <H> Builder<H> builder() {
+    return new Builder<>();
+  }
+
+  /** The outcome of a lookup. */
+  public sealed interface Match<H> permits Found, MethodNotAllowed, NotFound {}
+
+  /** A route exists for the path and method; {@code params} holds the captured segments. */
+  public record Found<H>(H handler, Map<String, String> params) implements Match<H> {}
+
+  /** The path exists but not for this method; {@code allow} is the value for an Allow header. */
+  public record MethodNotAllowed<H>(String allow) implements Match<H> {}
+
+  /** No route has this path. */
+  public record NotFound<H>() implements Match<H> {}
+
+  /**
+   * Resolves {@code path} and {@code method}. An unknown or null method on a known path is reported
+   * as {@link MethodNotAllowed}.
+   */
+  public final Match<H> match(final HttpMethod method, final String path) {
+    if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+      return new NotFound<>();
+    }
+    Node<H> node = root;
+    String[] captured = null;
+    int depth = 0;
+    int start = 1;
+    while (true) {
+      int end = path.indexOf('/', start);
+      if (end < 0) {
+        end = path.length();
+      }
+      final String segment = path.substring(start, end);
+      final Node<H> literal = node.literals.get(segment);
+      if (literal != null) {
+        node = literal;
+      } else if (node.capture != null && !segment.isEmpty()) {
+        if (captured == null) {
+          captured = new String[maxDepth];
+        }
+        captured[depth] = segment;
+        node = node.capture;
+      } else {
+        return new NotFound<>();
+      }
+      depth++;
+      if (end == path.length()) {
+        break;
+      }
+      start = end + 1;
+    }
+    if (node.handlers.isEmpty()) {
+      return new NotFound<>();
+    }
+    final H handler = method == null ? null : node.handlers.get(method);
+    if (handler == null) {
+      return new MethodNotAllowed<>(node.allow);
+    }
+    return new Found<>(handler, params(node.paramNames, captured));
+  }
+
+  private static Map<String, String> params(final String[] names, final String[] captured) {
+    if (captured == null) {
+      return Map.of();
+    }
+    final Map<String, String> params = new HashMap<>(names.length * 2);
+    for (int i = 0; i < names.length; i++) {
+      if (names[i] != null) {
+        params.put(names[i], captured[i]);
+      }
+    }
+    return params;
+  }
+
+  /** Collects routes; {@link #build()} freezes them into a table. */
+  public static final class Builder<H> {
+    private final Node<H> root = new Node<>();
+    private int maxDepth;
+
+    private Builder() {}
+
+    /**
+     * Registers {@code handler} for {@code method} on {@code template}, e.g. {@code
+     * /v1/items/{id}}.
+     *
+     * @throws IllegalArgumentException if the template is malformed or the route is already taken
+     */
+    public final Builder<H> add(final HttpMethod method, final String template, final H handler) {
+      if (template == null || !template.startsWith("/")) {
+        throw new IllegalArgumentException("Route template must start with '/': " + template);
+      }
+      final String[] segments = template.substring(1).split("/", -1);
+      final String[] names = new String[segments.length];
+      Node<H> node = root;
+      for (int i = 0; i < segments.length; i++) {
+        final String segment = segments[i];
+        if (segment.startsWith("{") && segment.endsWith("}") && segment.length() > 2) {
+          names[i] = segment.substring(1, segment.length() - 1);
+          if (node.capture == null) {
+            node.capture = new Node<>();
+          }
+          node = node.capture;
+        } else {
+          node = node.literals.computeIfAbsent(segment, s -> new Node<>());
+        }
+      }
+      if (node.paramNames != null && !Arrays.equals(node.paramNames, names)) {
+        throw new IllegalArgumentException("Conflicting parameter names for " + template);
+      }
+      if (node.handlers.putIfAbsent(method, handler) != null) {
+        throw new IllegalArgumentException("Duplicate route: " + method + " " + template);
+      }
+      node.paramNames = names;
+      maxDepth = Math.max(maxDepth, segments.length);
+      return this;
+    }
+
+    public final RouteTable<H> build() {
+      root.freeze();
+      return new RouteTable<>(root, maxDepth);
+    }
+  }
+
+  private static final class Node<H> {
+    private final Map<String, Node<H>> literals = new HashMap<>();
+    private final Map<HttpMethod, H> handlers = new EnumMap<>(HttpMethod.class);
+    private Node<H> capture;
+    private String[] paramNames;
+    private String allow;
+
+    private void freeze() {
+      final StringJoiner allowed = new StringJoiner(", ");
+      handlers.keySet().forEach(m -> allowed.add(m.name()));
+      allow = allowed.toString();
+      literals.values().forEach(Node::freeze);
+      if (capture != null) {
+        capture.freeze();
+      }
+    }
+  }
+}
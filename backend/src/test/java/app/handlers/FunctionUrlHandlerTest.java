@@ -0,0 +1,88 @@
+package app.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.model.UserItem;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlRequest;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class FunctionUrlHandlerTest {
+  private static final String CALLER = "arn:aws:iam::123456789012:user/alice";
+
+  @Mock private ItemService itemService;
+
+  private FunctionUrlHandler handler;
+
+  @BeforeEach
+  final void setUp() {
+    final ObjectMapper mapper = new ObjectMapper();
+    handler =
+        new FunctionUrlHandler(
+            new RouterHandler(
+                itemService,
+                new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173"))),
+                mapper));
+  }
+
+  @Test
+  final void testIamCallerReachesItemRoute() {
+    when(itemService.get(CALLER, "item1"))
+        .thenReturn(Optional.of(new UserItem(CALLER, "item1", "hello", 1L, 2L, 3L)));
+
+    final LambdaFunctionUrlResponse response =
+        handler.handleRequest(event("GET", "/v1/items/item1", CALLER), null);
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals("\"3\"", response.getHeaders().get("ETag"));
+    assertTrue(response.getBody().contains("\"value\":\"hello\""));
+  }
+
+  @Test
+  final void testUnsignedRequestIsUnauthorized() {
+    final LambdaFunctionUrlResponse response =
+        handler.handleRequest(event("GET", "/v1/items", null), null);
+
+    assertEquals(401, response.getStatusCode());
+  }
+
+  private static LambdaFunctionUrlRequest event(
+      final String method, final String path, final String userArn) {
+    final LambdaFunctionUrlRequest.RequestContext.Authorizer authorizer =
+        userArn == null
+            ? null
+            : LambdaFunctionUrlRequest.RequestContext.Authorizer.builder()
+                .withIam(
+                    LambdaFunctionUrlRequest.RequestContext.IamAuth.builder()
+                        .withUserArn(userArn)
+                        .withUserId("AIDAEXAMPLE")
+                        .build())
+                .build();
+    return LambdaFunctionUrlRequest.builder()
+        .withRawPath(path)
+        .withHeaders(Map.of("origin", "http://localhost:5173"))
+        .withRequestContext(
+            LambdaFunctionUrlRequest.RequestContext.builder()
+                .withHttp(
+                    LambdaFunctionUrlRequest.RequestContext.Http.builder()
+                        .withMethod(method)
+                        .build())
+                .withAuthorizer(authorizer)
+                .build())
+        .build();
+  }
+}
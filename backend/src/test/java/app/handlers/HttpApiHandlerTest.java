@@ -0,0 +1,89 @@
+package app.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.model.UserItem;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class HttpApiHandlerTest {
+
+  @Mock private ItemService itemService;
+
+  private HttpApiHandler handler;
+
+  @BeforeEach
+  final void setUp() {
+    final ObjectMapper mapper = new ObjectMapper();
+    handler =
+        new HttpApiHandler(
+            new RouterHandler(
+                itemService,
+                new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173"))),
+                mapper));
+  }
+
+  @Test
+  final void testJwtUserReachesItemRoute() {
+    when(itemService.get("user-1", "item1"))
+        .thenReturn(Optional.of(new UserItem("user-1", "item1", "hello", 1L, 2L, 3L)));
+
+    final APIGatewayV2HTTPResponse response =
+        handler.handleRequest(event("GET", "/v1/items/item1", "user-1"), null);
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals("\"3\"", response.getHeaders().get("ETag"));
+    assertTrue(response.getBody().contains("\"value\":\"hello\""));
+  }
+
+  @Test
+  final void testMissingJwtIsUnauthorized() {
+    final APIGatewayV2HTTPResponse response =
+        handler.handleRequest(event("GET", "/v1/items", null), null);
+
+    assertEquals(401, response.getStatusCode());
+  }
+
+  @Test
+  final void testNullEventIsBadRequest() {
+    assertEquals(400, handler.handleRequest(null, null).getStatusCode());
+  }
+
+  private static APIGatewayV2HTTPEvent event(
+      final String method, final String path, final String sub) {
+    final APIGatewayV2HTTPEvent.RequestContext.Authorizer authorizer =
+        sub == null
+            ? null
+            : APIGatewayV2HTTPEvent.RequestContext.Authorizer.builder()
+                .withJwt(
+                    APIGatewayV2HTTPEvent.RequestContext.Authorizer.JWT.builder()
+                        .withClaims(Map.of("sub", sub))
+                        .build())
+                .build();
+    return APIGatewayV2HTTPEvent.builder()
+        .withRawPath(path)
+        .withHeaders(Map.of("origin", "http://localhost:5173"))
+        .withRequestContext(
+            APIGatewayV2HTTPEvent.RequestContext.builder()
+                .withHttp(
+                    APIGatewayV2HTTPEvent.RequestContext.Http.builder().withMethod(method).build())
+                .withAuthorizer(authorizer)
+                .build())
+        .build();
+  }
+}
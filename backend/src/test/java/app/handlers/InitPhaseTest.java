@@ -0,0 +1,42 @@
+package app.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import app.di.ServiceComponent;
+import app.repo.ItemRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class InitPhaseTest {
+
+  @Mock private ServiceComponent component;
+  @Mock private ItemRepository repository;
+
+  @BeforeEach
+  final void setUp() {
+    when(component.objectMapper()).thenReturn(new ObjectMapper());
+    when(component.itemRepository()).thenReturn(repository);
+  }
+
+  @Test
+  final void testPrimeTouchesRepository() {
+    InitPhase.prime(component);
+
+    verify(repository).prime();
+  }
+
+  @Test
+  final void testPrimeSwallowsRepositoryFailure() {
+    doThrow(new RuntimeException("no credentials")).when(repository).prime();
+
+    assertDoesNotThrow(() -> InitPhase.prime(component));
+  }
+}
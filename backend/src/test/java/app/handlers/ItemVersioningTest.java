@@ -0,0 +1,124 @@
+package app.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.repo.InMemoryUserItemTable;
+import app.repo.SyncItemRepository;
+import app.repo.UserItemRecord;
+import app.repo.UserItemRepository;
+import app.service.ItemService;
+import app.web.ApiRequest;
+import app.web.ApiResponseFactory;
+import app.web.ApiResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+/** Versions and ETags across single and batch writes, against an in-memory table. */
+@ExtendWith(MockitoExtension.class)
+public final class ItemVersioningTest {
+
+  @Mock private DynamoDbEnhancedClient enhancedClient;
+
+  @Mock private DynamoDbClient ddb;
+
+  private final ObjectMapper mapper =
+      new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+  private RouterHandler handler;
+
+  @BeforeEach
+  final void setUp() {
+    final InMemoryUserItemTable table = new InMemoryUserItemTable();
+    when(enhancedClient.<UserItemRecord>table(
+            eq("items"), ArgumentMatchers.<TableSchema<UserItemRecord>>any()))
+        .thenReturn(table);
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenAnswer(invocation -> table.applyUpdate(invocation.getArgument(0)));
+    final UserItemRepository repository =
+        new UserItemRepository(enhancedClient, ddb, "items", Runnable::run);
+    handler =
+        new RouterHandler(
+            new ItemService(new SyncItemRepository(repository)),
+            new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173"))),
+            mapper);
+  }
+
+  @Test
+  final void testBatchUpdateInvalidatesEarlierIfMatch() throws Exception {
+    final ApiResult created = handler.handle(request("POST", "/v1/items", "{\"value\":\"a\"}"));
+    final String itemId = mapper.readTree(created.body()).get("item_id").asText();
+    final String itemPath = "/v1/items/" + itemId;
+
+    final ApiResult updated =
+        handler.handle(request("PUT", itemPath, "{\"value\":\"b\"}", "\"1\""));
+    final String staleETag = updated.headers().get("ETag");
+    final ApiResult batch = handler.handle(request("POST", "/v1/items:batch", update(itemId)));
+    final ApiResult stale =
+        handler.handle(request("PUT", itemPath, "{\"value\":\"d\"}", staleETag));
+
+    assertEquals(200, updated.statusCode());
+    assertEquals("\"2\"", staleETag);
+    assertEquals("updated", mapper.readTree(batch.body()).at("/results/0/status").asText());
+    assertEquals(412, stale.statusCode());
+    final ApiResult current = handler.handle(request("GET", itemPath, null));
+    assertEquals("\"3\"", current.headers().get("ETag"));
+    assertEquals("c", mapper.readTree(current.body()).get("value").asText());
+    assertEquals(
+        mapper.readTree(created.body()).get("created_at"),
+        mapper.readTree(current.body()).get("created_at"));
+  }
+
+  @Test
+  final void testBatchUpdateChangesETagSoOldOneIsNotModifiedNoLonger() throws Exception {
+    final ApiResult created = handler.handle(request("POST", "/v1/items", "{\"value\":\"a\"}"));
+    final String itemId = mapper.readTree(created.body()).get("item_id").asText();
+    final String itemPath = "/v1/items/" + itemId;
+    final String before = handler.handle(request("GET", itemPath, null)).headers().get("ETag");
+
+    handler.handle(request("POST", "/v1/items:batch", update(itemId)));
+    final ApiResult revalidated =
+        handler.handle(
+            new ApiRequest("GET", itemPath, Map.of("If-None-Match", before), null, null, "user-1"));
+
+    assertEquals("\"1\"", before);
+    assertEquals(200, revalidated.statusCode());
+    assertEquals("\"2\"", revalidated.headers().get("ETag"));
+    assertEquals("c", mapper.readTree(revalidated.body()).get("value").asText());
+  }
+
+  @Test
+  final void testBatchUpdateOfMissingItemFails() throws Exception {
+    final ApiResult batch = handler.handle(request("POST", "/v1/items:batch", update("missing")));
+
+    assertEquals("failed", mapper.readTree(batch.body()).at("/results/0/status").asText());
+    assertEquals(404, handler.handle(request("GET", "/v1/items/missing", null)).statusCode());
+  }
+
+  private static String update(final String itemId) {
+    return "{\"operations\":[{\"op\":\"update\",\"item_id\":\"" + itemId + "\",\"value\":\"c\"}]}";
+  }
+
+  private static ApiRequest request(final String method, final String path, final String body) {
+    return new ApiRequest(method, path, Map.of(), null, body, "user-1");
+  }
+
+  private static ApiRequest request(
+      final String method, final String path, final String body, final String ifMatch) {
+    return new ApiRequest(method, path, Map.of("If-Match", ifMatch), null, body, "user-1");
+  }
+}
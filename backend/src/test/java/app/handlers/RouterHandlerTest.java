@@ -4,23 +4,34 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import app.di.CompressionConfig;
+import app.di.CorsConfig;
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
 import app.model.UserItem;
+import app.repo.VersionConflictException;
 import app.service.ItemService;
-import app.web.ApiResponse;
 import app.web.ApiResponseFactory;
+import app.web.ApiResult;
+import app.web.ETags;
+import app.web.RequestBodyDecoder;
+import app.web.ResponseCompressor;
 import com.amazonaws.services.lambda.runtime.Context;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import java.util.Arrays;
+import java.util.EnumSet;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -34,29 +45,16 @@ public final class RouterHandlerTest {
   @Mock private Context context;
   @Mock private APIGatewayProxyRequestEvent.ProxyRequestContext requestContext;
   @Mock private APIGatewayProxyRequestEvent.RequestIdentity identity;
-  @Mock private ApiResponseFactory responseFactory;
 
   private RouterHandler handler;
   private ObjectMapper mapper;
+  private ApiResponseFactory responseFactory;
 
   @BeforeEach
   final void setUp() {
     mapper = new ObjectMapper();
-    // Mock the factory to return real ApiResponse instances
-    lenient()
-        .when(responseFactory.create(any(APIGatewayProxyRequestEvent.class)))
-        .thenAnswer(
-            invocation -> {
-              final APIGatewayProxyRequestEvent req = invocation.getArgument(0);
-              return new ApiResponse(mapper, req, List.of("http://localhost:5173"));
-            });
-    lenient()
-        .when(responseFactory.create(anyString()))
-        .thenAnswer(
-            invocation -> {
-              final String origin = invocation.getArgument(0);
-              return new ApiResponse(mapper, origin, List.of("http://localhost:5173"));
-            });
+    responseFactory =
+        new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173")));
     handler = new RouterHandler(itemService, responseFactory, mapper);
   }
 
@@ -105,13 +103,111 @@ public final class RouterHandlerTest {
   final void testGetItemsListAuthenticated() {
     final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
     setupAuthenticatedUser(request, "user123");
-    when(itemService.list("user123"))
-        .thenReturn(Arrays.asList(createTestItem("item1"), createTestItem("item2")));
+    final String json = "{\"items\":[{\"item_id\":\"item1\"}],\"next_cursor\":\"next\"}";
+    when(itemService.listPageJson("user123", 100, null, null)).thenReturn(json);
 
     final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
 
     assertEquals(200, response.getStatusCode());
-    assertTrue(response.getBody().contains("\"items\""));
+    assertEquals(json, response.getBody());
+  }
+
+  @Test
+  final void testGetItemsListPassesRequestedFields() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
+    request.setQueryStringParameters(Map.of("fields", "item_id,updated_at"));
+    setupAuthenticatedUser(request, "user123");
+    final Set<ItemField> fields = EnumSet.of(ItemField.ITEM_ID, ItemField.UPDATED_AT);
+    when(itemService.listPageJson("user123", 100, null, fields))
+        .thenReturn("{\"items\":[],\"next_cursor\":null}");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    verify(itemService).listPageJson("user123", 100, null, fields);
+  }
+
+  @Test
+  final void testGetItemsListRejectsUnknownField() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
+    request.setQueryStringParameters(Map.of("fields", "item_id,secret"));
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(400, response.getStatusCode());
+    assertTrue(response.getBody().contains("Unknown field: secret"));
+  }
+
+  @Test
+  final void testGetItemsListIsGzippedWhenAccepted() {
+    final RouterHandler compressing =
+        new RouterHandler(
+            itemService,
+            responseFactory,
+            new ResponseCompressor(new CompressionConfig(64)),
+            mapper);
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "GET",
+            "/v1/items",
+            null,
+            Map.of("origin", "http://localhost:5173", "Accept-Encoding", "gzip"));
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.listPageJson("user123", 100, null, null))
+        .thenReturn("{\"items\":[" + "{\"item_id\":\"item1\"},".repeat(20) + "{}]}");
+
+    final APIGatewayProxyResponseEvent response = compressing.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    assertTrue(response.getIsBase64Encoded());
+    assertEquals("gzip", response.getHeaders().get("Content-Encoding"));
+    assertEquals("Accept-Encoding", response.getHeaders().get("Vary"));
+    assertTrue(response.getHeaders().get("ETag").endsWith("-gzip\""));
+  }
+
+  @Test
+  final void testGetItemsListAnswers304WhenUnchanged() {
+    when(itemService.listPageJson("user123", 100, null, null))
+        .thenReturn("{\"items\":[],\"next_cursor\":null}");
+    final APIGatewayProxyRequestEvent first = createRequest("GET", "/v1/items", null, null);
+    setupAuthenticatedUser(first, "user123");
+    final String etag = handler.handleRequest(first, context).getHeaders().get("ETag");
+
+    final APIGatewayProxyRequestEvent second =
+        createRequest("GET", "/v1/items", null, Map.of("If-None-Match", etag));
+    setupAuthenticatedUser(second, "user123");
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(second, context);
+
+    assertEquals(304, response.getStatusCode());
+    assertEquals("", response.getBody());
+    assertEquals(etag, response.getHeaders().get("ETag"));
+  }
+
+  @Test
+  final void testGetItemsListWithLimitAndCursor() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
+    request.setQueryStringParameters(Map.of("limit", "25", "cursor", "abc"));
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.listPageJson("user123", 25, "abc", null))
+        .thenReturn("{\"items\":[],\"next_cursor\":null}");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    verify(itemService).listPageJson("user123", 25, "abc", null);
+  }
+
+  @Test
+  final void testGetItemsListInvalidLimit() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
+    request.setQueryStringParameters(Map.of("limit", "5000"));
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(400, response.getStatusCode());
+    assertTrue(response.getBody().contains("limit must be between 1 and 1000"));
   }
 
   @Test
@@ -183,20 +279,132 @@ public final class RouterHandlerTest {
     assertTrue(response.getBody().contains("Invalid body"));
   }
 
+  @Test
+  final void testCreateItemEscapedValue() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("POST", "/v1/items", "{\"value\":\"a \\\"quoted\\\" value\"}", null);
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.create("user123", "a \"quoted\" value")).thenReturn(createTestItem("item1"));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(201, response.getStatusCode());
+  }
+
+  @Test
+  final void testCreateItemBodyTooLarge() {
+    final String body =
+        "{\"value\":\"" + "a".repeat(RequestBodyDecoder.DEFAULT_MAX_BODY_CHARS) + "\"}";
+    final APIGatewayProxyRequestEvent request = createRequest("POST", "/v1/items", body, null);
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(413, response.getStatusCode());
+  }
+
+  @Test
+  final void testBatchWrite() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "POST",
+            "/v1/items:batch",
+            "{\"operations\":[{\"op\":\"delete\",\"item_id\":\"item1\"}]}",
+            null);
+    setupAuthenticatedUser(request, "user123");
+    final List<BatchOperation> ops =
+        List.of(new BatchOperation(BatchOperation.Type.DELETE, "item1", null));
+    when(itemService.batch("user123", ops))
+        .thenReturn(List.of(new BatchResult("item1", "deleted")));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    assertTrue(response.getBody().contains("\"status\":\"deleted\""));
+  }
+
+  @Test
+  final void testBatchWriteInvalidBody() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("POST", "/v1/items:batch", "{\"operations\":[]}", null);
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(400, response.getStatusCode());
+    assertTrue(response.getBody().contains("operations"));
+  }
+
+  @Test
+  final void testBatchWriteWrongMethod() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items:batch", null, null);
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(405, response.getStatusCode());
+  }
+
+  @Test
+  final void testBatchGet() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("POST", "/v1/items:batchGet", "{\"ids\":[\"item1\",\"item2\"]}", null);
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.getMany("user123", List.of("item1", "item2")))
+        .thenReturn(
+            List.of(
+                BatchGetResult.of("item1", createTestItem("item1")),
+                BatchGetResult.of("item2", null)));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    assertTrue(response.getBody().contains("\"found\":false"));
+  }
+
+  @Test
+  final void testBatchGetInvalidBody() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("POST", "/v1/items:batchGet", "{\"ids\":[]}", null);
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(400, response.getStatusCode());
+  }
+
   @Test
   final void testGetSingleItemAuthenticated() {
     final APIGatewayProxyRequestEvent request =
         createRequest("GET", "/v1/items/item123", null, null);
     setupAuthenticatedUser(request, "user123");
-    final UserItem item = createTestItem("item123");
+    final UserItem item = createTestItem("item123", 3);
     when(itemService.get("user123", "item123")).thenReturn(Optional.of(item));
 
     final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
 
     assertEquals(200, response.getStatusCode());
+    assertEquals("\"3\"", response.getHeaders().get("ETag"));
     verify(itemService).get("user123", "item123");
   }
 
+  @Test
+  final void testGetSingleItemWithFieldsWritesOnlyThose() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("GET", "/v1/items/item123", null, null);
+    request.setQueryStringParameters(Map.of("fields", "item_id,version"));
+    setupAuthenticatedUser(request, "user123");
+    final Set<ItemField> fields = EnumSet.of(ItemField.ITEM_ID, ItemField.VERSION);
+    when(itemService.get("user123", "item123", fields))
+        .thenReturn(Optional.of(createTestItem("item123", 3)));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    assertEquals("{\"item_id\":\"item123\",\"version\":3}", response.getBody());
+    assertEquals(ETags.ofContent(response.getBody()), response.getHeaders().get("ETag"));
+  }
+
   @Test
   final void testGetSingleItemNotFound() {
     final APIGatewayProxyRequestEvent request =
@@ -210,18 +418,88 @@ public final class RouterHandlerTest {
     assertTrue(response.getBody().contains("Not found"));
   }
 
+  @Test
+  final void testGetSingleItemAnswers304ForCurrentVersion() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("GET", "/v1/items/item123", null, Map.of("if-none-match", "W/\"3\""));
+    setupAuthenticatedUser(request, "user123");
+    final UserItem item = createTestItem("item123", 3);
+    when(itemService.get("user123", "item123")).thenReturn(Optional.of(item));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(304, response.getStatusCode());
+    assertEquals("\"3\"", response.getHeaders().get("ETag"));
+  }
+
   @Test
   final void testUpdateItemAuthenticated() {
     final APIGatewayProxyRequestEvent request =
         createRequest("PUT", "/v1/items/item123", "{\"value\":\"updated\"}", null);
     setupAuthenticatedUser(request, "user123");
-    final UserItem updatedItem = createTestItem("item123");
-    when(itemService.update("user123", "item123", "updated")).thenReturn(updatedItem);
+    final UserItem updatedItem = createTestItem("item123", 2);
+    when(itemService.update("user123", "item123", "updated", null))
+        .thenReturn(Optional.of(updatedItem));
 
     final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
 
     assertEquals(200, response.getStatusCode());
-    verify(itemService).update("user123", "item123", "updated");
+    assertEquals("\"2\"", response.getHeaders().get("ETag"));
+    verify(itemService).update("user123", "item123", "updated", null);
+  }
+
+  @Test
+  final void testUpdateItemPassesIfMatchVersion() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "PUT", "/v1/items/item123", "{\"value\":\"updated\"}", Map.of("if-match", "\"4\""));
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.update("user123", "item123", "updated", 4L))
+        .thenReturn(Optional.of(createTestItem("item123")));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+  }
+
+  @Test
+  final void testUpdateItemVersionConflictReturns412() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "PUT", "/v1/items/item123", "{\"value\":\"updated\"}", Map.of("If-Match", "\"4\""));
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.update("user123", "item123", "updated", 4L))
+        .thenThrow(new VersionConflictException("item123"));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(412, response.getStatusCode());
+  }
+
+  @Test
+  final void testUpdateItemWithUnusableIfMatchReturns412() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "PUT", "/v1/items/item123", "{\"value\":\"updated\"}", Map.of("If-Match", "W/\"4\""));
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(412, response.getStatusCode());
+    verify(itemService, never()).update(any(), any(), any(), any());
+  }
+
+  @Test
+  final void testUpdateMissingItemReturns404() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest(
+            "PUT", "/v1/items/item123", "{\"value\":\"updated\"}", Map.of("If-Match", "*"));
+    setupAuthenticatedUser(request, "user123");
+    when(itemService.update("user123", "item123", "updated", null)).thenReturn(Optional.empty());
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(404, response.getStatusCode());
   }
 
   @Test
@@ -279,6 +557,19 @@ public final class RouterHandlerTest {
 
     assertEquals(405, response.getStatusCode());
     assertTrue(response.getBody().contains("Method not allowed"));
+    assertEquals("GET, POST", response.getHeaders().get("Allow"));
+  }
+
+  @Test
+  final void testNestedItemPathIsNotFound() {
+    final APIGatewayProxyRequestEvent request =
+        createRequest("GET", "/v1/items/item123/extra", null, null);
+    setupAuthenticatedUser(request, "user123");
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(404, response.getStatusCode());
+    verify(itemService, never()).get(anyString(), anyString());
   }
 
   @Test
@@ -293,21 +584,22 @@ public final class RouterHandlerTest {
   }
 
   @Test
-  final void testIllegalArgumentException() {
+  final void testUnknownMethodIsNotAllowed() {
     final APIGatewayProxyRequestEvent request =
         createRequest("INVALID_METHOD", "/v1/me", null, null);
 
     final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
 
-    assertEquals(400, response.getStatusCode());
-    assertTrue(response.getBody().contains("Bad request:"));
+    assertEquals(405, response.getStatusCode());
+    assertEquals("GET", response.getHeaders().get("Allow"));
   }
 
   @Test
   final void testRuntimeException() {
     final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/items", null, null);
     setupAuthenticatedUser(request, "user123");
-    when(itemService.list("user123")).thenThrow(new RuntimeException("Database error"));
+    when(itemService.listPageJson("user123", 100, null, null))
+        .thenThrow(new RuntimeException("Database error"));
 
     final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
 
@@ -335,6 +627,15 @@ public final class RouterHandlerTest {
     assertTrue(response.getBody().contains("\"userId\":\"anonymous\""));
   }
 
+  @Test
+  final void testMalformedRequestCarriesDefaultCorsHeaders() {
+    final ApiResult result = handler.malformedRequest("Bad request: malformed query string");
+
+    assertEquals(400, result.statusCode());
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
+    assertTrue(result.body().contains("malformed query string"));
+  }
+
   @Test
   final void testExtractUserIdWithNullSub() {
     final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/me", null, null);
@@ -380,6 +681,19 @@ public final class RouterHandlerTest {
     assertTrue(response.getBody().contains("\"userId\":\"anonymous\""));
   }
 
+  @Test
+  final void testExtractUserIdFromJwtAuthorizer() {
+    final APIGatewayProxyRequestEvent request = createRequest("GET", "/v1/me", null, null);
+    request.setRequestContext(requestContext);
+    when(requestContext.getAuthorizer())
+        .thenReturn(Map.of("jwt", Map.of("claims", Map.of("sub", "jwt-user"))));
+
+    final APIGatewayProxyResponseEvent response = handler.handleRequest(request, context);
+
+    assertEquals(200, response.getStatusCode());
+    assertTrue(response.getBody().contains("\"userId\":\"jwt-user\""));
+  }
+
   @Test
   final void testExtractUserIdWithNullRequest() {
     final APIGatewayProxyResponseEvent response = handler.handleRequest(null, context);
@@ -411,12 +725,11 @@ public final class RouterHandlerTest {
   }
 
   private UserItem createTestItem(final String itemId) {
-    final UserItem item = new UserItem();
-    item.itemId = itemId;
-    item.userId = "user123";
-    item.value = "test value";
-    item.createdAt = System.currentTimeMillis();
-    item.updatedAt = System.currentTimeMillis();
-    return item;
+    return createTestItem(itemId, 1);
+  }
+
+  private UserItem createTestItem(final String itemId, final long version) {
+    final long now = System.currentTimeMillis();
+    return new UserItem("user123", itemId, "test value", now, now, version);
   }
 }
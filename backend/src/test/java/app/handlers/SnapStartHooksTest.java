@@ -0,0 +1,171 @@
+package app.handlers;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.di.RestorableAsyncHttpClient;
+import app.di.RestorableCredentialsProvider;
+import app.di.RestorableHttpClient;
+import app.repo.AsyncUserItemRepository;
+import app.repo.InMemoryUserItemTable;
+import app.repo.SyncItemRepository;
+import app.repo.UserItemRecord;
+import app.repo.UserItemRepository;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.http.SdkHttpClient;
+import software.amazon.awssdk.http.async.SdkAsyncHttpClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+
+@ExtendWith(MockitoExtension.class)
+public final class SnapStartHooksTest {
+
+  @Mock private DynamoDbEnhancedClient enhancedClient;
+
+  @Mock private DynamoDbClient ddb;
+
+  @Mock private DynamoDbEnhancedAsyncClient enhancedAsyncClient;
+
+  @Mock private DynamoDbAsyncTable<UserItemRecord> asyncTable;
+
+  @Mock private DynamoDbAsyncClient asyncDdb;
+
+  private InMemoryUserItemTable table;
+  private UserItemRepository repository;
+  private RouterHandler handler;
+
+  @BeforeEach
+  final void setUp() {
+    table = new InMemoryUserItemTable();
+    when(enhancedClient.<UserItemRecord>table(
+            eq("items"), ArgumentMatchers.<TableSchema<UserItemRecord>>any()))
+        .thenReturn(table);
+    repository = new UserItemRepository(enhancedClient, ddb, "items", Runnable::run);
+    final ObjectMapper mapper = new ObjectMapper();
+    final ApiResponseFactory responseFactory =
+        new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173")));
+    handler =
+        new RouterHandler(
+            new ItemService(new SyncItemRepository(repository)), responseFactory, mapper);
+  }
+
+  @Test
+  final void testBeforeCheckpointOnlyReadsFromTheTable() {
+    handler.beforeCheckpoint(null);
+
+    // One GetItem for the missing warm-up item and one DescribeTable; no writes at all.
+    assertEquals(2, table.requestCount());
+    assertEquals(0, table.size());
+    verifyNoInteractions(ddb);
+  }
+
+  @Test
+  final void testAfterRestoreReconnectsRepository() {
+    repository.afterRestore(null);
+
+    assertEquals(1, table.requestCount());
+  }
+
+  @Test
+  final void testHttpClientIsRebuiltAroundCheckpoint() {
+    final List<SdkHttpClient> built = new ArrayList<>();
+    final RestorableHttpClient client =
+        new RestorableHttpClient(
+            () -> {
+              final SdkHttpClient c = mock(SdkHttpClient.class);
+              built.add(c);
+              return c;
+            });
+
+    client.beforeCheckpoint(null);
+    client.afterRestore(null);
+
+    assertEquals(3, built.size());
+    verify(built.get(0)).close();
+    verify(built.get(1)).close();
+  }
+
+  @Test
+  final void testAfterRestoreReconnectsAsyncRepository() {
+    when(asyncTable.describeTable()).thenReturn(completedFuture(null));
+
+    asyncRepository().afterRestore(null);
+
+    verify(asyncTable).describeTable();
+    verifyNoInteractions(asyncDdb);
+  }
+
+  @Test
+  final void testFailedAsyncReconnectDoesNotFailRestore() {
+    when(asyncTable.describeTable())
+        .thenReturn(failedFuture(SdkClientException.create("connection refused")));
+
+    asyncRepository().afterRestore(null);
+
+    verify(asyncTable).describeTable();
+  }
+
+  @Test
+  final void testAsyncHttpClientIsRebuiltAroundCheckpoint() {
+    final List<SdkAsyncHttpClient> built = new ArrayList<>();
+    final RestorableAsyncHttpClient client =
+        new RestorableAsyncHttpClient(
+            () -> {
+              final SdkAsyncHttpClient c = mock(SdkAsyncHttpClient.class);
+              built.add(c);
+              return c;
+            });
+
+    client.beforeCheckpoint(null);
+    client.afterRestore(null);
+
+    assertEquals(3, built.size());
+    verify(built.get(0)).close();
+    verify(built.get(1)).close();
+  }
+
+  @Test
+  final void testCredentialsAreReresolvedAfterRestore() {
+    final List<String> keys = new ArrayList<>(List.of("before", "after"));
+    final RestorableCredentialsProvider provider =
+        new RestorableCredentialsProvider(
+            () ->
+                StaticCredentialsProvider.create(
+                    AwsBasicCredentials.create(keys.remove(0), "secret")));
+
+    assertEquals("before", provider.resolveCredentials().accessKeyId());
+    provider.afterRestore(null);
+    assertEquals("after", provider.resolveCredentials().accessKeyId());
+  }
+
+  private AsyncUserItemRepository asyncRepository() {
+    when(enhancedAsyncClient.<UserItemRecord>table(
+            eq("items"), ArgumentMatchers.<TableSchema<UserItemRecord>>any()))
+        .thenReturn(asyncTable);
+    return new AsyncUserItemRepository(enhancedAsyncClient, asyncDdb, "items", Runnable::run);
+  }
+}
@@ -0,0 +1,96 @@
+package app.handlers;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.model.UserItem;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class StreamingRouterHandlerTest {
+
+  @Mock private ItemService itemService;
+
+  private ObjectMapper mapper;
+  private StreamingRouterHandler handler;
+
+  @BeforeEach
+  final void setUp() {
+    mapper = new ObjectMapper();
+    final RouterHandler router =
+        new RouterHandler(
+            itemService,
+            new ApiResponseFactory(mapper, new CorsConfig(List.of("http://localhost:5173"))),
+            mapper);
+    handler = new StreamingRouterHandler(router, mapper.getFactory());
+  }
+
+  @Test
+  final void testRoutesAuthenticatedRequest() throws Exception {
+    when(itemService.get("user-1", "item1"))
+        .thenReturn(Optional.of(new UserItem("user-1", "item1", "hi \"there\"", 1L, 2L, 3L)));
+
+    final JsonNode response =
+        invoke(
+            "{\"httpMethod\":\"GET\",\"path\":\"/v1/items/item1\","
+                + "\"headers\":{\"origin\":\"http://localhost:5173\"},"
+                + "\"requestContext\":{\"authorizer\":{\"claims\":{\"sub\":\"user-1\"}}}}");
+
+    assertEquals(200, response.get("statusCode").asInt());
+    assertEquals(
+        "http://localhost:5173",
+        response.get("headers").get("Access-Control-Allow-Origin").asText());
+    final JsonNode item = mapper.readTree(response.get("body").asText());
+    assertEquals("hi \"there\"", item.get("value").asText());
+  }
+
+  @Test
+  final void testBase64RequestGetsPlainResponse() throws Exception {
+    // The REST API treats every media type as binary, so request bodies arrive base64-encoded.
+    when(itemService.create("user-1", "hello"))
+        .thenReturn(new UserItem("user-1", "item1", "hello", 1L, 1L, 1L));
+    final byte[] body = "{\"value\":\"hello\"}".getBytes(StandardCharsets.UTF_8);
+
+    final JsonNode response =
+        invoke(
+            "{\"httpMethod\":\"POST\",\"path\":\"/v1/items\",\"body\":\""
+                + Base64.getEncoder().encodeToString(body)
+                + "\",\"isBase64Encoded\":true,"
+                + "\"requestContext\":{\"authorizer\":{\"claims\":{\"sub\":\"user-1\"}}}}");
+
+    assertEquals(201, response.get("statusCode").asInt());
+    assertFalse(response.get("isBase64Encoded").asBoolean());
+    assertEquals("hello", mapper.readTree(response.get("body").asText()).get("value").asText());
+  }
+
+  @Test
+  final void testAnonymousRequestIsRejected() throws Exception {
+    final JsonNode response =
+        invoke("{\"httpMethod\":\"GET\",\"path\":\"/v1/items\",\"requestContext\":{}}");
+
+    assertEquals(401, response.get("statusCode").asInt());
+  }
+
+  private JsonNode invoke(final String event) throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    handler.handleRequest(
+        new ByteArrayInputStream(event.getBytes(StandardCharsets.UTF_8)), out, null);
+    return mapper.readTree(out.toByteArray());
+  }
+}
@@ -0,0 +1,44 @@
+package app.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public final class ItemFieldTest {
+
+  @Test
+  final void testParseTrimsAndIgnoresOrder() {
+    assertEquals(
+        EnumSet.of(ItemField.ITEM_ID, ItemField.UPDATED_AT),
+        ItemField.parse("updated_at, item_id"));
+  }
+
+  @Test
+  final void testEveryFieldMeansNoProjection() {
+    assertNull(ItemField.parse(null));
+    assertNull(ItemField.parse("version,updated_at,created_at,value,item_id,user_id"));
+  }
+
+  @Test
+  final void testUnknownOrBlankNameIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> ItemField.parse("itemId"));
+    assertThrows(IllegalArgumentException.class, () -> ItemField.parse("item_id,"));
+  }
+
+  @Test
+  final void testSelectKeepsDeclarationOrder() {
+    final Map<String, Object> selected =
+        ItemField.select(
+            new UserItem("user-1", "item1", "hello", 1L, 2L, 3L),
+            ItemField.parse("version,item_id"));
+
+    assertEquals(List.of("item_id", "version"), List.copyOf(selected.keySet()));
+    assertEquals("item1", selected.get("item_id"));
+    assertEquals(3L, selected.get("version"));
+  }
+}
@@ -0,0 +1,234 @@
+package app.repo;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static java.util.concurrent.CompletableFuture.failedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.UserItem;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.reactivestreams.Subscription;
+import software.amazon.awssdk.core.async.SdkPublisher;
+import software.amazon.awssdk.core.exception.SdkClientException;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbAsyncTable;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedAsyncClient;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPagePublisher;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.services.dynamodb.DynamoDbAsyncClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+
+@ExtendWith(MockitoExtension.class)
+public final class AsyncUserItemRepositoryTest {
+
+  @Mock private DynamoDbEnhancedAsyncClient enhancedClient;
+
+  @Mock private DynamoDbAsyncTable<UserItemRecord> table;
+
+  @Mock private DynamoDbAsyncClient ddb;
+
+  private AsyncUserItemRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    when(enhancedClient.<UserItemRecord>table(
+            eq("items"), ArgumentMatchers.<TableSchema<UserItemRecord>>any()))
+        .thenReturn(table);
+    repository = new AsyncUserItemRepository(enhancedClient, ddb, "items", Runnable::run);
+  }
+
+  @Test
+  final void testPutCompletesWithModel() {
+    when(table.putItem(any(UserItemRecord.class))).thenReturn(completedFuture(null));
+
+    final UserItem result = repository.put("user123", "item1", "v", 5L).join();
+
+    assertEquals("item1", result.itemId());
+    assertEquals(5L, result.updatedAt());
+  }
+
+  @Test
+  final void testUpdateOfMissingItemCompletesEmpty() {
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(failedFuture(ConditionalCheckFailedException.builder().build()));
+
+    assertFalse(repository.update("user123", "item1", "v", null, 5L).join().isPresent());
+  }
+
+  @Test
+  final void testUpdateOfChangedItemFailsWithConflict() {
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(
+            failedFuture(
+                ConditionalCheckFailedException.builder()
+                    .item(Map.of("version", AttributeValue.fromN("5")))
+                    .build()));
+
+    final CompletionException e =
+        assertThrows(
+            CompletionException.class,
+            () -> repository.update("user123", "item1", "v", 4L, 5L).join());
+    assertInstanceOf(VersionConflictException.class, e.getCause());
+  }
+
+  @Test
+  final void testGetMissingCompletesEmpty() {
+    when(table.getItem(any(Key.class))).thenReturn(completedFuture(null));
+
+    final Optional<UserItem> result = repository.get("user123", "item1").join();
+
+    assertFalse(result.isPresent());
+  }
+
+  @Test
+  final void testBatchWriteSendsChunksConcurrentlyAndKeepsOrder() {
+    final BatchWriteResult processed = mock(BatchWriteResult.class);
+    when(processed.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+    when(processed.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(completedFuture(processed));
+    final List<BatchOperation> ops = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      ops.add(new BatchOperation(BatchOperation.Type.CREATE, "item" + i, "v"));
+    }
+
+    final List<BatchResult> results = repository.batchWrite("user123", ops, 1L).join();
+
+    verify(enhancedClient, times(2)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+    assertEquals(30, results.size());
+    assertEquals(new BatchResult("item29", "created"), results.get(29));
+  }
+
+  @Test
+  final void testBatchUpdatesUseConditionalUpdateItem() {
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(failedFuture(ConditionalCheckFailedException.builder().build()));
+
+    final List<BatchOperation> ops =
+        List.of(new BatchOperation(BatchOperation.Type.UPDATE, "missing", "v"));
+
+    final List<BatchResult> results = repository.batchWrite("user123", ops, 1L).join();
+
+    assertEquals(List.of(new BatchResult("missing", "failed")), results);
+    verify(enhancedClient, never()).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+  }
+
+  @Test
+  final void testBatchWriteRetriesUnprocessedItems() {
+    final BatchWriteResult partial = mock(BatchWriteResult.class);
+    when(partial.unprocessedPutItemsForTable(table)).thenReturn(List.of(createTestRecord("item1")));
+    when(partial.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    final BatchWriteResult processed = mock(BatchWriteResult.class);
+    when(processed.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+    when(processed.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(completedFuture(partial))
+        .thenReturn(completedFuture(processed));
+
+    final List<BatchOperation> ops =
+        List.of(new BatchOperation(BatchOperation.Type.CREATE, "item1", "a"));
+
+    final List<BatchResult> results = repository.batchWrite("user123", ops, 1L).join();
+
+    verify(enhancedClient, times(2)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+    assertEquals(List.of(new BatchResult("item1", "created")), results);
+  }
+
+  @Test
+  final void testBatchWriteMarksChunkFailedOnSdkError() {
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(failedFuture(SdkClientException.create("connection reset")));
+
+    final List<BatchOperation> ops =
+        List.of(new BatchOperation(BatchOperation.Type.DELETE, "item1", null));
+
+    final List<BatchResult> results = repository.batchWrite("user123", ops, 1L).join();
+
+    assertEquals(List.of(new BatchResult("item1", "failed")), results);
+  }
+
+  @Test
+  final void testGetManyRedrivesUnprocessedKeys() {
+    final Key pending = Key.builder().partitionValue("user123").sortValue("item2").build();
+    final BatchGetResultPage first = mock(BatchGetResultPage.class);
+    when(first.resultsForTable(table)).thenReturn(List.of(createTestRecord("item1")));
+    when(first.unprocessedKeysForTable(table)).thenReturn(List.of(pending));
+    final BatchGetResultPage second = mock(BatchGetResultPage.class);
+    when(second.resultsForTable(table)).thenReturn(List.of(createTestRecord("item2")));
+    when(second.unprocessedKeysForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class)))
+        .thenReturn(BatchGetResultPagePublisher.create(publisherOf(first)))
+        .thenReturn(BatchGetResultPagePublisher.create(publisherOf(second)));
+
+    final List<BatchGetResult> results =
+        repository.getMany("user123", List.of("item1", "item2", "item3")).join();
+
+    assertTrue(results.get(0).found());
+    assertTrue(results.get(1).found());
+    assertFalse(results.get(2).found());
+  }
+
+  /** Emits {@code values} on demand, honouring cancellation. */
+  @SafeVarargs
+  private static <T> SdkPublisher<T> publisherOf(final T... values) {
+    return subscriber ->
+        subscriber.onSubscribe(
+            new Subscription() {
+              private int next;
+              private boolean done;
+
+              @Override
+              public void request(final long n) {
+                for (long i = 0; i < n && !done && next < values.length; i++) {
+                  subscriber.onNext(values[next++]);
+                }
+                if (!done && next == values.length) {
+                  done = true;
+                  subscriber.onComplete();
+                }
+              }
+
+              @Override
+              public void cancel() {
+                done = true;
+              }
+            });
+  }
+
+  private static UserItemRecord createTestRecord(final String itemId) {
+    final UserItemRecord record = new UserItemRecord();
+    record.setUserId("user123");
+    record.setItemId(itemId);
+    record.setValue("test value");
+    return record;
+  }
+}
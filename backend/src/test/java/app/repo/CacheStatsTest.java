@@ -0,0 +1,21 @@
+package app.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+public final class CacheStatsTest {
+
+  @Test
+  final void testLogLineIsOneJsonObject() {
+    assertEquals(
+        "{\"event\":\"item_cache_stats\",\"hits\":3,\"misses\":1,\"hit_ratio\":0.7500,"
+            + "\"evictions\":2,\"expirations\":0,\"entries\":5,\"bytes\":640}",
+        new CacheStats(3, 1, 2, 0, 5, 640).toLogLine());
+  }
+
+  @Test
+  final void testHitRatioIsZeroBeforeAnyLookup() {
+    assertEquals(0.0, new CacheStats(0, 0, 0, 0, 0, 0).hitRatio());
+  }
+}
@@ -0,0 +1,192 @@
+package app.repo;
+
+import static java.util.concurrent.CompletableFuture.completedFuture;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import app.model.BatchOperation;
+import app.model.ItemField;
+import app.model.UserItem;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class CachingItemRepositoryTest {
+
+  @Mock private ItemRepository delegate;
+
+  private long now;
+  private CachingItemRepository repository;
+
+  @BeforeEach
+  void setUp() {
+    repository = new CachingItemRepository(delegate, 100, 1 << 20, 60_000, 0, () -> now);
+  }
+
+  @Test
+  final void testGetIsServedFromCacheUntilTtl() {
+    final UserItem item = item("item1", "v1");
+    when(delegate.get("user123", "item1")).thenReturn(completedFuture(Optional.of(item)));
+
+    repository.get("user123", "item1").join();
+    repository.get("user123", "item1").join();
+    now = 60_000;
+    repository.get("user123", "item1").join();
+
+    verify(delegate, times(2)).get("user123", "item1");
+    assertEquals(new CacheStats(1, 2, 0, 1, 1, repository.stats().bytes()), repository.stats());
+  }
+
+  @Test
+  final void testMissingItemsAreNotCached() {
+    when(delegate.get("user123", "item1")).thenReturn(completedFuture(Optional.empty()));
+
+    repository.get("user123", "item1").join();
+    repository.get("user123", "item1").join();
+
+    verify(delegate, times(2)).get("user123", "item1");
+  }
+
+  @Test
+  final void testPutReplacesItemAndDropsListPage() {
+    when(delegate.listPageJson("user123", 100, null, null)).thenReturn(completedFuture("page"));
+    final UserItem updated = item("item1", "v2");
+    when(delegate.put("user123", "item1", "v2", 5L)).thenReturn(completedFuture(updated));
+
+    repository.listPageJson("user123", 100, null, null).join();
+    repository.put("user123", "item1", "v2", 5L).join();
+
+    assertEquals(updated, repository.get("user123", "item1").join().orElseThrow());
+    repository.listPageJson("user123", 100, null, null).join();
+    verify(delegate, times(2)).listPageJson("user123", 100, null, null);
+  }
+
+  @Test
+  final void testListPageJsonCachesOnlyFirstPageForSameLimit() {
+    when(delegate.listPageJson("user123", 100, null, null)).thenReturn(completedFuture("{}"));
+    when(delegate.listPageJson("user123", 10, null, null)).thenReturn(completedFuture("{}"));
+    when(delegate.listPageJson("user123", 100, "next", null)).thenReturn(completedFuture("{}"));
+
+    repository.listPageJson("user123", 100, null, null).join();
+    repository.listPageJson("user123", 100, null, null).join();
+    repository.listPageJson("user123", 10, null, null).join();
+    repository.listPageJson("user123", 100, "next", null).join();
+    repository.listPageJson("user123", 100, "next", null).join();
+
+    verify(delegate).listPageJson("user123", 100, null, null);
+    verify(delegate).listPageJson("user123", 10, null, null);
+    verify(delegate, times(2)).listPageJson("user123", 100, "next", null);
+  }
+
+  @Test
+  final void testListPageJsonIsCachedPerFieldSet() {
+    final Set<ItemField> fields = EnumSet.of(ItemField.ITEM_ID, ItemField.UPDATED_AT);
+    when(delegate.listPageJson("user123", 100, null, null)).thenReturn(completedFuture("full"));
+    when(delegate.listPageJson("user123", 100, null, fields))
+        .thenReturn(completedFuture("partial"));
+
+    assertEquals("full", repository.listPageJson("user123", 100, null, null).join());
+    assertEquals("partial", repository.listPageJson("user123", 100, null, fields).join());
+    assertEquals("partial", repository.listPageJson("user123", 100, null, fields).join());
+
+    verify(delegate).listPageJson("user123", 100, null, fields);
+  }
+
+  @Test
+  final void testPartialItemIsNotCached() {
+    final Set<ItemField> fields = EnumSet.of(ItemField.VALUE);
+    final UserItem partial = new UserItem(null, "item1", "v", 0L, 0L, 0L);
+    final UserItem whole = new UserItem("user123", "item1", "v", 1L, 2L, 3L);
+    when(delegate.get("user123", "item1", fields))
+        .thenReturn(completedFuture(Optional.of(partial)));
+    when(delegate.get("user123", "item1")).thenReturn(completedFuture(Optional.of(whole)));
+
+    repository.get("user123", "item1", fields).join();
+    assertEquals(whole, repository.get("user123", "item1").join().orElseThrow());
+    assertEquals(whole, repository.get("user123", "item1", fields).join().orElseThrow());
+
+    verify(delegate).get("user123", "item1", fields);
+  }
+
+  @Test
+  final void testListPageJsonIsCachedAndDroppedOnWrite() {
+    when(delegate.listPageJson("user123", 100, null, null)).thenReturn(completedFuture("{}"));
+    when(delegate.delete("user123", "item1")).thenReturn(completedFuture(null));
+
+    assertEquals("{}", repository.listPageJson("user123", 100, null, null).join());
+    assertEquals("{}", repository.listPageJson("user123", 100, null, null).join());
+    repository.delete("user123", "item1").join();
+    repository.listPageJson("user123", 100, null, null).join();
+
+    verify(delegate, times(2)).listPageJson("user123", 100, null, null);
+  }
+
+  @Test
+  final void testDeleteAndBatchInvalidate() {
+    when(delegate.get("user123", "item1"))
+        .thenReturn(completedFuture(Optional.of(item("item1", "v1"))));
+    when(delegate.delete("user123", "item1")).thenReturn(completedFuture(null));
+    when(delegate.batchWrite(eq("user123"), anyList(), anyLong()))
+        .thenReturn(completedFuture(List.of()));
+
+    repository.get("user123", "item1").join();
+    repository.delete("user123", "item1").join();
+    repository.get("user123", "item1").join();
+    repository
+        .batchWrite(
+            "user123", List.of(new BatchOperation(BatchOperation.Type.UPDATE, "item1", "v")), 1L)
+        .join();
+    repository.get("user123", "item1").join();
+
+    verify(delegate, times(3)).get("user123", "item1");
+  }
+
+  @Test
+  final void testReadOverlappingWriteDoesNotCacheStaleItem() {
+    final CompletableFuture<Optional<UserItem>> read = new CompletableFuture<>();
+    final UserItem stale = item("item1", "v1");
+    final UserItem updated = item("item1", "v2");
+    when(delegate.get("user123", "item1")).thenReturn(read);
+    when(delegate.put("user123", "item1", "v2", 5L)).thenReturn(completedFuture(updated));
+
+    final CompletableFuture<Optional<UserItem>> reader = repository.get("user123", "item1");
+    repository.put("user123", "item1", "v2", 5L).join();
+    read.complete(Optional.of(stale));
+
+    assertEquals(stale, reader.join().orElseThrow());
+    assertEquals(updated, repository.get("user123", "item1").join().orElseThrow());
+    verify(delegate).get("user123", "item1");
+  }
+
+  @Test
+  final void testFirstPageForOtherLimitOrFieldsCountsAsMiss() {
+    final Set<ItemField> fields = EnumSet.of(ItemField.VALUE);
+    when(delegate.listPageJson("user123", 100, null, null)).thenReturn(completedFuture("{}"));
+    when(delegate.listPageJson("user123", 10, null, null)).thenReturn(completedFuture("{}"));
+    when(delegate.listPageJson("user123", 10, null, fields)).thenReturn(completedFuture("{}"));
+
+    repository.listPageJson("user123", 100, null, null).join();
+    repository.listPageJson("user123", 10, null, null).join();
+    repository.listPageJson("user123", 10, null, fields).join();
+
+    assertEquals(0, repository.stats().hits());
+    assertEquals(3, repository.stats().misses());
+  }
+
+  private static UserItem item(final String itemId, final String value) {
+    return new UserItem("user123", itemId, value, 1L, 1L, 1L);
+  }
+}
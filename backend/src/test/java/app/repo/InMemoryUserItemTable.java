@@ -0,0 +1,169 @@
+package app.repo;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClientExtension;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbIndex;
+import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
+import software.amazon.awssdk.enhanced.dynamodb.Key;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.DescribeTableEnhancedResponse;
+import software.amazon.awssdk.enhanced.dynamodb.model.Page;
+import software.amazon.awssdk.enhanced.dynamodb.model.PageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.QueryEnhancedRequest;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.DescribeTableResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
+
+/** Map-backed {@link DynamoDbTable} honouring the subset of the API the repository uses. */
+public final class InMemoryUserItemTable implements DynamoDbTable<UserItemRecord> {
+  private static final TableSchema<UserItemRecord> SCHEMA = UserItemMapping.SCHEMA;
+
+  private final Map<String, NavigableMap<String, UserItemRecord>> partitions =
+      new ConcurrentHashMap<>();
+  private final AtomicInteger requests = new AtomicInteger();
+
+  public final int size() {
+    return partitions.values().stream().mapToInt(Map::size).sum();
+  }
+
+  public final int requestCount() {
+    return requests.get();
+  }
+
+  @Override
+  public final void putItem(final UserItemRecord item) {
+    requests.incrementAndGet();
+    partition(item.getUserId()).put(item.getItemId(), item);
+  }
+
+  @Override
+  public final UserItemRecord getItem(final Key key) {
+    requests.incrementAndGet();
+    return partition(key.partitionKeyValue().s()).get(sortValue(key));
+  }
+
+  @Override
+  public final UserItemRecord deleteItem(final Key key) {
+    requests.incrementAndGet();
+    return partition(key.partitionKeyValue().s()).remove(sortValue(key));
+  }
+
+  @Override
+  public final PageIterable<UserItemRecord> query(
+      final Consumer<QueryEnhancedRequest.Builder> requestConsumer) {
+    final QueryEnhancedRequest.Builder builder = QueryEnhancedRequest.builder();
+    requestConsumer.accept(builder);
+    return query(builder.build());
+  }
+
+  @Override
+  public final PageIterable<UserItemRecord> query(final QueryEnhancedRequest request) {
+    requests.incrementAndGet();
+    final String userId =
+        request
+            .queryConditional()
+            .expression(SCHEMA, TableMetadata.primaryIndexName())
+            .expressionValues()
+            .values()
+            .iterator()
+            .next()
+            .s();
+    final Map<String, AttributeValue> startKey = request.exclusiveStartKey();
+    final NavigableMap<String, UserItemRecord> remaining =
+        startKey == null
+            ? partition(userId)
+            : partition(userId).tailMap(startKey.get("itemId").s(), false);
+    final int limit = request.limit() == null ? Integer.MAX_VALUE : request.limit();
+    final List<UserItemRecord> items = new ArrayList<>();
+    for (final UserItemRecord item : remaining.values()) {
+      if (items.size() == limit) {
+        break;
+      }
+      items.add(item);
+    }
+    // Like DynamoDB, a page that hits the limit always carries a LastEvaluatedKey.
+    final Map<String, AttributeValue> lastKey =
+        items.size() == limit ? keyFrom(items.get(items.size() - 1)).primaryKeyMap(SCHEMA) : null;
+    return PageIterable.create(() -> List.of(Page.create(items, lastKey)).iterator());
+  }
+
+  @Override
+  public final DescribeTableEnhancedResponse describeTable() {
+    requests.incrementAndGet();
+    return DescribeTableEnhancedResponse.builder()
+        .response(DescribeTableResponse.builder().build())
+        .build();
+  }
+
+  /**
+   * Applies an UpdateItem built by {@link UserItemMapping#updateRequest}, failing its condition the
+   * way DynamoDB would, so tests can route {@code DynamoDbClient.updateItem} here.
+   */
+  public final UpdateItemResponse applyUpdate(final UpdateItemRequest request) {
+    requests.incrementAndGet();
+    final Map<String, AttributeValue> values = request.expressionAttributeValues();
+    final UserItemRecord existing =
+        partition(request.key().get("userId").s()).get(request.key().get("itemId").s());
+    final long version =
+        existing == null || existing.getVersion() == null ? 0L : existing.getVersion();
+    final Long expected =
+        values.containsKey(":expected")
+            ? Long.valueOf(values.get(":expected").n())
+            : request.conditionExpression().contains("attribute_not_exists") ? 0L : null;
+    if (existing == null || (expected != null && expected != version)) {
+      final ConditionalCheckFailedException.Builder failed =
+          ConditionalCheckFailedException.builder();
+      if (existing != null) {
+        failed.item(SCHEMA.itemToMap(existing, true));
+      }
+      throw failed.build();
+    }
+    existing.setValue(values.get(":value").s());
+    existing.setUpdatedAt(Long.valueOf(values.get(":now").n()));
+    existing.setVersion(version + 1);
+    return UpdateItemResponse.builder().attributes(SCHEMA.itemToMap(existing, true)).build();
+  }
+
+  @Override
+  public final DynamoDbEnhancedClientExtension mapperExtension() {
+    return null;
+  }
+
+  @Override
+  public final TableSchema<UserItemRecord> tableSchema() {
+    return SCHEMA;
+  }
+
+  @Override
+  public final String tableName() {
+    return "in-memory";
+  }
+
+  @Override
+  public final Key keyFrom(final UserItemRecord item) {
+    return Key.builder().partitionValue(item.getUserId()).sortValue(item.getItemId()).build();
+  }
+
+  @Override
+  public final DynamoDbIndex<UserItemRecord> index(final String indexName) {
+    throw new UnsupportedOperationException("indexes are not modelled");
+  }
+
+  private final NavigableMap<String, UserItemRecord> partition(final String userId) {
+    return partitions.computeIfAbsent(userId, k -> new ConcurrentSkipListMap<>());
+  }
+
+  private static String sortValue(final Key key) {
+    return key.sortKeyValue().orElseThrow().s();
+  }
+}
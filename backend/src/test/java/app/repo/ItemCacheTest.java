@@ -0,0 +1,111 @@
+package app.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+public final class ItemCacheTest {
+
+  private long now;
+
+  private ItemCache<String, String> cache(final int maxEntries, final long maxBytes) {
+    return new ItemCache<>(maxEntries, maxBytes, 1000, v -> v.length(), () -> now);
+  }
+
+  @Test
+  final void testEvictsLeastRecentlyUsedWhenFull() {
+    final ItemCache<String, String> cache = cache(2, 1000);
+    cache.put("a", "1");
+    cache.put("b", "2");
+    cache.get("a");
+
+    cache.put("c", "3");
+
+    assertEquals("1", cache.get("a"));
+    assertNull(cache.get("b"));
+    assertEquals(1, cache.stats().evictions());
+  }
+
+  @Test
+  final void testEvictsUntilUnderByteBound() {
+    final ItemCache<String, String> cache = cache(10, 10);
+    cache.put("a", "1234");
+    cache.put("b", "1234");
+
+    cache.put("c", "123456");
+
+    assertNull(cache.get("a"));
+    assertEquals(10, cache.stats().bytes());
+  }
+
+  @Test
+  final void testSkipsValuesLargerThanByteBound() {
+    final ItemCache<String, String> cache = cache(10, 4);
+
+    cache.put("a", "12345");
+
+    assertNull(cache.get("a"));
+    assertEquals(0, cache.stats().entries());
+  }
+
+  @Test
+  final void testExpiresAfterTtl() {
+    final ItemCache<String, String> cache = cache(10, 1000);
+    cache.put("a", "1");
+
+    now = 999;
+    assertEquals("1", cache.get("a"));
+    now = 1000;
+    assertNull(cache.get("a"));
+
+    assertEquals(new CacheStats(1, 1, 0, 1, 0, 0), cache.stats());
+  }
+
+  @Test
+  final void testInvalidateReleasesBytes() {
+    final ItemCache<String, String> cache = cache(10, 1000);
+    cache.put("a", "123");
+    cache.put("a", "12");
+
+    cache.invalidate("a");
+
+    assertEquals(0, cache.stats().bytes());
+  }
+
+  @Test
+  final void testLoadOverlappingInvalidateIsNotStored() {
+    final ItemCache<String, String> cache = cache(10, 1000);
+    final long generation = cache.generation("a");
+
+    cache.invalidate("a");
+    cache.putIfUnchanged("a", "stale", generation);
+
+    assertNull(cache.get("a"));
+    cache.putIfUnchanged("a", "fresh", cache.generation("a"));
+    assertEquals("fresh", cache.get("a"));
+  }
+
+  @Test
+  final void testOverlappingWritesDropTheEntry() {
+    final ItemCache<String, String> cache = cache(10, 1000);
+    final long first = cache.generation("a");
+    cache.invalidate("a");
+    final long second = cache.generation("a");
+
+    cache.replace("a", "2", second);
+    cache.replace("a", "1", first);
+
+    assertNull(cache.get("a"));
+  }
+
+  @Test
+  final void testMismatchedValueCountsAsMiss() {
+    final ItemCache<String, String> cache = cache(10, 1000);
+    cache.put("a", "1");
+
+    assertNull(cache.get("a", "2"::equals));
+
+    assertEquals(new CacheStats(0, 1, 0, 0, 1, 1), cache.stats());
+  }
+}
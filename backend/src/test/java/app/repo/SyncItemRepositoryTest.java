@@ -0,0 +1,55 @@
+package app.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import app.model.UserItem;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class SyncItemRepositoryTest {
+
+  @Mock private UserItemRepository delegate;
+
+  @Test
+  final void testReturnsCompletedFuture() {
+    final UserItem item = new UserItem("user123", "item1", "v", 1L, 1L, 1L);
+    when(delegate.get("user123", "item1")).thenReturn(Optional.of(item));
+
+    final CompletableFuture<Optional<UserItem>> result =
+        new SyncItemRepository(delegate).get("user123", "item1");
+
+    assertTrue(result.isDone());
+    assertEquals(Optional.of(item), result.join());
+  }
+
+  @Test
+  final void testFailureBecomesFailedFuture() {
+    when(delegate.listPageJson("user123", 10, "bad", null))
+        .thenThrow(new IllegalArgumentException("Invalid cursor"));
+
+    final CompletableFuture<?> result =
+        new SyncItemRepository(delegate).listPageJson("user123", 10, "bad", null);
+
+    assertTrue(result.isCompletedExceptionally());
+    final CompletionException e = assertThrows(CompletionException.class, result::join);
+    assertInstanceOf(IllegalArgumentException.class, e.getCause());
+  }
+
+  @Test
+  final void testDeleteDelegates() {
+    new SyncItemRepository(delegate).delete("user123", "item1").join();
+
+    verify(delegate).delete("user123", "item1");
+  }
+}
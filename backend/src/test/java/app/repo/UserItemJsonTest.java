@@ -0,0 +1,65 @@
+package app.repo;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import app.model.ItemField;
+import app.model.Page;
+import app.model.UserItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+
+public final class UserItemJsonTest {
+  private static final ObjectMapper MAPPER =
+      new ObjectMapper().setPropertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE);
+
+  @Test
+  final void testPageMatchesMapperOutput() throws Exception {
+    final List<Map<String, AttributeValue>> items =
+        List.of(
+            UserItemMapping.SCHEMA.itemToMap(record("item1", "plain", 3L), true),
+            UserItemMapping.SCHEMA.itemToMap(record("item2", "quote \" é \n", null), true));
+
+    assertEquals(
+        MAPPER.writeValueAsString(new Page<>(models(items), "Y3Vyc29y")),
+        UserItemJson.page(items, "Y3Vyc29y"));
+  }
+
+  @Test
+  final void testLastPageWritesNullCursor() throws Exception {
+    assertEquals(
+        MAPPER.writeValueAsString(new Page<>(List.of(), null)), UserItemJson.page(List.of(), null));
+  }
+
+  @Test
+  final void testPageWritesOnlyRequestedFields() {
+    final List<Map<String, AttributeValue>> items =
+        List.of(UserItemMapping.SCHEMA.itemToMap(record("item1", "plain", 3L), true));
+
+    assertEquals(
+        "{\"items\":[{\"item_id\":\"item1\",\"version\":3}],\"next_cursor\":null}",
+        UserItemJson.page(items, null, EnumSet.of(ItemField.VERSION, ItemField.ITEM_ID)));
+  }
+
+  private static List<UserItem> models(final List<Map<String, AttributeValue>> items) {
+    return items.stream()
+        .map(item -> UserItemMapping.toModel(UserItemMapping.SCHEMA.mapToItem(item)))
+        .toList();
+  }
+
+  private static UserItemRecord record(
+      final String itemId, final String value, final Long version) {
+    final UserItemRecord r = new UserItemRecord();
+    r.setUserId("user123");
+    r.setItemId(itemId);
+    r.setValue(value);
+    r.setCreatedAt(1_700_000_000_000L);
+    r.setUpdatedAt(1_700_000_000_001L);
+    r.setVersion(version);
+    return r;
+  }
+}
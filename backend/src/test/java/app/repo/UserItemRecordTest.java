@@ -4,7 +4,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 
+import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
+import software.amazon.awssdk.enhanced.dynamodb.TableMetadata;
+import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
 
 public final class UserItemRecordTest {
 
@@ -63,4 +68,46 @@ public final class UserItemRecordTest {
     record.setUpdatedAt(updatedAt);
     assertEquals(updatedAt, record.getUpdatedAt());
   }
+
+  @Test
+  final void testStaticSchemaWritesWhatBeanSchemaWrites() {
+    final TableSchema<UserItemRecord> bean = TableSchema.fromBean(UserItemRecord.class);
+    final UserItemRecord record = UserItemMapping.toRecord("user123", "item456", "v", 42L);
+
+    assertEquals(bean.itemToMap(record, false), UserItemMapping.SCHEMA.itemToMap(record, false));
+    assertEquals(bean.itemToMap(record, true), UserItemMapping.SCHEMA.itemToMap(record, true));
+  }
+
+  @Test
+  final void testStaticSchemaReadsWhatBeanSchemaReads() {
+    final TableSchema<UserItemRecord> bean = TableSchema.fromBean(UserItemRecord.class);
+    final Map<String, AttributeValue> stored =
+        Map.of(
+            "userId", AttributeValue.fromS("user123"),
+            "itemId", AttributeValue.fromS("item456"),
+            "value", AttributeValue.fromS("v"),
+            "createdAt", AttributeValue.fromN("1"),
+            "updatedAt", AttributeValue.fromN("2"));
+
+    final UserItemRecord fromBean = bean.mapToItem(stored);
+    final UserItemRecord fromStatic = UserItemMapping.SCHEMA.mapToItem(stored);
+
+    assertEquals(fromBean.getUserId(), fromStatic.getUserId());
+    assertEquals(fromBean.getItemId(), fromStatic.getItemId());
+    assertEquals(fromBean.getValue(), fromStatic.getValue());
+    assertEquals(fromBean.getCreatedAt(), fromStatic.getCreatedAt());
+    assertEquals(fromBean.getUpdatedAt(), fromStatic.getUpdatedAt());
+    assertNull(fromStatic.getVersion());
+  }
+
+  @Test
+  final void testStaticSchemaKeys() {
+    final TableMetadata metadata = UserItemMapping.SCHEMA.tableMetadata();
+
+    assertEquals("userId", metadata.primaryPartitionKey());
+    assertEquals(List.of("itemId"), metadata.primarySortKey().stream().toList());
+    assertEquals(
+        TableSchema.fromBean(UserItemRecord.class).attributeNames(),
+        UserItemMapping.SCHEMA.attributeNames());
+  }
 }
@@ -2,17 +2,30 @@ package app.repo;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
+import app.model.ItemField;
 import app.model.UserItem;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.ArgumentMatchers;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -20,6 +33,20 @@ import software.amazon.awssdk.enhanced.dynamodb.DynamoDbEnhancedClient;
 import software.amazon.awssdk.enhanced.dynamodb.DynamoDbTable;
 import software.amazon.awssdk.enhanced.dynamodb.Key;
 import software.amazon.awssdk.enhanced.dynamodb.TableSchema;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPage;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchGetResultPageIterable;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteItemEnhancedRequest;
+import software.amazon.awssdk.enhanced.dynamodb.model.BatchWriteResult;
+import software.amazon.awssdk.services.dynamodb.DynamoDbClient;
+import software.amazon.awssdk.services.dynamodb.model.AttributeValue;
+import software.amazon.awssdk.services.dynamodb.model.ConditionalCheckFailedException;
+import software.amazon.awssdk.services.dynamodb.model.GetItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.GetItemResponse;
+import software.amazon.awssdk.services.dynamodb.model.QueryRequest;
+import software.amazon.awssdk.services.dynamodb.model.QueryResponse;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemRequest;
+import software.amazon.awssdk.services.dynamodb.model.UpdateItemResponse;
 
 @ExtendWith(MockitoExtension.class)
 public final class UserItemRepositoryTest {
@@ -28,6 +55,8 @@ public final class UserItemRepositoryTest {
 
   @Mock private DynamoDbTable<UserItemRecord> table;
 
+  @Mock private DynamoDbClient ddb;
+
   private UserItemRepository repository;
   private final String tableName = "test-table";
 
@@ -36,7 +65,7 @@ public final class UserItemRepositoryTest {
     when(enhancedClient.<UserItemRecord>table(
             eq(tableName), ArgumentMatchers.<TableSchema<UserItemRecord>>any()))
         .thenReturn(table);
-    repository = new UserItemRepository(enhancedClient, tableName);
+    repository = new UserItemRepository(enhancedClient, ddb, tableName, Runnable::run);
   }
 
   @Test
@@ -49,11 +78,63 @@ public final class UserItemRepositoryTest {
     final UserItem result = repository.put(userId, itemId, value, now);
 
     verify(table).putItem(any(UserItemRecord.class));
-    assertEquals(userId, result.userId);
-    assertEquals(itemId, result.itemId);
-    assertEquals(value, result.value);
-    assertEquals(now, result.createdAt);
-    assertEquals(now, result.updatedAt);
+    assertEquals(userId, result.userId());
+    assertEquals(itemId, result.itemId());
+    assertEquals(value, result.value());
+    assertEquals(now, result.createdAt());
+    assertEquals(now, result.updatedAt());
+    assertEquals(1L, result.version());
+  }
+
+  @Test
+  final void testUpdateChangesOnlyValueAndBumpsVersion() {
+    final UserItemRecord stored = createTestRecord("user123", "item456");
+    stored.setVersion(4L);
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(
+            UpdateItemResponse.builder()
+                .attributes(UserItemMapping.SCHEMA.itemToMap(stored, true))
+                .build());
+
+    final Optional<UserItem> result = repository.update("user123", "item456", "v", 3L, 9L);
+
+    assertEquals(4L, result.orElseThrow().version());
+    final ArgumentCaptor<UpdateItemRequest> captor =
+        ArgumentCaptor.forClass(UpdateItemRequest.class);
+    verify(ddb).updateItem(captor.capture());
+    final UpdateItemRequest request = captor.getValue();
+    assertEquals(tableName, request.tableName());
+    assertFalse(request.updateExpression().contains("createdAt"));
+    assertEquals("#version = :expected", request.conditionExpression());
+    assertEquals("3", request.expressionAttributeValues().get(":expected").n());
+    assertEquals("9", request.expressionAttributeValues().get(":now").n());
+  }
+
+  @Test
+  final void testUpdateWithoutExpectedVersionOnlyRequiresExistence() {
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenThrow(ConditionalCheckFailedException.builder().build());
+
+    final Optional<UserItem> result = repository.update("user123", "missing", "v", null, 9L);
+
+    assertFalse(result.isPresent());
+    final ArgumentCaptor<UpdateItemRequest> captor =
+        ArgumentCaptor.forClass(UpdateItemRequest.class);
+    verify(ddb).updateItem(captor.capture());
+    assertEquals("attribute_exists(#itemId)", captor.getValue().conditionExpression());
+  }
+
+  @Test
+  final void testUpdateOfChangedItemThrowsConflict() {
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenThrow(
+            ConditionalCheckFailedException.builder()
+                .item(Map.of("version", AttributeValue.fromN("5")))
+                .build());
+
+    assertThrows(
+        VersionConflictException.class,
+        () -> repository.update("user123", "item456", "v", 4L, 9L));
   }
 
   @Test
@@ -67,8 +148,8 @@ public final class UserItemRepositoryTest {
     final Optional<UserItem> result = repository.get(userId, itemId);
 
     assertTrue(result.isPresent());
-    assertEquals(userId, result.get().userId);
-    assertEquals(itemId, result.get().itemId);
+    assertEquals(userId, result.get().userId());
+    assertEquals(itemId, result.get().itemId());
   }
 
   @Test
@@ -93,6 +174,259 @@ public final class UserItemRepositoryTest {
     verify(table).deleteItem(any(Key.class));
   }
 
+  @Test
+  final void testListPageJsonQueriesTableDirectly() {
+    final Map<String, AttributeValue> lastKey =
+        Map.of("userId", AttributeValue.fromS("user123"), "itemId", AttributeValue.fromS("item1"));
+    when(ddb.query(any(QueryRequest.class)))
+        .thenReturn(
+            QueryResponse.builder()
+                .items(
+                    Map.of(
+                        "userId",
+                        AttributeValue.fromS("user123"),
+                        "itemId",
+                        AttributeValue.fromS("item1"),
+                        "value",
+                        AttributeValue.fromS("v"),
+                        "createdAt",
+                        AttributeValue.fromN("1"),
+                        "updatedAt",
+                        AttributeValue.fromN("2")))
+                .lastEvaluatedKey(lastKey)
+                .build());
+
+    final String json = repository.listPageJson("user123", 1, "aXRlbTA", null);
+
+    assertEquals(
+        "{\"items\":[{\"user_id\":\"user123\",\"item_id\":\"item1\",\"value\":\"v\","
+            + "\"created_at\":1,\"updated_at\":2,\"version\":0}],\"next_cursor\":\"aXRlbTE\"}",
+        json);
+    final ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+    verify(ddb).query(captor.capture());
+    assertEquals(tableName, captor.getValue().tableName());
+    assertEquals(1, captor.getValue().limit());
+    assertEquals(
+        AttributeValue.fromS("user123"),
+        captor.getValue().expressionAttributeValues().get(":userId"));
+    assertEquals(
+        AttributeValue.fromS("item0"), captor.getValue().exclusiveStartKey().get("itemId"));
+  }
+
+  @Test
+  final void testListPageJsonProjectsRequestedFields() {
+    when(ddb.query(any(QueryRequest.class)))
+        .thenReturn(
+            QueryResponse.builder()
+                .items(
+                    Map.of(
+                        "itemId",
+                        AttributeValue.fromS("item1"),
+                        "updatedAt",
+                        AttributeValue.fromN("2")))
+                .build());
+
+    final String json =
+        repository.listPageJson(
+            "user123", 10, null, EnumSet.of(ItemField.ITEM_ID, ItemField.UPDATED_AT));
+
+    assertEquals(
+        "{\"items\":[{\"item_id\":\"item1\",\"updated_at\":2}],\"next_cursor\":null}", json);
+    final ArgumentCaptor<QueryRequest> captor = ArgumentCaptor.forClass(QueryRequest.class);
+    verify(ddb).query(captor.capture());
+    assertEquals("#itemId, #updatedAt", captor.getValue().projectionExpression());
+    assertEquals("updatedAt", captor.getValue().expressionAttributeNames().get("#updatedAt"));
+    assertEquals("userId", captor.getValue().expressionAttributeNames().get("#userId"));
+  }
+
+  @Test
+  final void testProjectedGetReadsOnlyRequestedAttributes() {
+    when(ddb.getItem(any(GetItemRequest.class)))
+        .thenReturn(
+            GetItemResponse.builder()
+                .item(
+                    Map.of(
+                        "itemId",
+                        AttributeValue.fromS("item1"),
+                        "value",
+                        AttributeValue.fromS("v")))
+                .build());
+
+    final UserItem item =
+        repository.get("user123", "item1", EnumSet.of(ItemField.VALUE)).orElseThrow();
+
+    assertEquals("v", item.value());
+    final ArgumentCaptor<GetItemRequest> captor = ArgumentCaptor.forClass(GetItemRequest.class);
+    verify(ddb).getItem(captor.capture());
+    assertEquals("#itemId, #value", captor.getValue().projectionExpression());
+    assertEquals("value", captor.getValue().expressionAttributeNames().get("#value"));
+  }
+
+  @Test
+  final void testProjectedGetOfMissingItemIsEmpty() {
+    when(ddb.getItem(any(GetItemRequest.class))).thenReturn(GetItemResponse.builder().build());
+
+    assertTrue(repository.get("user123", "item1", EnumSet.of(ItemField.VALUE)).isEmpty());
+  }
+
+  @Test
+  final void testListPageJsonRejectsMalformedCursor() {
+    assertThrows(
+        IllegalArgumentException.class, () -> repository.listPageJson("user123", 10, "%%%", null));
+  }
+
+  @Test
+  final void testBatchWriteChunksAndKeepsOrder() {
+    final BatchWriteResult processed = mock(BatchWriteResult.class);
+    when(processed.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+    when(processed.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(processed);
+    final List<BatchOperation> ops = new ArrayList<>();
+    for (int i = 0; i < 30; i++) {
+      ops.add(new BatchOperation(BatchOperation.Type.CREATE, "item" + i, "v"));
+    }
+    ops.add(new BatchOperation(BatchOperation.Type.DELETE, "gone", null));
+
+    final List<BatchResult> results = repository.batchWrite("user123", ops, 1L);
+
+    verify(enhancedClient, times(2)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+    assertEquals(31, results.size());
+    assertEquals(new BatchResult("item0", "created"), results.get(0));
+    assertEquals(new BatchResult("gone", "deleted"), results.get(30));
+  }
+
+  @Test
+  final void testBatchUpdatesUseConditionalUpdateItem() {
+    final UserItemRecord stored = createTestRecord("user123", "item1");
+    stored.setVersion(2L);
+    when(ddb.updateItem(any(UpdateItemRequest.class)))
+        .thenReturn(
+            UpdateItemResponse.builder()
+                .attributes(UserItemMapping.SCHEMA.itemToMap(stored, true))
+                .build())
+        .thenThrow(ConditionalCheckFailedException.builder().build());
+
+    final List<BatchResult> results =
+        repository.batchWrite(
+            "user123",
+            List.of(
+                new BatchOperation(BatchOperation.Type.UPDATE, "item1", "a"),
+                new BatchOperation(BatchOperation.Type.UPDATE, "missing", "b")),
+            1L);
+
+    assertEquals(
+        List.of(new BatchResult("item1", "updated"), new BatchResult("missing", "failed")),
+        results);
+    final ArgumentCaptor<UpdateItemRequest> captor =
+        ArgumentCaptor.forClass(UpdateItemRequest.class);
+    verify(ddb, times(2)).updateItem(captor.capture());
+    assertEquals("attribute_exists(#itemId)", captor.getValue().conditionExpression());
+    assertFalse(captor.getValue().updateExpression().contains("createdAt"));
+    verify(enhancedClient, never()).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+  }
+
+  @Test
+  final void testBatchWriteRetriesUnprocessedItems() {
+    final UserItemRecord unprocessed = createTestRecord("user123", "item1");
+    final BatchWriteResult partial = mock(BatchWriteResult.class);
+    when(partial.unprocessedPutItemsForTable(table)).thenReturn(List.of(unprocessed));
+    when(partial.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    final BatchWriteResult processed = mock(BatchWriteResult.class);
+    when(processed.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+    when(processed.unprocessedDeleteItemsForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(partial)
+        .thenReturn(processed);
+
+    final List<BatchResult> results =
+        repository.batchWrite(
+            "user123",
+            List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, "item1", "a"),
+                new BatchOperation(BatchOperation.Type.CREATE, "item2", "b")),
+            1L);
+
+    verify(enhancedClient, times(2)).batchWriteItem(any(BatchWriteItemEnhancedRequest.class));
+    assertEquals(
+        List.of(new BatchResult("item1", "created"), new BatchResult("item2", "created")),
+        results);
+  }
+
+  @Test
+  final void testBatchWriteReportsItemsStillUnprocessedAsFailed() {
+    final BatchWriteResult stuck = mock(BatchWriteResult.class);
+    when(stuck.unprocessedPutItemsForTable(table)).thenReturn(List.of());
+    when(stuck.unprocessedDeleteItemsForTable(table))
+        .thenReturn(List.of(Key.builder().partitionValue("user123").sortValue("item1").build()));
+    when(enhancedClient.batchWriteItem(any(BatchWriteItemEnhancedRequest.class)))
+        .thenReturn(stuck);
+
+    final List<BatchResult> results =
+        repository.batchWrite(
+            "user123",
+            List.of(
+                new BatchOperation(BatchOperation.Type.DELETE, "item1", null),
+                new BatchOperation(BatchOperation.Type.DELETE, "item2", null)),
+            1L);
+
+    assertEquals(
+        List.of(new BatchResult("item1", "failed"), new BatchResult("item2", "deleted")),
+        results);
+  }
+
+  @Test
+  final void testGetManyChunksAndKeepsRequestOrder() {
+    final List<String> ids = new ArrayList<>();
+    for (int i = 0; i < 150; i++) {
+      ids.add("item" + i);
+    }
+    ids.add("item0");
+    final BatchGetResultPage page = mock(BatchGetResultPage.class);
+    when(page.resultsForTable(table))
+        .thenReturn(List.of(createTestRecord("user123", "item0")))
+        .thenReturn(List.of());
+    when(page.unprocessedKeysForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class)))
+        .thenReturn(BatchGetResultPageIterable.create(() -> List.of(page).iterator()));
+
+    final List<BatchGetResult> results = repository.getMany("user123", ids);
+
+    verify(enhancedClient, times(2)).batchGetItem(any(BatchGetItemEnhancedRequest.class));
+    assertEquals(151, results.size());
+    assertTrue(results.get(0).found());
+    assertEquals("item0", results.get(0).item().itemId());
+    assertFalse(results.get(1).found());
+    assertEquals("item1", results.get(1).itemId());
+    assertTrue(results.get(150).found());
+  }
+
+  @Test
+  final void testGetManyRedrivesUnprocessedKeys() {
+    final Key pending = Key.builder().partitionValue("user123").sortValue("item2").build();
+    final BatchGetResultPage first = mock(BatchGetResultPage.class);
+    when(first.resultsForTable(table)).thenReturn(List.of(createTestRecord("user123", "item1")));
+    when(first.unprocessedKeysForTable(table)).thenReturn(List.of(pending));
+    final BatchGetResultPage second = mock(BatchGetResultPage.class);
+    when(second.resultsForTable(table)).thenReturn(List.of(createTestRecord("user123", "item2")));
+    when(second.unprocessedKeysForTable(table)).thenReturn(List.of());
+    when(enhancedClient.batchGetItem(any(BatchGetItemEnhancedRequest.class)))
+        .thenReturn(BatchGetResultPageIterable.create(() -> List.of(first).iterator()))
+        .thenReturn(BatchGetResultPageIterable.create(() -> List.of(second).iterator()));
+
+    final List<BatchGetResult> results = repository.getMany("user123", List.of("item1", "item2"));
+
+    assertTrue(results.get(0).found());
+    assertTrue(results.get(1).found());
+  }
+
+  @Test
+  final void testPrime() {
+    repository.prime();
+
+    verify(table).describeTable();
+  }
+
   private final UserItemRecord createTestRecord(final String userId, final String itemId) {
     final UserItemRecord record = new UserItemRecord();
     record.setUserId(userId);
@@ -0,0 +1,187 @@
+package app.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazonaws.services.lambda.runtime.Context;
+import com.amazonaws.services.lambda.runtime.RequestHandler;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Drives the runtime loop against a stand-in for the Lambda Runtime API. */
+public final class LambdaRuntimeTest {
+  private static final String EVENT =
+      "{\"httpMethod\":\"GET\",\"path\":\"/v1/me\",\"headers\":{\"origin\":\"http://x\"},"
+          + "\"requestContext\":{\"requestId\":\"r\",\"authorizer\":{\"claims\":{\"sub\":\"u1\"}}},"
+          + "\"isBase64Encoded\":false,\"stageVariables\":null,\"someNewField\":1}";
+
+  private HttpServer server;
+  private String nextEvent;
+  private String requestId = "req-1";
+  private boolean rejectResponses;
+  private final List<Posted> posted = new ArrayList<>();
+
+  private record Posted(String path, String errorType, String body) {}
+
+  @BeforeEach
+  final void setUp() throws IOException {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext(
+        "/2018-06-01/runtime/invocation/next",
+        exchange -> {
+          if (requestId != null) {
+            exchange.getResponseHeaders().add("Lambda-Runtime-Aws-Request-Id", requestId);
+          }
+          exchange
+              .getResponseHeaders()
+              .add("Lambda-Runtime-Deadline-Ms", Long.toString(System.currentTimeMillis() + 5000));
+          exchange
+              .getResponseHeaders()
+              .add("Lambda-Runtime-Invoked-Function-Arn", "arn:aws:lambda:us-east-1:1:function:f");
+          respond(exchange, nextEvent);
+        });
+    server.createContext(
+        "/2018-06-01/runtime/",
+        exchange -> {
+          posted.add(
+              new Posted(
+                  exchange.getRequestURI().getPath(),
+                  exchange.getRequestHeaders().getFirst("Lambda-Runtime-Function-Error-Type"),
+                  new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8)));
+          final boolean rejected =
+              rejectResponses && exchange.getRequestURI().getPath().endsWith("/response");
+          exchange.sendResponseHeaders(rejected ? 413 : 202, -1);
+          exchange.close();
+        });
+    server.start();
+  }
+
+  @AfterEach
+  final void tearDown() {
+    server.stop(0);
+  }
+
+  @Test
+  final void testPostsHandlerResponse() throws Exception {
+    nextEvent = EVENT;
+    final AtomicReference<APIGatewayProxyRequestEvent> seen = new AtomicReference<>();
+    final AtomicReference<Context> seenContext = new AtomicReference<>();
+
+    runtime(
+            (event, context) -> {
+              seen.set(event);
+              seenContext.set(context);
+              return new APIGatewayProxyResponseEvent()
+                  .withStatusCode(200)
+                  .withHeaders(Map.of("ETag", "\"1\""))
+                  .withBody("{\"user_id\":\"u1\"}");
+            })
+        .next();
+
+    assertEquals("GET", seen.get().getHttpMethod());
+    assertEquals("/v1/me", seen.get().getPath());
+    assertEquals(
+        Map.of("claims", Map.of("sub", "u1")), seen.get().getRequestContext().getAuthorizer());
+    assertEquals("req-1", seenContext.get().getAwsRequestId());
+    assertTrue(seenContext.get().getRemainingTimeInMillis() > 0);
+    assertEquals(1, posted.size());
+    assertEquals("/2018-06-01/runtime/invocation/req-1/response", posted.get(0).path());
+    final JsonNode body = new ObjectMapper().readTree(posted.get(0).body());
+    assertEquals(200, body.get("statusCode").asInt());
+    assertEquals("\"1\"", body.get("headers").get("ETag").asText());
+    assertEquals("{\"user_id\":\"u1\"}", body.get("body").asText());
+    assertTrue(body.path("multiValueHeaders").isMissingNode());
+  }
+
+  @Test
+  final void testReportsHandlerFailure() throws Exception {
+    nextEvent = EVENT;
+
+    runtime(
+            (event, context) -> {
+              throw new IllegalStateException("boom");
+            })
+        .next();
+
+    assertEquals(1, posted.size());
+    assertEquals("/2018-06-01/runtime/invocation/req-1/error", posted.get(0).path());
+    assertEquals("java.lang.IllegalStateException", posted.get(0).errorType());
+    final JsonNode body = new ObjectMapper().readTree(posted.get(0).body());
+    assertEquals("boom", body.get("errorMessage").asText());
+    assertEquals("java.lang.IllegalStateException", body.get("errorType").asText());
+  }
+
+  @Test
+  final void testReportsUnreadableEvent() throws Exception {
+    nextEvent = "not json";
+
+    runtime((event, context) -> new APIGatewayProxyResponseEvent().withStatusCode(200)).next();
+
+    assertEquals(1, posted.size());
+    assertEquals("/2018-06-01/runtime/invocation/req-1/error", posted.get(0).path());
+  }
+
+  @Test
+  final void testReportsResponseTheRuntimeApiRejects() throws Exception {
+    nextEvent = EVENT;
+    rejectResponses = true;
+
+    runtime((event, context) -> new APIGatewayProxyResponseEvent().withStatusCode(200)).next();
+
+    assertEquals(2, posted.size());
+    assertEquals("/2018-06-01/runtime/invocation/req-1/error", posted.get(1).path());
+    assertEquals("java.io.IOException", posted.get(1).errorType());
+  }
+
+  @Test
+  final void testKeepsPollingAfterInvocationWithoutRequestId() throws Exception {
+    nextEvent = EVENT;
+    requestId = null;
+    final LambdaRuntime runtime =
+        runtime((event, context) -> new APIGatewayProxyResponseEvent().withStatusCode(200));
+
+    runtime.next();
+    requestId = "req-2";
+    runtime.next();
+
+    assertEquals(1, posted.size());
+    assertEquals("/2018-06-01/runtime/invocation/req-2/response", posted.get(0).path());
+  }
+
+  @Test
+  final void testKeepsPollingWhenRuntimeApiIsUnreachable() throws Exception {
+    final LambdaRuntime runtime =
+        runtime((event, context) -> new APIGatewayProxyResponseEvent().withStatusCode(200));
+    server.stop(0);
+
+    runtime.next();
+
+    assertTrue(posted.isEmpty());
+  }
+
+  private LambdaRuntime runtime(
+      final RequestHandler<APIGatewayProxyRequestEvent, APIGatewayProxyResponseEvent> handler) {
+    return new LambdaRuntime("127.0.0.1:" + server.getAddress().getPort(), handler);
+  }
+
+  private static void respond(final HttpExchange exchange, final String body) throws IOException {
+    final byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+    exchange.sendResponseHeaders(200, bytes.length);
+    exchange.getResponseBody().write(bytes);
+    exchange.close();
+  }
+}
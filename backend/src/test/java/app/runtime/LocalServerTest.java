@@ -0,0 +1,122 @@
+package app.runtime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+import app.di.CorsConfig;
+import app.handlers.RouterHandler;
+import app.model.UserItem;
+import app.service.ItemService;
+import app.web.ApiResponseFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public final class LocalServerTest {
+  private static final String ORIGIN = "http://localhost:5173";
+
+  @Mock private ItemService itemService;
+
+  private LocalServer server;
+  private HttpClient client;
+
+  @BeforeEach
+  final void setUp() throws IOException {
+    final ObjectMapper mapper = new ObjectMapper();
+    server =
+        new LocalServer(
+            new RouterHandler(
+                itemService,
+                new ApiResponseFactory(mapper, new CorsConfig(List.of(ORIGIN))),
+                mapper),
+            new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+            "X-User");
+    server.start();
+    client = HttpClient.newHttpClient();
+  }
+
+  @AfterEach
+  final void tearDown() {
+    server.stop(Duration.ZERO);
+  }
+
+  @Test
+  final void testSubjectHeaderReachesItemRoute() throws Exception {
+    when(itemService.get("user-1", "item1"))
+        .thenReturn(Optional.of(new UserItem("user-1", "item1", "hello", 1L, 2L, 3L)));
+
+    final HttpResponse<String> response =
+        send(request("/v1/items/item1").header("X-User", "user-1").GET());
+
+    assertEquals(200, response.statusCode());
+    assertEquals("\"3\"", response.headers().firstValue("ETag").orElse(null));
+    assertTrue(response.body().contains("\"value\":\"hello\""));
+  }
+
+  @Test
+  final void testMissingSubjectHeaderIsUnauthorized() throws Exception {
+    assertEquals(401, send(request("/v1/items").GET()).statusCode());
+  }
+
+  @Test
+  final void testPreflightHasNoBody() throws Exception {
+    final HttpResponse<String> response =
+        send(request("/v1/items").method("OPTIONS", HttpRequest.BodyPublishers.noBody()));
+
+    assertEquals(204, response.statusCode());
+    assertEquals(ORIGIN, response.headers().firstValue("Access-Control-Allow-Origin").orElse(null));
+    assertEquals("", response.body());
+  }
+
+  @Test
+  final void testStopSpendsOneGracePeriodInAll() throws Exception {
+    final CountDownLatch entered = new CountDownLatch(1);
+    when(itemService.get("user-1", "item1"))
+        .thenAnswer(
+            invocation -> {
+              entered.countDown();
+              try {
+                Thread.sleep(10_000);
+              } catch (final InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              return Optional.empty();
+            });
+    client.sendAsync(
+        request("/v1/items/item1").header("X-User", "user-1").GET().build(),
+        HttpResponse.BodyHandlers.ofString());
+    entered.await();
+
+    final long started = System.nanoTime();
+    server.stop(Duration.ofSeconds(1));
+    final Duration took = Duration.ofNanos(System.nanoTime() - started);
+
+    assertTrue(took.compareTo(Duration.ofMillis(1500)) < 0, took::toString);
+  }
+
+  private HttpRequest.Builder request(final String path) {
+    return HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + server.port() + path))
+        .header("Origin", ORIGIN);
+  }
+
+  private HttpResponse<String> send(final HttpRequest.Builder request) throws Exception {
+    return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+  }
+}
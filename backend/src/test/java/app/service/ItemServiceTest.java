@@ -1,29 +1,39 @@
 package app.service;
 
+import static java.util.concurrent.CompletableFuture.completedFuture;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import app.model.BatchGetResult;
+import app.model.BatchOperation;
+import app.model.BatchResult;
 import app.model.UserItem;
-import app.repo.UserItemRepository;
-import java.util.Arrays;
+import app.repo.ItemRepository;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 @ExtendWith(MockitoExtension.class)
 public final class ItemServiceTest {
 
-  @Mock private UserItemRepository repository;
+  @Mock private ItemRepository repository;
+  @Captor private ArgumentCaptor<List<BatchOperation>> operationsCaptor;
 
   private ItemService service;
 
@@ -38,7 +48,8 @@ public final class ItemServiceTest {
     final String value = "test value";
     final UserItem expectedItem = createTestItem(userId, "generated-id", value);
 
-    when(repository.put(eq(userId), anyString(), eq(value), anyLong())).thenReturn(expectedItem);
+    when(repository.put(eq(userId), anyString(), eq(value), anyLong()))
+        .thenReturn(completedFuture(expectedItem));
 
     final UserItem result = service.create(userId, value);
 
@@ -53,12 +64,13 @@ public final class ItemServiceTest {
     final String value = "updated value";
     final UserItem expectedItem = createTestItem(userId, itemId, value);
 
-    when(repository.put(eq(userId), eq(itemId), eq(value), anyLong())).thenReturn(expectedItem);
+    when(repository.update(eq(userId), eq(itemId), eq(value), eq(2L), anyLong()))
+        .thenReturn(completedFuture(Optional.of(expectedItem)));
 
-    final UserItem result = service.update(userId, itemId, value);
+    final Optional<UserItem> result = service.update(userId, itemId, value, 2L);
 
-    assertEquals(expectedItem, result);
-    verify(repository).put(eq(userId), eq(itemId), eq(value), anyLong());
+    assertEquals(expectedItem, result.orElseThrow());
+    verify(repository).update(eq(userId), eq(itemId), eq(value), eq(2L), anyLong());
   }
 
   @Test
@@ -67,7 +79,7 @@ public final class ItemServiceTest {
     final String itemId = "item456";
     final UserItem expectedItem = createTestItem(userId, itemId, "test value");
 
-    when(repository.get(userId, itemId)).thenReturn(Optional.of(expectedItem));
+    when(repository.get(userId, itemId)).thenReturn(completedFuture(Optional.of(expectedItem)));
 
     final Optional<UserItem> result = service.get(userId, itemId);
 
@@ -80,7 +92,7 @@ public final class ItemServiceTest {
     final String userId = "user123";
     final String itemId = "item456";
 
-    when(repository.get(userId, itemId)).thenReturn(Optional.empty());
+    when(repository.get(userId, itemId)).thenReturn(completedFuture(Optional.empty()));
 
     final Optional<UserItem> result = service.get(userId, itemId);
 
@@ -88,17 +100,34 @@ public final class ItemServiceTest {
   }
 
   @Test
-  final void testList() {
+  final void testGetMany() {
     final String userId = "user123";
-    final List<UserItem> expectedItems =
-        Arrays.asList(
-            createTestItem(userId, "item1", "value1"), createTestItem(userId, "item2", "value2"));
+    final List<BatchGetResult> expected = List.of(BatchGetResult.of("item1", null));
 
-    when(repository.list(userId)).thenReturn(expectedItems);
+    when(repository.getMany(userId, List.of("item1"))).thenReturn(completedFuture(expected));
 
-    final List<UserItem> result = service.list(userId);
+    assertEquals(expected, service.getMany(userId, List.of("item1")));
+  }
 
-    assertEquals(expectedItems, result);
+  @Test
+  final void testBatchAssignsIdsToCreatesOnly() {
+    final String userId = "user123";
+    final List<BatchResult> expected = List.of(new BatchResult("x", "deleted"));
+    when(repository.batchWrite(eq(userId), anyList(), anyLong()))
+        .thenReturn(completedFuture(expected));
+
+    final List<BatchResult> result =
+        service.batch(
+            userId,
+            List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, null, "a"),
+                new BatchOperation(BatchOperation.Type.DELETE, "x", null)));
+
+    assertEquals(expected, result);
+    verify(repository).batchWrite(eq(userId), operationsCaptor.capture(), anyLong());
+    assertNotNull(operationsCaptor.getValue().get(0).itemId());
+    assertEquals("a", operationsCaptor.getValue().get(0).value());
+    assertEquals("x", operationsCaptor.getValue().get(1).itemId());
   }
 
   @Test
@@ -106,19 +135,25 @@ public final class ItemServiceTest {
     final String userId = "user123";
     final String itemId = "item456";
 
+    when(repository.delete(userId, itemId)).thenReturn(completedFuture(null));
+
     service.delete(userId, itemId);
 
     verify(repository).delete(userId, itemId);
   }
 
+  @Test
+  final void testFailedFutureRethrowsOriginalException() {
+    when(repository.listPageJson("user123", 10, "bad", null))
+        .thenReturn(CompletableFuture.failedFuture(new IllegalArgumentException("Invalid cursor")));
+
+    assertThrows(
+        IllegalArgumentException.class, () -> service.listPageJson("user123", 10, "bad", null));
+  }
+
   private final UserItem createTestItem(
       final String userId, final String itemId, final String value) {
-    final UserItem item = new UserItem();
-    item.userId = userId;
-    item.itemId = itemId;
-    item.value = value;
-    item.createdAt = System.currentTimeMillis();
-    item.updatedAt = System.currentTimeMillis();
-    return item;
+    final long now = System.currentTimeMillis();
+    return new UserItem(userId, itemId, value, now, now, 1L);
   }
 }
@@ -2,10 +2,12 @@ package app.web;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 
 import app.di.CorsConfig;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Map;
@@ -33,16 +35,15 @@ final class ApiResponseFactoryTest {
 
   @Test
   final void testCreateWithRequest() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "http://localhost:5173"));
+    final ApiRequest req = request(Map.of("origin", "http://localhost:5173"));
 
     final ApiResponse response = factory.create(req);
 
     assertNotNull(response);
-    assertEquals(200, response.ok("test").getStatusCode());
+    assertEquals(200, response.ok("test").statusCode());
     assertEquals(
         "http://localhost:5173",
-        response.ok("test").getHeaders().get("Access-Control-Allow-Origin"));
+        response.ok("test").headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
@@ -52,35 +53,63 @@ final class ApiResponseFactoryTest {
     final ApiResponse response = factory.create(origin);
 
     assertNotNull(response);
-    assertEquals(200, response.ok("test").getStatusCode());
-    assertEquals(origin, response.ok("test").getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals(200, response.ok("test").statusCode());
+    assertEquals(origin, response.ok("test").headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testCreateWithNullHeaders() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(null);
+    final ApiRequest req = request(null);
 
     final ApiResponse response = factory.create(req);
 
     assertNotNull(response);
-    assertEquals(200, response.ok("test").getStatusCode());
+    assertEquals(200, response.ok("test").statusCode());
     assertEquals(
         "http://localhost:5173",
-        response.ok("test").getHeaders().get("Access-Control-Allow-Origin"));
+        response.ok("test").headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testCreateWithDisallowedOrigin() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "https://malicious.com"));
+    final ApiRequest req = request(Map.of("origin", "https://malicious.com"));
 
     final ApiResponse response = factory.create(req);
 
     assertNotNull(response);
-    assertEquals(200, response.ok("test").getStatusCode());
+    assertEquals(200, response.ok("test").statusCode());
     assertEquals(
         "http://localhost:5173",
-        response.ok("test").getHeaders().get("Access-Control-Allow-Origin"));
+        response.ok("test").headers().get("Access-Control-Allow-Origin"));
+  }
+
+  @Test
+  final void testResponsesAndHeadersAreSharedPerOrigin() {
+    final ApiRequest req = request(Map.of("Origin", "https://example.com"));
+    final ApiRequest other = request(Map.of("origin", "https://malicious.com"));
+
+    assertSame(factory.create(req), factory.create(req));
+    assertSame(factory.create("http://localhost:5173"), factory.create(other));
+    assertSame(factory.create(req).ok("a").headers(), factory.create(req).noContent().headers());
+  }
+
+  @Test
+  final void testSharedHeadersCannotBeModified() {
+    final Map<String, String> headers = factory.create("https://example.com").ok("a").headers();
+
+    assertThrows(UnsupportedOperationException.class, () -> headers.put("X", "y"));
+  }
+
+  @Test
+  final void testTaggedResponseDoesNotLeakIntoSharedHeaders() {
+    final ApiResponse response = factory.create("https://example.com");
+
+    response.ok("a", "\"1\"");
+
+    assertNull(response.ok("a").headers().get("ETag"));
+  }
+
+  private static ApiRequest request(final Map<String, String> headers) {
+    return new ApiRequest("GET", "/v1/me", headers, null, null, null);
   }
 }
@@ -1,10 +1,10 @@
 package app.web;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyRequestEvent;
-import com.amazonaws.services.lambda.runtime.events.APIGatewayProxyResponseEvent;
+import app.di.CorsConfig;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.List;
 import java.util.Map;
@@ -13,272 +13,321 @@ import org.junit.jupiter.api.Test;
 
 final class ApiResponseTest {
   private ObjectMapper mapper;
+  private ApiResponseFactory factory;
   private ApiResponse response;
-  private List<String> allowedOrigins;
 
   @BeforeEach
   final void setUp() {
     mapper = new ObjectMapper();
-    allowedOrigins = List.of("http://localhost:5173", "https://d3odzc270i77yq.cloudfront.net");
-    response = new ApiResponse(mapper, "http://localhost:5173", allowedOrigins);
+    factory =
+        new ApiResponseFactory(
+            mapper,
+            new CorsConfig(
+                List.of("http://localhost:5173", "https://d3odzc270i77yq.cloudfront.net")));
+    response = factory.create("http://localhost:5173");
   }
 
   @Test
   final void testOkResponse() {
-    final APIGatewayProxyResponseEvent result = response.ok(Map.of("test", "value"));
+    final ApiResult result = response.ok(Map.of("test", "value"));
 
-    assertEquals(200, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"test\":\"value\""));
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals(200, result.statusCode());
+    assertTrue(result.body().contains("\"test\":\"value\""));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testCreatedResponse() {
-    final APIGatewayProxyResponseEvent result = response.created(Map.of("id", "123"));
+    final ApiResult result = response.created(Map.of("id", "123"));
 
-    assertEquals(201, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"id\":\"123\""));
+    assertEquals(201, result.statusCode());
+    assertTrue(result.body().contains("\"id\":\"123\""));
   }
 
   @Test
   final void testBadRequestResponse() {
-    final APIGatewayProxyResponseEvent result = response.badRequest("Invalid input");
+    final ApiResult result = response.badRequest("Invalid input");
 
-    assertEquals(400, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"error\":\"Invalid input\""));
+    assertEquals(400, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Invalid input\""));
   }
 
   @Test
   final void testNotFoundResponse() {
-    final APIGatewayProxyResponseEvent result = response.notFound("Resource not found");
+    final ApiResult result = response.notFound("Resource not found");
 
-    assertEquals(404, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"error\":\"Resource not found\""));
+    assertEquals(404, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Resource not found\""));
+  }
+
+  @Test
+  final void testBodyTooLargeResponse() {
+    final ApiResult result = response.bodyTooLarge();
+
+    assertEquals(413, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Request body too large\""));
   }
 
   @Test
   final void testNoContentResponse() {
-    final APIGatewayProxyResponseEvent result = response.noContent();
+    final ApiResult result = response.noContent();
 
-    assertEquals(204, result.getStatusCode());
-    assertEquals("", result.getBody());
+    assertEquals(204, result.statusCode());
+    assertEquals("", result.body());
   }
 
   @Test
-  final void testConstructorWithRequest() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "http://localhost:5173"));
+  final void testCreateWithRequest() {
+    final ApiRequest req = request(Map.of("origin", "http://localhost:5173"));
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testExceptionBasedErrors() {
     final Exception ex = new RuntimeException("test error");
 
-    final APIGatewayProxyResponseEvent result = response.badRequestWithException(ex);
+    final ApiResult result = response.badRequestWithException(ex);
 
-    assertEquals(400, result.getStatusCode());
-    assertTrue(result.getBody().contains("Bad request: test error"));
+    assertEquals(400, result.statusCode());
+    assertTrue(result.body().contains("Bad request: test error"));
   }
 
   @Test
   final void testMethodNotAllowedResponse() {
-    final APIGatewayProxyResponseEvent result =
-        response.methodNotAllowed("Custom method not allowed");
+    final ApiResult result = response.methodNotAllowed("Custom method not allowed");
 
-    assertEquals(405, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"error\":\"Custom method not allowed\""));
+    assertEquals(405, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Custom method not allowed\""));
   }
 
   @Test
   final void testServerErrorResponse() {
-    final APIGatewayProxyResponseEvent result = response.serverError("Internal server error");
+    final ApiResult result = response.serverError("Internal server error");
 
-    assertEquals(500, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"error\":\"Internal server error\""));
+    assertEquals(500, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Internal server error\""));
   }
 
   @Test
   final void testConvenienceMethodRouteNotFound() {
-    final APIGatewayProxyResponseEvent result = response.routeNotFound();
+    final ApiResult result = response.routeNotFound();
 
-    assertEquals(404, result.getStatusCode());
-    assertTrue(result.getBody().contains("Route not found"));
+    assertEquals(404, result.statusCode());
+    assertTrue(result.body().contains("Route not found"));
   }
 
   @Test
   final void testConvenienceMethodNotAllowed() {
-    final APIGatewayProxyResponseEvent result = response.methodNotAllowed();
+    final ApiResult result = response.methodNotAllowed();
 
-    assertEquals(405, result.getStatusCode());
-    assertTrue(result.getBody().contains("Method not allowed"));
+    assertEquals(405, result.statusCode());
+    assertTrue(result.body().contains("Method not allowed"));
+  }
+
+  @Test
+  final void testMethodNotAllowedCarriesAllowHeader() {
+    final ApiResult result = response.methodNotAllowedAllowing("GET, POST");
+
+    assertEquals(405, result.statusCode());
+    assertEquals("GET, POST", result.headers().get("Allow"));
+    assertNull(response.methodNotAllowed().headers().get("Allow"));
   }
 
   @Test
   final void testConvenienceItemNotFound() {
-    final APIGatewayProxyResponseEvent result = response.itemNotFound();
+    final ApiResult result = response.itemNotFound();
 
-    assertEquals(404, result.getStatusCode());
-    assertTrue(result.getBody().contains("Not found"));
+    assertEquals(404, result.statusCode());
+    assertTrue(result.body().contains("Not found"));
   }
 
   @Test
   final void testConvenienceInvalidBody() {
-    final APIGatewayProxyResponseEvent result = response.invalidBody();
+    final ApiResult result = response.invalidBody();
 
-    assertEquals(400, result.getStatusCode());
-    assertTrue(result.getBody().contains("Invalid body"));
+    assertEquals(400, result.statusCode());
+    assertTrue(result.body().contains("Invalid body"));
   }
 
   @Test
   final void testMethodNotAllowedWithException() {
     final Exception ex = new UnsupportedOperationException("test operation");
 
-    final APIGatewayProxyResponseEvent result = response.methodNotAllowedWithException(ex);
+    final ApiResult result = response.methodNotAllowedWithException(ex);
 
-    assertEquals(405, result.getStatusCode());
-    assertTrue(result.getBody().contains("Method not allowed: test operation"));
+    assertEquals(405, result.statusCode());
+    assertTrue(result.body().contains("Method not allowed: test operation"));
   }
 
   @Test
   final void testServerErrorWithException() {
     final Exception ex = new RuntimeException("server error");
 
-    final APIGatewayProxyResponseEvent result = response.serverErrorWithException(ex);
+    final ApiResult result = response.serverErrorWithException(ex);
 
-    assertEquals(500, result.getStatusCode());
-    assertTrue(result.getBody().contains("Unexpected error: server error"));
+    assertEquals(500, result.statusCode());
+    assertTrue(result.body().contains("Unexpected error: server error"));
   }
 
   @Test
-  final void testConstructorWithOriginHeaderAndPickOrigin() {
-    final ApiResponse response =
-        new ApiResponse(mapper, "http://localhost:5173", true, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+  final void testCreateWithAllowedOrigin() {
+    final ApiResponse response = factory.create("http://localhost:5173");
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
-  final void testConstructorWithOriginHeaderNoPick() {
-    final ApiResponse response =
-        new ApiResponse(mapper, "http://malicious.com", false, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+  final void testCreateWithOriginUsesItAsGiven() {
+    final ApiResponse response = factory.create("http://malicious.com");
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://malicious.com", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://malicious.com", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
-  final void testConstructorWithRequestNullHeaders() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(null);
+  final void testCreateWithRequestNullHeaders() {
+    final ApiRequest req = request(null);
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
-  final void testConstructorWithRequestUpperCaseOrigin() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("Origin", "http://localhost:5173"));
+  final void testCreateWithRequestUpperCaseOrigin() {
+    final ApiRequest req = request(Map.of("Origin", "http://localhost:5173"));
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testToJsonWithNullBody() {
-    final APIGatewayProxyResponseEvent result = response.ok(null);
+    final ApiResult result = response.ok(null);
 
-    assertEquals(200, result.getStatusCode());
-    assertEquals("", result.getBody());
+    assertEquals(200, result.statusCode());
+    assertEquals("", result.body());
   }
 
   @Test
   final void testToJsonWithStringBody() {
-    final APIGatewayProxyResponseEvent result = response.ok("plain string");
+    final ApiResult result = response.ok("plain string");
 
-    assertEquals(200, result.getStatusCode());
-    assertEquals("plain string", result.getBody());
+    assertEquals(200, result.statusCode());
+    assertEquals("plain string", result.body());
   }
 
   @Test
   final void testCorsHeaders() {
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
     assertEquals(
-        "Authorization,Content-Type", result.getHeaders().get("Access-Control-Allow-Headers"));
+        "Authorization,Content-Type,If-Match,If-None-Match",
+        result.headers().get("Access-Control-Allow-Headers"));
     assertEquals(
         "GET,POST,PUT,PATCH,DELETE,OPTIONS",
-        result.getHeaders().get("Access-Control-Allow-Methods"));
+        result.headers().get("Access-Control-Allow-Methods"));
+    assertEquals("ETag", result.headers().get("Access-Control-Expose-Headers"));
+  }
+
+  @Test
+  final void testOkWithETag() {
+    final ApiResult result = response.ok("test", "\"3\"");
+
+    assertEquals(200, result.statusCode());
+    assertEquals("\"3\"", result.headers().get("ETag"));
+  }
+
+  @Test
+  final void testOkUnlessNotModifiedTagsByContent() {
+    final ApiResult first = response.okUnlessNotModified(Map.of("a", "1"), null);
+    final ApiResult second =
+        response.okUnlessNotModified(Map.of("a", "1"), first.headers().get("ETag"));
+    final ApiResult changed =
+        response.okUnlessNotModified(Map.of("a", "2"), first.headers().get("ETag"));
+
+    assertEquals(200, first.statusCode());
+    assertEquals("private, no-cache", first.headers().get("Cache-Control"));
+    assertEquals(304, second.statusCode());
+    assertEquals("", second.body());
+    assertEquals(200, changed.statusCode());
+  }
+
+  @Test
+  final void testVersionConflict() {
+    final ApiResult result = response.versionConflict();
+
+    assertEquals(412, result.statusCode());
+    assertTrue(result.body().contains("Item has changed"));
   }
 
   @Test
   final void testUnauthorizedResponse() {
-    final APIGatewayProxyResponseEvent result = response.unauthorized("Auth required");
+    final ApiResult result = response.unauthorized("Auth required");
 
-    assertEquals(401, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"error\":\"Auth required\""));
+    assertEquals(401, result.statusCode());
+    assertTrue(result.body().contains("\"error\":\"Auth required\""));
   }
 
   @Test
   final void testConvenienceUnauthorized() {
-    final APIGatewayProxyResponseEvent result = response.unauthorized();
+    final ApiResult result = response.unauthorized();
 
-    assertEquals(401, result.getStatusCode());
-    assertTrue(result.getBody().contains("Authentication required"));
+    assertEquals(401, result.statusCode());
+    assertTrue(result.body().contains("Authentication required"));
   }
 
   @Test
   final void testUpdatedResponse() {
-    final APIGatewayProxyResponseEvent result = response.updated(Map.of("updated", "true"));
+    final ApiResult result = response.updated(Map.of("updated", "true"));
 
-    assertEquals(200, result.getStatusCode());
-    assertTrue(result.getBody().contains("\"updated\":\"true\""));
+    assertEquals(200, result.statusCode());
+    assertTrue(result.body().contains("\"updated\":\"true\""));
   }
 
   @Test
   final void testOriginSelectionWithAllowedOrigin() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "http://localhost:5173"));
+    final ApiRequest req = request(Map.of("origin", "http://localhost:5173"));
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testOriginSelectionWithProductionOrigin() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "https://d3odzc270i77yq.cloudfront.net"));
+    final ApiRequest req = request(Map.of("origin", "https://d3odzc270i77yq.cloudfront.net"));
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
     assertEquals(
         "https://d3odzc270i77yq.cloudfront.net",
-        result.getHeaders().get("Access-Control-Allow-Origin"));
+        result.headers().get("Access-Control-Allow-Origin"));
   }
 
   @Test
   final void testOriginSelectionWithDisallowedOrigin() {
-    final APIGatewayProxyRequestEvent req = new APIGatewayProxyRequestEvent();
-    req.setHeaders(Map.of("origin", "https://malicious.example.com"));
+    final ApiRequest req = request(Map.of("origin", "https://malicious.example.com"));
 
-    final ApiResponse response = new ApiResponse(mapper, req, allowedOrigins);
-    final APIGatewayProxyResponseEvent result = response.ok("test");
+    final ApiResponse response = factory.create(req);
+    final ApiResult result = response.ok("test");
 
     // Should fall back to default origin
-    assertEquals("http://localhost:5173", result.getHeaders().get("Access-Control-Allow-Origin"));
+    assertEquals("http://localhost:5173", result.headers().get("Access-Control-Allow-Origin"));
+  }
+
+  private static ApiRequest request(final Map<String, String> headers) {
+    return new ApiRequest("GET", "/v1/me", headers, null, null, null);
   }
 }
@@ -0,0 +1,58 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+public final class AuthorizerClaimsTest {
+
+  static Stream<Arguments> authorizers() {
+    final Map<String, Object> nullSub = new HashMap<>();
+    nullSub.put("sub", null);
+    return Stream.of(
+        Arguments.of("REST Cognito claims", Map.of("claims", Map.of("sub", "u1")), "u1"),
+        Arguments.of(
+            "REST claims with other fields",
+            Map.of("claims", Map.of("email", "a@b.c", "sub", "u1"), "principalId", "p"),
+            "u1"),
+        Arguments.of(
+            "HTTP API JWT claims",
+            Map.of("jwt", Map.of("claims", Map.of("sub", "u2"), "scopes", "read")),
+            "u2"),
+        Arguments.of(
+            "REST claims win over JWT",
+            Map.of("claims", Map.of("sub", "u1"), "jwt", Map.of("claims", Map.of("sub", "u2"))),
+            "u1"),
+        Arguments.of("no authorizer", null, null),
+        Arguments.of("empty authorizer", Map.of(), null),
+        Arguments.of("claims without sub", Map.of("claims", Map.of("email", "a@b.c")), null),
+        Arguments.of("null sub", Map.of("claims", nullSub), null),
+        Arguments.of("blank sub", Map.of("claims", Map.of("sub", "  ")), null),
+        Arguments.of("numeric sub", Map.of("claims", Map.of("sub", 42)), null),
+        Arguments.of("claims is a string", Map.of("claims", "{\"sub\":\"u1\"}"), null),
+        Arguments.of("jwt without claims", Map.of("jwt", Map.of("scopes", "read")), null),
+        Arguments.of("jwt is a string", Map.of("jwt", "token"), null),
+        Arguments.of("top-level sub only", Map.of("sub", "u3"), null));
+  }
+
+  @ParameterizedTest(name = "{0}")
+  @MethodSource("authorizers")
+  final void testSubject(
+      final String shape, final Map<String, Object> authorizer, final String expected) {
+    assertEquals(expected, AuthorizerClaims.subject(authorizer));
+  }
+
+  @Test
+  final void testClaimSubjectReadsUnwrappedClaims() {
+    assertEquals("u4", AuthorizerClaims.claimSubject(Map.of("sub", "u4", "scope", "read")));
+    assertNull(AuthorizerClaims.claimSubject(Map.of("sub", "")));
+    assertNull(AuthorizerClaims.claimSubject(null));
+  }
+}
@@ -0,0 +1,54 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public final class ETagsTest {
+
+  @Test
+  final void testRoundTrip() {
+    assertEquals(7L, ETags.versionOf(ETags.ofVersion(7)));
+  }
+
+  @Test
+  final void testTagsThatCanNeverMatch() {
+    assertNull(ETags.versionOf("W/\"7\""));
+    assertNull(ETags.versionOf("7"));
+    assertNull(ETags.versionOf("\"7\", \"8\""));
+    assertNull(ETags.versionOf("\"abc\""));
+    assertNull(ETags.versionOf("\"-1\""));
+    assertNull(ETags.versionOf("\"\""));
+  }
+
+  @Test
+  final void testContentTagIsStableAndSensitive() {
+    assertEquals(ETags.ofContent("{\"a\":1}"), ETags.ofContent("{\"a\":1}"));
+    assertNotEquals(ETags.ofContent("{\"a\":1}"), ETags.ofContent("{\"a\":2}"));
+  }
+
+  @Test
+  final void testNoneMatchUsesWeakComparisonOverLists() {
+    assertTrue(ETags.noneMatchHits("\"1\", W/\"2\"", "\"2\""));
+    assertTrue(ETags.noneMatchHits("*", "\"2\""));
+    assertFalse(ETags.noneMatchHits("\"1\"", "\"2\""));
+    assertFalse(ETags.noneMatchHits(null, "\"2\""));
+  }
+
+  @Test
+  final void testGzipVariantMatchesItsPlainTag() {
+    final String gzipped = ETags.ofGzip(ETags.ofVersion(7));
+
+    assertEquals("\"7-gzip\"", gzipped);
+    assertEquals(gzipped, ETags.ofGzip(gzipped));
+    assertEquals(7L, ETags.versionOf(gzipped));
+    assertTrue(ETags.noneMatchHits(gzipped, "\"7\""));
+    assertTrue(ETags.noneMatchHits("W/\"7\"", gzipped));
+    assertFalse(ETags.noneMatchHits(ETags.ofGzip("\"6\""), "\"7\""));
+    assertNull(ETags.versionOf("\"-gzip\""));
+  }
+}
@@ -0,0 +1,75 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlRequest;
+import com.amazonaws.services.lambda.runtime.events.LambdaFunctionUrlResponse;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public final class FunctionUrlEventsTest {
+
+  @Test
+  final void testRequestWithoutIamAuthIsAnonymous() {
+    final LambdaFunctionUrlRequest event =
+        LambdaFunctionUrlRequest.builder()
+            .withRawPath("/v1/items/item-1")
+            .withHeaders(Map.of("if-none-match", "\"2\""))
+            .withRequestContext(
+                LambdaFunctionUrlRequest.RequestContext.builder()
+                    .withHttp(
+                        LambdaFunctionUrlRequest.RequestContext.Http.builder()
+                            .withMethod("GET")
+                            .build())
+                    .build())
+            .build();
+
+    final ApiRequest request = FunctionUrlEvents.request(event);
+
+    assertEquals("GET", request.method());
+    assertEquals("/v1/items/item-1", request.path());
+    assertEquals("\"2\"", request.header("If-None-Match"));
+    assertNull(request.subject());
+  }
+
+  @Test
+  final void testIamCallerArnIsSubject() {
+    final String arn = "arn:aws:sts::123456789012:assumed-role/app/session";
+
+    assertEquals(arn, FunctionUrlEvents.request(signed(arn, "AROAEXAMPLE:session")).subject());
+  }
+
+  @Test
+  final void testIamCallerIdIsSubjectWithoutArn() {
+    assertEquals("AIDAEXAMPLE", FunctionUrlEvents.request(signed(" ", "AIDAEXAMPLE")).subject());
+    assertNull(FunctionUrlEvents.request(signed(null, null)).subject());
+  }
+
+  @Test
+  final void testResponseCopiesResult() {
+    final LambdaFunctionUrlResponse response =
+        FunctionUrlEvents.response(new ApiResult(404, Map.of("A", "b"), "{\"error\":\"x\"}"));
+
+    assertEquals(404, response.getStatusCode());
+    assertEquals("b", response.getHeaders().get("A"));
+    assertEquals("{\"error\":\"x\"}", response.getBody());
+  }
+
+  private static LambdaFunctionUrlRequest signed(final String userArn, final String userId) {
+    return LambdaFunctionUrlRequest.builder()
+        .withRawPath("/v1/items")
+        .withRequestContext(
+            LambdaFunctionUrlRequest.RequestContext.builder()
+                .withAuthorizer(
+                    LambdaFunctionUrlRequest.RequestContext.Authorizer.builder()
+                        .withIam(
+                            LambdaFunctionUrlRequest.RequestContext.IamAuth.builder()
+                                .withUserArn(userArn)
+                                .withUserId(userId)
+                                .build())
+                        .build())
+                .build())
+        .build();
+  }
+}
@@ -0,0 +1,113 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPEvent;
+import com.amazonaws.services.lambda.runtime.events.APIGatewayV2HTTPResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public final class HttpApiEventsTest {
+
+  @Test
+  final void testRequestTakesMethodPathAndJwtSubject() {
+    final APIGatewayV2HTTPEvent event =
+        APIGatewayV2HTTPEvent.builder()
+            .withRawPath("/v1/items")
+            .withHeaders(Map.of("origin", "http://localhost:5173"))
+            .withQueryStringParameters(Map.of("limit", "10"))
+            .withBody("{\"value\":\"a\"}")
+            .withRequestContext(context("POST", jwt(Map.of("sub", "user-2", "scope", "x"))))
+            .build();
+
+    final ApiRequest request = HttpApiEvents.request(event);
+
+    assertEquals("POST", request.method());
+    assertEquals("/v1/items", request.path());
+    assertEquals("http://localhost:5173", request.header("Origin"));
+    assertEquals("10", request.queryParameter("limit"));
+    assertEquals("{\"value\":\"a\"}", request.body());
+    assertEquals("user-2", request.subject());
+  }
+
+  @Test
+  final void testRequestDecodesBase64Body() {
+    final byte[] body = "{\"value\":\"é\"}".getBytes(StandardCharsets.UTF_8);
+    final APIGatewayV2HTTPEvent event =
+        APIGatewayV2HTTPEvent.builder()
+            .withRawPath("/v1/items")
+            .withBody(Base64.getEncoder().encodeToString(body))
+            .withIsBase64Encoded(true)
+            .withRequestContext(context("POST", null))
+            .build();
+
+    assertEquals("{\"value\":\"é\"}", HttpApiEvents.request(event).body());
+  }
+
+  @Test
+  final void testBlankJwtSubjectIsAnonymous() {
+    final APIGatewayV2HTTPEvent event =
+        APIGatewayV2HTTPEvent.builder()
+            .withRawPath("/v1/me")
+            .withRequestContext(context("GET", jwt(Map.of("sub", " "))))
+            .build();
+
+    assertNull(HttpApiEvents.request(event).subject());
+  }
+
+  @Test
+  final void testLambdaAuthorizerClaimsAreRead() {
+    final APIGatewayV2HTTPEvent event =
+        APIGatewayV2HTTPEvent.builder()
+            .withRawPath("/v1/me")
+            .withRequestContext(
+                context(
+                    "GET",
+                    APIGatewayV2HTTPEvent.RequestContext.Authorizer.builder()
+                        .withLambda(Map.of("claims", Map.of("sub", "user-3")))
+                        .build()))
+            .build();
+
+    assertEquals("user-3", HttpApiEvents.request(event).subject());
+  }
+
+  @Test
+  final void testResponseCopiesResult() {
+    final APIGatewayV2HTTPResponse response =
+        HttpApiEvents.response(new ApiResult(201, Map.of("ETag", "\"1\""), "{}"));
+
+    assertEquals(201, response.getStatusCode());
+    assertEquals("\"1\"", response.getHeaders().get("ETag"));
+    assertEquals("{}", response.getBody());
+    assertFalse(response.isBase64Encoded());
+  }
+
+  @Test
+  final void testResponseMarksBase64Body() {
+    assertTrue(
+        HttpApiEvents.response(new ApiResult(200, Map.of(), "H4sI", true)).isBase64Encoded());
+  }
+
+  private static APIGatewayV2HTTPEvent.RequestContext.Authorizer jwt(
+      final Map<String, String> claims) {
+    return APIGatewayV2HTTPEvent.RequestContext.Authorizer.builder()
+        .withJwt(
+            APIGatewayV2HTTPEvent.RequestContext.Authorizer.JWT.builder()
+                .withClaims(claims)
+                .build())
+        .build();
+  }
+
+  private static APIGatewayV2HTTPEvent.RequestContext context(
+      final String method, final APIGatewayV2HTTPEvent.RequestContext.Authorizer authorizer) {
+    return APIGatewayV2HTTPEvent.RequestContext.builder()
+        .withHttp(APIGatewayV2HTTPEvent.RequestContext.Http.builder().withMethod(method).build())
+        .withAuthorizer(authorizer)
+        .build();
+  }
+}
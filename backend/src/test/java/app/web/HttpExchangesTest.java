@@ -0,0 +1,39 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public final class HttpExchangesTest {
+
+  @Test
+  final void testQueryDecodesNamesAndValues() {
+    assertEquals(
+        Map.of("next token", "a+b/c", "limit", "5"),
+        HttpExchanges.query("next%20token=a%2Bb%2Fc&limit=5"));
+  }
+
+  @Test
+  final void testQueryKeepsLastRepeatedValue() {
+    assertEquals(Map.of("limit", "20"), HttpExchanges.query("limit=5&limit=20"));
+  }
+
+  @Test
+  final void testQueryNameWithoutValueIsEmpty() {
+    assertEquals(Map.of("fields", ""), HttpExchanges.query("fields&"));
+  }
+
+  @Test
+  final void testEmptyQueryIsNull() {
+    assertNull(HttpExchanges.query(null));
+    assertNull(HttpExchanges.query(""));
+  }
+
+  @Test
+  final void testMalformedEscapeIsRejected() {
+    assertThrows(IllegalArgumentException.class, () -> HttpExchanges.query("limit=%zz"));
+  }
+}
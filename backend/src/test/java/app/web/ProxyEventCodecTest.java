@@ -0,0 +1,112 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+public final class ProxyEventCodecTest {
+  private static final ObjectMapper MAPPER = new ObjectMapper();
+  private static final ProxyEventCodec CODEC = new ProxyEventCodec(MAPPER.getFactory());
+
+  // Trimmed from a real REST API proxy event with a Cognito authorizer.
+  private static final String REST_EVENT =
+      """
+      {
+        "resource": "/v1/items",
+        "path": "/v1/items",
+        "httpMethod": "GET",
+        "headers": {"origin": "http://localhost:5173", "If-None-Match": "\\"abc\\""},
+        "multiValueHeaders": {"origin": ["http://localhost:5173"]},
+        "queryStringParameters": {"limit": "25", "cursor": "aXRlbTE"},
+        "multiValueQueryStringParameters": {"limit": ["25"]},
+        "pathParameters": null,
+        "stageVariables": null,
+        "requestContext": {
+          "resourceId": "abc123",
+          "authorizer": {
+            "claims": {"sub": "user-1", "email": "a@b.c", "cognito:groups": ["admins"]},
+            "principalId": "p"
+          },
+          "identity": {"sourceIp": "203.0.113.1", "userAgent": "curl"},
+          "requestTimeEpoch": 1718000000000
+        },
+        "body": "{\\"value\\":\\"line\\\\nbreak \\\\u00e9\\"}",
+        "isBase64Encoded": false
+      }
+      """;
+
+  @Test
+  final void testReadKeepsRoutingFields() throws Exception {
+    final ApiRequest event = read(REST_EVENT);
+
+    assertEquals("GET", event.method());
+    assertEquals("/v1/items", event.path());
+    assertEquals("\"abc\"", event.header("If-None-Match"));
+    assertEquals(Map.of("limit", "25", "cursor", "aXRlbTE"), event.queryParameters());
+    assertEquals("{\"value\":\"line\\nbreak \\u00e9\"}", event.body());
+    assertEquals("user-1", event.subject());
+  }
+
+  @Test
+  final void testReadsHttpApiJwtSubject() throws Exception {
+    final ApiRequest event =
+        read(
+            "{\"httpMethod\":\"GET\",\"path\":\"/v1/me\",\"requestContext\":"
+                + "{\"authorizer\":{\"jwt\":{\"scopes\":null,\"claims\":{\"sub\":\"user-2\"}}}}}");
+
+    assertEquals("user-2", event.subject());
+  }
+
+  @Test
+  final void testNullSectionsStayNull() throws Exception {
+    final ApiRequest event =
+        read(
+            "{\"httpMethod\":\"GET\",\"path\":\"/v1/me\",\"headers\":null,"
+                + "\"queryStringParameters\":null,\"body\":null,\"requestContext\":{}}");
+
+    assertNull(event.headers());
+    assertNull(event.queryParameters());
+    assertNull(event.body());
+    assertNull(event.subject());
+  }
+
+  @Test
+  final void testWriteProducesProxyResponse() throws Exception {
+    final String body = "{\"value\":\"quote \\\" and \\n newline é\"}";
+    final ApiResult response =
+        new ApiResult(200, Map.of("Content-Type", "application/json", "ETag", "\"v1\""), body);
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    CODEC.write(response, out);
+
+    final JsonNode written = MAPPER.readTree(out.toByteArray());
+    assertEquals(200, written.get("statusCode").asInt());
+    assertEquals("\"v1\"", written.get("headers").get("ETag").asText());
+    assertEquals(body, written.get("body").asText());
+    assertFalse(written.get("isBase64Encoded").asBoolean());
+  }
+
+  @Test
+  final void testWriteMarksBase64Body() throws Exception {
+    final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    CODEC.write(new ApiResult(200, Map.of("Content-Encoding", "gzip"), "H4sI", true), out);
+
+    final JsonNode written = MAPPER.readTree(out.toByteArray());
+    assertEquals("H4sI", written.get("body").asText());
+    assertTrue(written.get("isBase64Encoded").asBoolean());
+  }
+
+  private static ApiRequest read(final String json) throws Exception {
+    return CODEC.read(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+  }
+}
@@ -0,0 +1,140 @@
+package app.web;
+
+import static app.web.RequestBodyDecoder.MAX_BATCH_OPERATIONS;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.model.BatchOperation;
+import com.fasterxml.jackson.core.JsonFactory;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+final class RequestBodyDecoderTest {
+  private RequestBodyDecoder decoder;
+
+  @BeforeEach
+  final void setUp() {
+    decoder = new RequestBodyDecoder(new JsonFactory(), 64);
+  }
+
+  @Test
+  final void testReadsValue() {
+    assertEquals(Optional.of("milk"), decoder.readValue("{\"value\":\"milk\"}"));
+  }
+
+  @Test
+  final void testDecodesEscapedQuotesAndUnicode() {
+    assertEquals(
+        Optional.of("say \"hi\" \u00e9"),
+        decoder.readValue("{\"value\":\"say \\\"hi\\\" \\u00e9\"}"));
+  }
+
+  @Test
+  final void testSkipsSiblingFields() {
+    assertEquals(
+        Optional.of("x"),
+        decoder.readValue("{\"meta\":{\"value\":\"nested\"},\"tags\":[1,2],\"value\":\"x\"}"));
+  }
+
+  @Test
+  final void testStopsAtValueField() {
+    assertEquals(Optional.of("first"), decoder.readValue("{\"value\":\"first\", garbage"));
+  }
+
+  @Test
+  final void testRejectsNonStringValue() {
+    assertFalse(decoder.readValue("{\"value\":42}").isPresent());
+  }
+
+  @Test
+  final void testRejectsEmptyValue() {
+    assertFalse(decoder.readValue("{\"value\":\"\"}").isPresent());
+  }
+
+  @Test
+  final void testRejectsMissingValue() {
+    assertFalse(decoder.readValue("{\"other\":\"x\"}").isPresent());
+  }
+
+  @Test
+  final void testRejectsMalformedBody() {
+    assertFalse(decoder.readValue("invalid").isPresent());
+    assertFalse(decoder.readValue("{\"value\":").isPresent());
+    assertFalse(decoder.readValue("[\"value\"]").isPresent());
+  }
+
+  @Test
+  final void testRejectsNullAndEmptyBody() {
+    assertFalse(decoder.readValue(null).isPresent());
+    assertFalse(decoder.readValue("").isPresent());
+  }
+
+  @Test
+  final void testEnforcesMaximumSize() {
+    final String body = "{\"value\":\"" + "a".repeat(64) + "\"}";
+
+    assertTrue(decoder.exceedsLimit(body));
+    assertFalse(decoder.readValue(body).isPresent());
+    assertFalse(decoder.exceedsLimit(null));
+  }
+
+  @Test
+  final void testReadsBatchInOrder() {
+    final Optional<List<BatchOperation>> ops =
+        decoder.readBatch(
+            "{\"operations\":[{\"op\":\"create\",\"value\":\"a\"},"
+                + "{\"op\":\"delete\",\"item_id\":\"x\"}]}");
+
+    assertEquals(
+        Optional.of(
+            List.of(
+                new BatchOperation(BatchOperation.Type.CREATE, null, "a"),
+                new BatchOperation(BatchOperation.Type.DELETE, "x", null))),
+        ops);
+  }
+
+  @Test
+  final void testRejectsInvalidBatches() {
+    assertFalse(decoder.readBatch("{\"operations\":[]}").isPresent());
+    assertFalse(decoder.readBatch("{\"operations\":[{\"op\":\"create\"}]}").isPresent());
+    assertFalse(decoder.readBatch("{\"operations\":[{\"op\":\"delete\"}]}").isPresent());
+    assertFalse(decoder.readBatch("{\"operations\":[{\"op\":\"move\"}]}").isPresent());
+    assertFalse(decoder.readBatch("{\"operations\":[\"create\"]}").isPresent());
+    assertFalse(decoder.readBatch("{\"operations\":{}}").isPresent());
+  }
+
+  @Test
+  final void testRejectsDuplicateBatchIds() {
+    final String op = "{\"op\":\"delete\",\"item_id\":\"x\"}";
+
+    assertFalse(decoder.readBatch("{\"operations\":[" + op + "," + op + "]}").isPresent());
+  }
+
+  @Test
+  final void testRejectsOversizedBatch() {
+    final RequestBodyDecoder unbounded = new RequestBodyDecoder(new JsonFactory());
+    final String op = "{\"op\":\"create\",\"value\":\"a\"}";
+    final String ops = String.join(",", Collections.nCopies(MAX_BATCH_OPERATIONS + 1, op));
+
+    assertFalse(unbounded.readBatch("{\"operations\":[" + ops + "]}").isPresent());
+  }
+
+  @Test
+  final void testReadsIds() {
+    assertEquals(
+        Optional.of(List.of("a", "b", "a")), decoder.readIds("{\"ids\":[\"a\",\"b\",\"a\"]}"));
+  }
+
+  @Test
+  final void testRejectsInvalidIds() {
+    assertFalse(decoder.readIds("{\"ids\":[]}").isPresent());
+    assertFalse(decoder.readIds("{\"ids\":[\"\"]}").isPresent());
+    assertFalse(decoder.readIds("{\"ids\":[1]}").isPresent());
+    assertFalse(decoder.readIds("{\"ids\":\"a\"}").isPresent());
+    assertFalse(decoder.readIds("[]").isPresent());
+  }
+}
@@ -0,0 +1,126 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import app.di.CompressionConfig;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Test;
+
+public final class ResponseCompressorTest {
+  private static final ResponseCompressor COMPRESSOR =
+      new ResponseCompressor(new CompressionConfig(64));
+  private static final String LARGE = "{\"items\":[" + "{\"value\":\"hello\"},".repeat(50) + "{}]}";
+
+  @Test
+  final void testGzipsLargeBodyWhenAccepted() throws IOException {
+    final ApiResult result = COMPRESSOR.encode(request("gzip, deflate, br"), ok(LARGE));
+
+    assertTrue(result.base64Encoded());
+    assertEquals("gzip", result.headers().get("Content-Encoding"));
+    assertEquals("Accept-Encoding", result.headers().get("Vary"));
+    assertEquals("\"1-gzip\"", result.headers().get("ETag"));
+    assertEquals(LARGE, gunzip(result.body()));
+  }
+
+  @Test
+  final void testPooledDeflaterGivesSameOutput() {
+    final String first = COMPRESSOR.encode(request("gzip"), ok(LARGE)).body();
+    final String second = COMPRESSOR.encode(request("gzip"), ok(LARGE)).body();
+
+    assertEquals(first, second);
+  }
+
+  @Test
+  final void testLargeBodyVariesWhenNotAccepted() {
+    final ApiResult result = COMPRESSOR.encode(request(null), ok(LARGE));
+
+    assertFalse(result.base64Encoded());
+    assertEquals(LARGE, result.body());
+    assertEquals("Accept-Encoding", result.headers().get("Vary"));
+    assertNull(result.headers().get("Content-Encoding"));
+    assertEquals("\"1\"", result.headers().get("ETag"));
+  }
+
+  @Test
+  final void testNotModifiedEchoesTheGzipTagTheClientHolds() {
+    final ApiResult notModified = new ApiResult(304, Map.of("ETag", "\"1\""), "");
+    final ApiRequest revalidation =
+        new ApiRequest(
+            "GET",
+            "/v1/items",
+            Map.of("accept-encoding", "gzip", "if-none-match", "\"1-gzip\""),
+            null,
+            null,
+            "user-1");
+
+    final ApiResult result = COMPRESSOR.encode(revalidation, notModified);
+
+    assertEquals(304, result.statusCode());
+    assertEquals("\"1-gzip\"", result.headers().get("ETag"));
+    assertSame(notModified, COMPRESSOR.encode(request("gzip"), notModified));
+  }
+
+  @Test
+  final void testSmallBodyIsUntouched() {
+    final ApiResult small = ok("{\"value\":\"hello\"}");
+
+    assertSame(small, COMPRESSOR.encode(request("gzip"), small));
+  }
+
+  @Test
+  final void testDisabledLeavesEverythingAlone() {
+    final ResponseCompressor disabled = new ResponseCompressor(new CompressionConfig(0));
+    final ApiResult large = ok(LARGE);
+
+    assertSame(large, disabled.encode(request("gzip"), large));
+  }
+
+  @Test
+  final void testIncompressibleBodyIsSentAsIs() {
+    assertNull(COMPRESSOR.gzip("0123456789abcdef".getBytes(StandardCharsets.UTF_8)));
+  }
+
+  @Test
+  final void testAcceptEncodingNegotiation() {
+    assertTrue(ResponseCompressor.acceptsGzip("gzip"));
+    assertTrue(ResponseCompressor.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+    assertTrue(ResponseCompressor.acceptsGzip("x-gzip"));
+    assertTrue(ResponseCompressor.acceptsGzip("*"));
+    assertFalse(ResponseCompressor.acceptsGzip("gzip;q=0"));
+    assertFalse(ResponseCompressor.acceptsGzip("gzip;q=0, *"));
+    assertFalse(ResponseCompressor.acceptsGzip("*;q=0"));
+    assertFalse(ResponseCompressor.acceptsGzip("br, deflate"));
+    assertFalse(ResponseCompressor.acceptsGzip("identity"));
+    assertFalse(ResponseCompressor.acceptsGzip(null));
+  }
+
+  private static ApiResult ok(final String body) {
+    return new ApiResult(200, Map.of("ETag", "\"1\""), body);
+  }
+
+  private static ApiRequest request(final String acceptEncoding) {
+    return new ApiRequest(
+        "GET",
+        "/v1/items",
+        acceptEncoding == null ? Map.of() : Map.of("accept-encoding", acceptEncoding),
+        null,
+        null,
+        "user-1");
+  }
+
+  private static String gunzip(final String base64) throws IOException {
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(Base64.getDecoder().decode(base64)))) {
+      return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+    }
+  }
+}
@@ -0,0 +1,122 @@
+package app.web;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RouteTableTest {
+
+  private final RouteTable<String> table =
+      RouteTable.<String>builder()
+          .add(HttpMethod.GET, "/v1/me", "me")
+          .add(HttpMethod.GET, "/v1/items", "list")
+          .add(HttpMethod.POST, "/v1/items", "create")
+          .add(HttpMethod.POST, "/v1/items:batch", "batch")
+          .add(HttpMethod.GET, "/v1/items/{id}", "get")
+          .add(HttpMethod.DELETE, "/v1/items/{id}", "delete")
+          .add(HttpMethod.GET, "/v1/items/{id}/tags/{tag}", "tag")
+          .build();
+
+  @Test
+  void testLiteralRoute() {
+    final RouteTable.Found<String> found =
+        assertInstanceOf(RouteTable.Found.class, table.match(HttpMethod.GET, "/v1/me"));
+    assertEquals("me", found.handler());
+    assertEquals(Map.of(), found.params());
+  }
+
+  @Test
+  void testMethodSelectsHandler() {
+    assertEquals("create", found(HttpMethod.POST, "/v1/items").handler());
+    assertEquals("list", found(HttpMethod.GET, "/v1/items").handler());
+  }
+
+  @Test
+  void testCapturesPathParameters() {
+    final RouteTable.Found<String> found = found(HttpMethod.GET, "/v1/items/abc-123");
+    assertEquals("get", found.handler());
+    assertEquals(Map.of("id", "abc-123"), found.params());
+  }
+
+  @Test
+  void testCapturesSeveralPathParameters() {
+    assertEquals(
+        Map.of("id", "a", "tag", "b"), found(HttpMethod.GET, "/v1/items/a/tags/b").params());
+  }
+
+  @Test
+  void testLiteralSegmentWinsOverCapture() {
+    assertEquals("batch", found(HttpMethod.POST, "/v1/items:batch").handler());
+  }
+
+  @Test
+  void testMethodNotAllowedListsAllowedMethods() {
+    final RouteTable.MethodNotAllowed<String> notAllowed =
+        assertInstanceOf(
+            RouteTable.MethodNotAllowed.class, table.match(HttpMethod.PATCH, "/v1/items"));
+    assertEquals("GET, POST", notAllowed.allow());
+  }
+
+  @Test
+  void testUnknownMethodIsNotAllowed() {
+    final RouteTable.MethodNotAllowed<String> notAllowed =
+        assertInstanceOf(RouteTable.MethodNotAllowed.class, table.match(null, "/v1/items/x"));
+    assertEquals("GET, DELETE", notAllowed.allow());
+  }
+
+  @Test
+  void testUnknownPathsAreNotFound() {
+    for (final String path :
+        new String[] {
+          null, "", "/", "v1/me", "/v1/me/", "/v1/ME", "/v1/items/", "/v1/items/a/b", "/v1/other"
+        }) {
+      assertInstanceOf(RouteTable.NotFound.class, table.match(HttpMethod.GET, path), path);
+    }
+  }
+
+  @Test
+  void testIntermediateNodeIsNotFound() {
+    assertInstanceOf(RouteTable.NotFound.class, table.match(HttpMethod.GET, "/v1"));
+  }
+
+  @Test
+  void testDuplicateRouteIsRejected() {
+    final RouteTable.Builder<String> builder =
+        RouteTable.<String>builder().add(HttpMethod.GET, "/a/{id}", "first");
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.add(HttpMethod.GET, "/a/{id}", "second"));
+  }
+
+  @Test
+  void testConflictingParameterNamesAreRejected() {
+    final RouteTable.Builder<String> builder =
+        RouteTable.<String>builder().add(HttpMethod.GET, "/a/{id}", "first");
+    assertThrows(
+        IllegalArgumentException.class, () -> builder.add(HttpMethod.PUT, "/a/{key}", "second"));
+  }
+
+  @Test
+  void testTemplateMustBeAbsolute() {
+    assertThrows(
+        IllegalArgumentException.class,
+        () -> RouteTable.<String>builder().add(HttpMethod.GET, "a", "x"));
+  }
+
+  @Test
+  void testHttpMethodResolvesWithoutThrowing() {
+    assertEquals(HttpMethod.GET, HttpMethod.of("GET"));
+    assertEquals(HttpMethod.OPTIONS, HttpMethod.of("OPTIONS"));
+    assertNull(HttpMethod.of("get"));
+    assertNull(HttpMethod.of("INVALID_METHOD"));
+    assertNull(HttpMethod.of(null));
+  }
+
+  @SuppressWarnings("unchecked")
+  private RouteTable.Found<String> found(final HttpMethod method, final String path) {
+    return assertInstanceOf(RouteTable.Found.class, table.match(method, path));
+  }
+}
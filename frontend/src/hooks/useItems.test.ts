@@ -13,7 +13,13 @@ vi.mock("../services/itemsService", () => ({
 
 describe("useItems", () => {
   const mockItems: Item[] = [
-    { item_id: "1", value: "Test Item 1", created_at: 1000, updated_at: 1000 },
+    {
+      item_id: "1",
+      value: "Test Item 1",
+      created_at: 1000,
+      updated_at: 1000,
+      version: 2,
+    },
     { item_id: "2", value: "Test Item 2", created_at: 2000, updated_at: 2000 },
   ];
 
@@ -106,7 +112,7 @@ describe("useItems", () => {
       await result.current.update("1", "Updated Item");
     });
 
-    expect(updateItem).toHaveBeenCalledWith("1", "Updated Item");
+    expect(updateItem).toHaveBeenCalledWith("1", "Updated Item", 2);
     expect(result.current.saving).toBe(false);
   });
 
@@ -43,7 +43,8 @@ export function useItems() {
     setSaving(true);
     setError(null);
     try {
-      await updateItem(itemId, value);
+      const version = items.find((i) => i.item_id === itemId)?.version;
+      await updateItem(itemId, value, version);
       await load();
     } catch (e: unknown) {
       setError(e instanceof Error ? e.message : String(e));
@@ -44,6 +44,49 @@ describe("itemsService", () => {
       ]);
     });
 
+    it("follows next_cursor until the last page", async () => {
+      mockAuthorizedFetch
+        .mockResolvedValueOnce({
+          ok: true,
+          json: () =>
+            Promise.resolve({
+              items: [
+                {
+                  item_id: "2",
+                  value: "B",
+                  created_at: 2000,
+                  updated_at: 2000,
+                },
+              ],
+              next_cursor: "abc+/",
+            }),
+        })
+        .mockResolvedValueOnce({
+          ok: true,
+          json: () =>
+            Promise.resolve({
+              items: [
+                {
+                  item_id: "1",
+                  value: "A",
+                  created_at: 1000,
+                  updated_at: 1000,
+                },
+              ],
+              next_cursor: null,
+            }),
+        });
+
+      const result = await getItems();
+
+      expect(mockAuthorizedFetch).toHaveBeenNthCalledWith(
+        2,
+        "/v1/items?cursor=abc%2B%2F",
+        { method: "GET" },
+      );
+      expect(result.map((item) => item.item_id)).toEqual(["1", "2"]);
+    });
+
     it("handles empty items array", async () => {
       mockAuthorizedFetch.mockResolvedValue({
         ok: true,
@@ -112,6 +155,26 @@ describe("itemsService", () => {
       });
     });
 
+    it("sends the known version as If-Match", async () => {
+      mockAuthorizedFetch.mockResolvedValue({ ok: true });
+
+      await updateItem("item123", "updated value", 3);
+
+      expect(mockAuthorizedFetch).toHaveBeenCalledWith("/v1/items/item123", {
+        method: "PUT",
+        body: JSON.stringify({ value: "updated value" }),
+        headers: { "If-Match": '"3"' },
+      });
+    });
+
+    it("reports a version conflict", async () => {
+      mockAuthorizedFetch.mockResolvedValue({ ok: false, status: 412 });
+
+      await expect(updateItem("item123", "test", 3)).rejects.toThrow(
+        "Item was changed elsewhere; reload and try again",
+      );
+    });
+
     it("throws error on failed request", async () => {
       mockAuthorizedFetch.mockResolvedValue({
         ok: false,
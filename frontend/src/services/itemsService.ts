@@ -5,14 +5,23 @@ export type Item = {
   value: string;
   created_at: number;
   updated_at: number;
+  version?: number;
 };
 
 export async function getItems(): Promise<Item[]> {
-  const res = await authorizedFetch("/v1/items", { method: "GET" });
-  if (!res.ok) throw new Error(`GET /v1/items failed (${res.status})`);
-  const data = await res.json();
-  const itemsArray = Array.isArray(data.items) ? data.items : [];
-  return itemsArray.sort((a: Item, b: Item) => a.created_at - b.created_at);
+  const items: Item[] = [];
+  let cursor: string | null = null;
+  do {
+    const path: string = cursor
+      ? `/v1/items?cursor=${encodeURIComponent(cursor)}`
+      : "/v1/items";
+    const res = await authorizedFetch(path, { method: "GET" });
+    if (!res.ok) throw new Error(`GET /v1/items failed (${res.status})`);
+    const data = await res.json();
+    if (Array.isArray(data.items)) items.push(...data.items);
+    cursor = typeof data.next_cursor === "string" ? data.next_cursor : null;
+  } while (cursor);
+  return items.sort((a: Item, b: Item) => a.created_at - b.created_at);
 }
 
 export async function createItem(value: string): Promise<void> {
@@ -23,11 +32,19 @@ export async function createItem(value: string): Promise<void> {
   if (!res.ok) throw new Error(`POST /v1/items failed (${res.status})`);
 }
 
-export async function updateItem(itemId: string, value: string): Promise<void> {
+export async function updateItem(
+  itemId: string,
+  value: string,
+  version?: number,
+): Promise<void> {
+  const ifMatch = version !== undefined ? { "If-Match": `"${version}"` } : null;
   const res = await authorizedFetch(`/v1/items/${itemId}`, {
     method: "PUT",
     body: JSON.stringify({ value }),
+    ...(ifMatch && { headers: ifMatch }),
   });
+  if (res.status === 412)
+    throw new Error("Item was changed elsewhere; reload and try again");
   if (!res.ok)
     throw new Error(`PUT /v1/items/${itemId} failed (${res.status})`);
 }
@@ -19,6 +19,10 @@ export class Api extends Construct {
     this.restApi = new apigw.RestApi(this, "RestApi", {
       restApiName: "LakituApi",
       deployOptions: { stageName: "prod" },
+      // Lets the function return gzipped bodies as base64 for API Gateway to decode. Request
+      // bodies then arrive base64-encoded too, which the function decodes, and responses it does
+      // not mark isBase64Encoded still pass through as text (see StreamingRouterHandlerTest).
+      binaryMediaTypes: ["*/*"],
     });
 
     // Add CORS headers to gateway responses for auth errors
@@ -26,7 +30,7 @@ export class Api extends Construct {
       type: apigw.ResponseType.UNAUTHORIZED,
       responseHeaders: {
         "Access-Control-Allow-Origin": "'http://localhost:5173'",
-        "Access-Control-Allow-Headers": "'Authorization,Content-Type'",
+        "Access-Control-Allow-Headers": "'Authorization,Content-Type,If-Match,If-None-Match'",
         "Access-Control-Allow-Methods": "'GET,POST,PUT,PATCH,DELETE,OPTIONS'",
       },
     });
@@ -26,7 +26,7 @@ export class LambdaFunction extends Construct {
       runtime: lambda.Runtime.JAVA_21,
       memorySize: 512,
       timeout: Duration.seconds(10),
-      handler: "app.handlers.RouterHandler::handleRequest",
+      handler: "app.handlers.StreamingRouterHandler::handleRequest",
       code: lambda.Code.fromAsset(
         join(dirName, "../../../backend/build/libs/backend-0.1.0-all.jar"),
       ),